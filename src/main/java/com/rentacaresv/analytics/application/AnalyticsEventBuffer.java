@@ -0,0 +1,200 @@
+package com.rentacaresv.analytics.application;
+
+import com.rentacaresv.analytics.domain.AnalyticsEvent;
+import com.rentacaresv.analytics.infrastructure.persistence.AnalyticsEventBatchWriter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffer en memoria (write-behind) para eventos de analíticas.
+ *
+ * El endpoint público solo encola el evento; un hilo de fondo vacía la cola en
+ * lotes JDBC cuando se junta {@code batch-size} eventos o pasa {@code flush-interval-ms}.
+ * La cola es acotada: al llenarse descarta el evento más antiguo (DROP_OLDEST)
+ * o rechaza el nuevo (REJECT, el endpoint responde 503).
+ * Al apagar la aplicación se vacía lo pendiente antes de cerrar.
+ */
+@Component
+@Slf4j
+public class AnalyticsEventBuffer {
+
+    /**
+     * Política cuando la cola está llena
+     */
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        REJECT
+    }
+
+    private final AnalyticsEventBatchWriter batchWriter;
+    private final ArrayBlockingQueue<AnalyticsEvent> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final OverflowPolicy overflowPolicy;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running = false;
+    private Thread flusherThread;
+
+    public AnalyticsEventBuffer(
+            AnalyticsEventBatchWriter batchWriter,
+            MeterRegistry meterRegistry,
+            @Value("${app.analytics.buffer.capacity:10000}") int capacity,
+            @Value("${app.analytics.buffer.batch-size:200}") int batchSize,
+            @Value("${app.analytics.buffer.flush-interval-ms:2000}") long flushIntervalMs,
+            @Value("${app.analytics.buffer.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy) {
+
+        this.batchWriter = batchWriter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.overflowPolicy = overflowPolicy;
+
+        FunctionCounter.builder("analytics.events.accepted", accepted, AtomicLong::get)
+                .description("Eventos de analíticas aceptados en el buffer")
+                .register(meterRegistry);
+        FunctionCounter.builder("analytics.events.dropped", dropped, AtomicLong::get)
+                .description("Eventos descartados o rechazados por buffer lleno")
+                .register(meterRegistry);
+        FunctionCounter.builder("analytics.events.flushed", flushed, AtomicLong::get)
+                .description("Eventos guardados en BD")
+                .register(meterRegistry);
+        FunctionCounter.builder("analytics.events.failed", failed, AtomicLong::get)
+                .description("Eventos perdidos por error al guardar")
+                .register(meterRegistry);
+        Gauge.builder("analytics.events.pending", queue, ArrayBlockingQueue::size)
+                .description("Eventos en el buffer pendientes de guardar")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusherThread = new Thread(this::runFlusher, "analytics-flusher");
+        flusherThread.setDaemon(true);
+        flusherThread.start();
+        log.info("Buffer de analíticas iniciado (capacidad: {}, lote: {}, intervalo: {} ms, política: {})",
+                queue.remainingCapacity(), batchSize, flushIntervalMs, overflowPolicy);
+    }
+
+    /**
+     * Encola un evento sin bloquear
+     *
+     * @return false si el buffer está lleno y la política es REJECT
+     */
+    public boolean offer(AnalyticsEvent event) {
+        if (queue.offer(event)) {
+            accepted.incrementAndGet();
+            return true;
+        }
+
+        if (overflowPolicy == OverflowPolicy.REJECT) {
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        // DROP_OLDEST: liberar espacio descartando el evento más antiguo
+        while (!queue.offer(event)) {
+            if (queue.poll() != null) {
+                dropped.incrementAndGet();
+            }
+        }
+        accepted.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Contadores actuales del buffer
+     */
+    public BufferStats getStats() {
+        return new BufferStats(accepted.get(), dropped.get(), flushed.get(), failed.get(), queue.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (flusherThread != null) {
+            flusherThread.interrupt();
+            try {
+                flusherThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Guardar lo que haya quedado en la cola
+        List<AnalyticsEvent> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            writeBatch(remaining);
+            remaining.clear();
+        }
+        log.info("Buffer de analíticas detenido. {}", getStats());
+    }
+
+    // ─── Hilo de vaciado ───────────────────────────────────────────────────────
+
+    private void runFlusher() {
+        List<AnalyticsEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                // Apagado: lo pendiente lo guarda shutdown()
+                break;
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    /**
+     * Espera hasta completar un lote o hasta que venza el intervalo
+     */
+    private void fillBatch(List<AnalyticsEvent> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return;
+            }
+            AnalyticsEvent event = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            if (event == null) {
+                return;
+            }
+            batch.add(event);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void writeBatch(List<AnalyticsEvent> batch) {
+        try {
+            flushed.addAndGet(batchWriter.insertBatch(batch));
+        } catch (Exception e) {
+            failed.addAndGet(batch.size());
+            log.warn("Error guardando lote de {} eventos de analytics: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    public record BufferStats(long accepted, long dropped, long flushed, long failed, int pending) {}
+}
@@ -0,0 +1,135 @@
+package com.rentacaresv.analytics.application;
+
+import com.rentacaresv.analytics.infrastructure.persistence.AnalyticsPartitionRepository;
+import com.rentacaresv.analytics.infrastructure.persistence.AnalyticsRollupRepository;
+import com.rentacaresv.shared.infrastructure.ChunkedPurger;
+import com.rentacaresv.shared.infrastructure.DatabaseLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Mantiene las particiones mensuales de analytics_event.
+ *
+ * Crea por adelantado las particiones de los próximos meses y elimina las que
+ * superan la retención, solo si todos sus días ya están consolidados en los
+ * rollups (el dashboard sigue mostrando esos meses desde analytics_daily_rollup).
+ * Borrar un mes es un DROP PARTITION, no un DELETE de millones de filas.
+ * Si la tabla no está particionada, aplica la misma retención con {@link ChunkedPurger}.
+ * Corre en un solo nodo a la vez (named lock de MariaDB): dos nodos creando o
+ * eliminando la misma partición fallarían con nombres duplicados o inexistentes.
+ */
+@Component
+@Slf4j
+public class AnalyticsPartitionManager {
+
+    private static final String LOCK_NAME = "rentacaresv.analytics-partitions";
+
+    private final AnalyticsPartitionRepository partitionRepository;
+    private final AnalyticsRollupRepository rollupRepository;
+    private final ChunkedPurger chunkedPurger;
+    private final DatabaseLock databaseLock;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public AnalyticsPartitionManager(
+            AnalyticsPartitionRepository partitionRepository,
+            AnalyticsRollupRepository rollupRepository,
+            ChunkedPurger chunkedPurger,
+            DatabaseLock databaseLock,
+            @Value("${app.analytics.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${app.analytics.retention-months:13}") int retentionMonths) {
+        if (retentionMonths < 1) {
+            throw new IllegalArgumentException("app.analytics.retention-months debe ser al menos 1");
+        }
+        this.partitionRepository = partitionRepository;
+        this.rollupRepository = rollupRepository;
+        this.chunkedPurger = chunkedPurger;
+        this.databaseLock = databaseLock;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * Crea y elimina particiones (diariamente a las 3:30 AM)
+     */
+    @Scheduled(cron = "${app.analytics.partitions.cron:0 30 3 * * ?}")
+    public void maintainPartitions() {
+        Optional<Boolean> ran = databaseLock.runIfAvailableWithoutTransaction(LOCK_NAME, () -> {
+            maintain();
+            return Boolean.TRUE;
+        });
+        if (ran.isEmpty()) {
+            log.debug("Particiones de analíticas: otro nodo las está manteniendo");
+        }
+    }
+
+    private void maintain() {
+        List<String> partitions = partitionRepository.findPartitionNames();
+        if (partitions.isEmpty()) {
+            purgeExpiredEvents();
+            return;
+        }
+
+        List<YearMonth> months = partitions.stream()
+                .map(AnalyticsPartitionRepository::parseMonth)
+                .filter(Objects::nonNull)
+                .toList();
+
+        createUpcomingPartitions(months);
+        dropExpiredPartitions(months);
+    }
+
+    /**
+     * Retención sin particiones: borra por tramos los eventos anteriores al
+     * mes más antiguo conservado que ya estén consolidados
+     */
+    private void purgeExpiredEvents() {
+        LocalDate lastRolled = rollupRepository.findLastRolledUpDay();
+        if (lastRolled == null) {
+            return;
+        }
+        LocalDate oldestKept = YearMonth.now().minusMonths(retentionMonths).atDay(1);
+        LocalDate cutoff = lastRolled.plusDays(1).isBefore(oldestKept) ? lastRolled.plusDays(1) : oldestKept;
+        chunkedPurger.purge("analytics_event", "id", "created_at < ?", cutoff.atStartOfDay());
+    }
+
+    private void createUpcomingPartitions(List<YearMonth> months) {
+        YearMonth target = YearMonth.now().plusMonths(monthsAhead);
+        YearMonth next = months.isEmpty() ? YearMonth.now() : months.get(months.size() - 1).plusMonths(1);
+
+        while (!next.isAfter(target)) {
+            partitionRepository.addMonthPartition(next);
+            log.info("📦 Partición de analíticas creada: {}", AnalyticsPartitionRepository.partitionName(next));
+            next = next.plusMonths(1);
+        }
+    }
+
+    private void dropExpiredPartitions(List<YearMonth> months) {
+        YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+        LocalDate lastRolled = rollupRepository.findLastRolledUpDay();
+        if (lastRolled == null) {
+            return; // Sin rollups no se borra nada
+        }
+
+        for (YearMonth month : months) {
+            if (!month.isBefore(oldestKept)) {
+                break;
+            }
+            if (lastRolled.isBefore(month.atEndOfMonth())) {
+                log.warn("Partición {} fuera de retención pero sin rollup completo (último día consolidado: {})",
+                        AnalyticsPartitionRepository.partitionName(month), lastRolled);
+                break;
+            }
+            partitionRepository.dropMonthPartition(month);
+            log.info("🗑️ Partición de analíticas eliminada: {}", AnalyticsPartitionRepository.partitionName(month));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.rentacaresv.analytics.application;
+
+import com.rentacaresv.analytics.infrastructure.persistence.AnalyticsRollupRepository;
+import com.rentacaresv.shared.infrastructure.DatabaseLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Optional;
+
+import java.time.LocalDate;
+
+/**
+ * Consolida los eventos crudos de analíticas en rollups diarios.
+ *
+ * Procesa en orden los días cerrados (hasta ayer) que aún no tienen rollup,
+ * cada uno en su propia transacción. Así el dashboard lee los días cerrados
+ * desde analytics_daily_rollup y solo consulta eventos crudos del día actual.
+ * Corre en un solo nodo a la vez (named lock de MariaDB): cada día se borra y se
+ * vuelve a insertar, y dos nodos a la vez se pisarían o chocarían en los gap locks.
+ */
+@Component
+@Slf4j
+public class AnalyticsRollupJob {
+
+    private static final String LOCK_NAME = "rentacaresv.analytics-rollup";
+
+    private final AnalyticsRollupRepository rollupRepository;
+    private final DatabaseLock databaseLock;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxDaysPerRun;
+    private final int hllPrecision;
+
+    public AnalyticsRollupJob(
+            AnalyticsRollupRepository rollupRepository,
+            DatabaseLock databaseLock,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.analytics.rollup.max-days-per-run:366}") int maxDaysPerRun,
+            @Value("${app.analytics.hll.precision:12}") int hllPrecision) {
+        this.rollupRepository = rollupRepository;
+        this.databaseLock = databaseLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxDaysPerRun = maxDaysPerRun;
+        this.hllPrecision = hllPrecision;
+    }
+
+    /**
+     * Consolida los días pendientes (cada hora, a los 10 minutos)
+     */
+    @Scheduled(cron = "${app.analytics.rollup.cron:0 10 * * * ?}")
+    public void rollupClosedDays() {
+        Optional<Boolean> ran = databaseLock.runIfAvailableWithoutTransaction(LOCK_NAME, () -> {
+            rollupPendingDays();
+            return Boolean.TRUE;
+        });
+        if (ran.isEmpty()) {
+            log.debug("Rollup de analíticas: otro nodo lo está procesando");
+        }
+    }
+
+    private void rollupPendingDays() {
+        LocalDate lastClosedDay = LocalDate.now().minusDays(1);
+
+        LocalDate lastRolled = rollupRepository.findLastRolledUpDay();
+        LocalDate next;
+        if (lastRolled != null) {
+            next = lastRolled.plusDays(1);
+        } else {
+            next = rollupRepository.findFirstEventDay();
+            if (next == null) {
+                return; // Sin eventos todavía
+            }
+        }
+
+        int processed = 0;
+        while (!next.isAfter(lastClosedDay) && processed < maxDaysPerRun) {
+            LocalDate day = next;
+            Long events = transactionTemplate.execute(status -> rollupRepository.rollupDay(day, hllPrecision));
+            log.debug("Rollup de analíticas para {}: {} eventos", day, events);
+            next = next.plusDays(1);
+            processed++;
+        }
+
+        if (processed > 0) {
+            log.info("Rollup de analíticas: {} días consolidados (hasta {})", processed, next.minusDays(1));
+        }
+    }
+}
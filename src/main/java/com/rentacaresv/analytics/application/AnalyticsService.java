@@ -2,8 +2,11 @@ package com.rentacaresv.analytics.application;
 
 import com.rentacaresv.analytics.domain.AnalyticsEvent;
 import com.rentacaresv.analytics.infrastructure.persistence.AnalyticsEventRepository;
-import lombok.RequiredArgsConstructor;
+import com.rentacaresv.analytics.infrastructure.persistence.AnalyticsRollupRepository;
+import com.rentacaresv.shared.util.HyperLogLog;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -11,80 +14,282 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
+/**
+ * Registro de eventos y estadísticas del dashboard de analíticas.
+ *
+ * Las estadísticas se memorizan por rango (from, to) durante {@code dashboard.cache-ttl-ms}:
+ * varios administradores mirando el dashboard comparten un mismo cálculo.
+ * Dentro de un cálculo, el embudo y los vehículos se consultan en paralelo
+ * (cada uno con su propia conexión) mientras el hilo llamador obtiene los contadores.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AnalyticsService {
 
+    private static final int TOP_VEHICLES = 10;
+
     private final AnalyticsEventRepository repo;
+    private final AnalyticsRollupRepository rollupRepository;
+    private final AnalyticsEventBuffer eventBuffer;
+    private final int hllPrecision;
+    private final long statsTtlNanos;
+    private final ExecutorService queryExecutor;
 
-    // ─── Guardar evento ────────────────────────────────────────────────────────
+    private final Map<StatsKey, CachedStats> statsCache = new ConcurrentHashMap<>();
 
-    public void save(AnalyticsEvent event) {
-        try {
-            repo.save(event);
-        } catch (Exception e) {
-            log.warn("Error guardando evento de analytics: {}", e.getMessage());
+    public AnalyticsService(
+            AnalyticsEventRepository repo,
+            AnalyticsRollupRepository rollupRepository,
+            AnalyticsEventBuffer eventBuffer,
+            @Value("${app.analytics.hll.precision:12}") int hllPrecision,
+            @Value("${app.analytics.dashboard.cache-ttl-ms:30000}") long statsTtlMs,
+            @Value("${app.analytics.dashboard.query-parallelism:2}") int queryParallelism,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+
+        this.repo = repo;
+        this.rollupRepository = rollupRepository;
+        this.eventBuffer = eventBuffer;
+        this.hllPrecision = hllPrecision;
+        this.statsTtlNanos = TimeUnit.MILLISECONDS.toNanos(statsTtlMs);
+
+        // No ocupar más de la mitad del pool de conexiones con consultas del dashboard
+        int threads = Math.min(queryParallelism, poolSize / 2);
+        if (threads > 1) {
+            AtomicInteger counter = new AtomicInteger();
+            this.queryExecutor = Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, "analytics-query-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        } else {
+            this.queryExecutor = null;
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        if (queryExecutor != null) {
+            queryExecutor.shutdownNow();
+        }
+    }
+
+    // ─── Registrar evento ──────────────────────────────────────────────────────
+
+    /**
+     * Encola el evento para guardarlo en lote (write-behind).
+     *
+     * @return false si el buffer está lleno y rechaza eventos
+     */
+    public boolean track(AnalyticsEvent event) {
+        return eventBuffer.offer(event);
+    }
+
     // ─── Dashboard ─────────────────────────────────────────────────────────────
 
+    /**
+     * Estadísticas del rango [from, to], memorizadas por un TTL corto.
+     * Si otro hilo ya está calculando el mismo rango, espera su resultado.
+     */
     public DashboardStats getStats(LocalDate from, LocalDate to) {
+        StatsKey key = new StatsKey(from, to);
+        long now = System.nanoTime();
+
+        CompletableFuture<DashboardStats> created = new CompletableFuture<>();
+        CachedStats entry = statsCache.compute(key, (k, current) ->
+                current != null && current.isFresh(now) ? current : new CachedStats(created, now + statsTtlNanos));
+
+        if (entry.stats() == created) {
+            statsCache.values().removeIf(cached -> !cached.isFresh(now));
+            try {
+                created.complete(computeStats(from, to));
+            } catch (RuntimeException e) {
+                statsCache.remove(key, entry);
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return await(entry.stats());
+    }
+
+    /**
+     * Los días ya consolidados se leen de los rollups diarios; solo los días
+     * sin rollup (normalmente hoy) se calculan sobre los eventos crudos.
+     */
+    private DashboardStats computeStats(LocalDate from, LocalDate to) {
         LocalDateTime start = from.atStartOfDay();
         LocalDateTime end   = to.atTime(LocalTime.MAX);
 
-        long uniqueVisitors        = nvl(repo.countUniqueVisitors(start, end));
-        long vehicleDetailViews    = nvl(repo.countByType("vehicle_detail",        start, end));
-        long whatsappClicks        = nvl(repo.countByType("whatsapp_click",        start, end));
-        long reserveClicks         = nvl(repo.countByType("reserve_click",         start, end));
-        long reservationsCompleted = nvl(repo.countByType("reservation_complete",  start, end));
+        LocalDate lastRolled = rollupRepository.findLastRolledUpDay();
+        LocalDate rollupTo   = lastRolled != null && lastRolled.isBefore(to) ? lastRolled : to;
+        boolean useRollup    = lastRolled != null && !rollupTo.isBefore(from);
+        LocalDate rawFrom    = useRollup ? rollupTo.plusDays(1) : from;
+        boolean useRaw       = !rawFrom.isAfter(to);
+        LocalDateTime rawStart = rawFrom.atStartOfDay();
+
+        CompletableFuture<List<StepStat>> funnel = submit(() -> {
+            List<Object[]> rows = new ArrayList<>();
+            if (useRollup) {
+                rows.addAll(rollupRepository.findReservationStepFunnel(from, rollupTo));
+            }
+            if (useRaw) {
+                rows.addAll(repo.findReservationStepFunnel(rawStart, end));
+            }
+            return buildStepFunnel(rows);
+        });
+        CompletableFuture<List<VehicleStat>> vehicles = submit(() -> {
+            List<Object[]> rows = new ArrayList<>();
+            if (useRollup) {
+                rows.addAll(rollupRepository.findVehicleStats(from, rollupTo));
+            }
+            if (useRaw) {
+                rows.addAll(repo.findVehicleStats(rawStart, end));
+            }
+            return buildTopVehicles(rows);
+        });
+
+        Map<String, Long> counts = new HashMap<>();
+        long rawUniqueVisitors = 0L;
+
+        if (useRollup) {
+            for (Object[] row : rollupRepository.sumByType(from, rollupTo)) {
+                counts.merge((String) row[0], (Long) row[1], Long::sum);
+            }
+        }
+
+        if (useRaw) {
+            List<Object[]> rows = repo.sumDashboardCounters(rawStart, end);
+            Object[] row = rows.isEmpty() ? new Object[5] : rows.get(0);
+            counts.merge("vehicle_detail",       toLong(row[0]), Long::sum);
+            counts.merge("whatsapp_click",       toLong(row[1]), Long::sum);
+            counts.merge("reserve_click",        toLong(row[2]), Long::sum);
+            counts.merge("reservation_complete", toLong(row[3]), Long::sum);
+            rawUniqueVisitors = toLong(row[4]);
+        }
 
-        List<StepStat> funnel    = buildStepFunnel(repo.findReservationStepFunnel(start, end));
-        List<VehicleStat> topVehicles = buildTopVehicles(repo.findTopVehicles(start, end));
+        long uniqueVisitors = useRollup
+                ? countUniqueVisitors(from, rollupTo, rawFrom, useRaw, start, end)
+                : rawUniqueVisitors;
 
         return new DashboardStats(
                 uniqueVisitors,
-                vehicleDetailViews,
-                whatsappClicks,
-                reserveClicks,
-                reservationsCompleted,
-                funnel,
-                topVehicles
+                counts.getOrDefault("vehicle_detail", 0L),
+                counts.getOrDefault("whatsapp_click", 0L),
+                counts.getOrDefault("reserve_click", 0L),
+                counts.getOrDefault("reservation_complete", 0L),
+                await(funnel),
+                await(vehicles)
         );
     }
 
     // ─── Helpers privados ──────────────────────────────────────────────────────
 
+    /**
+     * Visitantes únicos aproximados: combina los sketches HyperLogLog de los días
+     * consolidados y agrega los session_id de los días sin rollup al mismo sketch.
+     * Si a algún día consolidado le falta su sketch, usa el conteo exacto.
+     */
+    private long countUniqueVisitors(LocalDate from, LocalDate rollupTo,
+                                     LocalDate rawFrom, boolean useRaw,
+                                     LocalDateTime start, LocalDateTime end) {
+        List<HyperLogLog> sketches = rollupRepository.findVisitorSketches(from, rollupTo);
+        if (sketches.size() != rollupRepository.countRolledUpDays(from, rollupTo)) {
+            return nvl(repo.countUniqueVisitors(start, end));
+        }
+
+        HyperLogLog merged = new HyperLogLog(hllPrecision);
+        for (HyperLogLog sketch : sketches) {
+            merged = merged.merge(sketch);
+        }
+        if (useRaw) {
+            for (String sessionId : repo.findDistinctSessionIds(rawFrom.atStartOfDay(), end)) {
+                merged.add(sessionId);
+            }
+        }
+        return merged.estimate();
+    }
+
+    /**
+     * Ejecuta la consulta en el pool del dashboard, o en el hilo actual si no hay paralelismo
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> query) {
+        if (queryExecutor == null) {
+            return CompletableFuture.completedFuture(query.get());
+        }
+        return CompletableFuture.supplyAsync(query, queryExecutor);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Agrupa filas (step_number, step_name, cnt) que pueden venir repetidas
+     * de rollups y eventos crudos, ordenadas por número de paso
+     */
     private List<StepStat> buildStepFunnel(List<Object[]> rows) {
-        List<StepStat> list = new ArrayList<>();
+        Map<String, StepStat> merged = new LinkedHashMap<>();
         for (Object[] row : rows) {
             int    stepNumber = row[0] != null ? ((Number) row[0]).intValue() : 0;
             String stepName   = row[1] != null ? row[1].toString() : "Paso " + stepNumber;
             long   count      = row[2] != null ? ((Number) row[2]).longValue() : 0L;
-            list.add(new StepStat(stepNumber, stepName, count));
+            merged.merge(stepNumber + "|" + stepName, new StepStat(stepNumber, stepName, count),
+                    (a, b) -> new StepStat(a.stepNumber(), a.stepName(), a.count() + b.count()));
         }
+        List<StepStat> list = new ArrayList<>(merged.values());
+        list.sort(Comparator.comparingInt(StepStat::stepNumber));
         return list;
     }
 
+    /**
+     * Agrupa filas (vehicle_name, views, wa_clicks, reserve_clicks) por vehículo
+     * y devuelve los 10 con más vistas
+     */
     private List<VehicleStat> buildTopVehicles(List<Object[]> rows) {
-        List<VehicleStat> list = new ArrayList<>();
+        Map<String, VehicleStat> merged = new HashMap<>();
         for (Object[] row : rows) {
             String vehicleName  = row[0] != null ? row[0].toString() : "—";
             long   views        = row[1] != null ? ((Number) row[1]).longValue() : 0L;
             long   waClicks     = row[2] != null ? ((Number) row[2]).longValue() : 0L;
             long   reserveClks  = row[3] != null ? ((Number) row[3]).longValue() : 0L;
-            list.add(new VehicleStat(vehicleName, views, waClicks, reserveClks));
+            merged.merge(vehicleName, new VehicleStat(vehicleName, views, waClicks, reserveClks),
+                    (a, b) -> new VehicleStat(a.vehicleName(), a.views() + b.views(),
+                            a.waClicks() + b.waClicks(), a.reserveClicks() + b.reserveClicks()));
         }
-        return list;
+        return merged.values().stream()
+                .sorted(Comparator.comparingLong(VehicleStat::views).reversed())
+                .limit(TOP_VEHICLES)
+                .toList();
     }
 
     private long nvl(Long value) {
         return value != null ? value : 0L;
     }
 
+    private long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
     // ─── Records de datos ──────────────────────────────────────────────────────
 
     public record DashboardStats(
@@ -100,4 +305,12 @@ public class AnalyticsService {
     public record StepStat(int stepNumber, String stepName, long count) {}
 
     public record VehicleStat(String vehicleName, long views, long waClicks, long reserveClicks) {}
+
+    private record StatsKey(LocalDate from, LocalDate to) {}
+
+    private record CachedStats(CompletableFuture<DashboardStats> stats, long expiresAtNanos) {
+        boolean isFresh(long now) {
+            return now - expiresAtNanos < 0;
+        }
+    }
 }
@@ -9,6 +9,7 @@ import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -50,7 +51,10 @@ public class PublicAnalyticsController {
                 .ip(extractIp(request))
                 .build();
 
-        analyticsService.save(event);
+        if (!analyticsService.track(event)) {
+            // Buffer lleno: el cliente puede reintentar más tarde
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
         return ResponseEntity.ok().build();
     }
 
@@ -0,0 +1,75 @@
+package com.rentacaresv.analytics.infrastructure.persistence;
+
+import com.rentacaresv.analytics.domain.AnalyticsEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Inserción por lotes (JDBC batch) de eventos de analíticas.
+ * Evita pasar por el contexto de persistencia: un lote = un round trip.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnalyticsEventBatchWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO analytics_event
+                (event_type, page_path, vehicle_id, vehicle_name, step_number, step_name,
+                 source, contract_number, total_amount, session_id, ip, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserta todos los eventos en un único batch
+     *
+     * @return cantidad de eventos enviados
+     */
+    public int insertBatch(List<AnalyticsEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, e) -> {
+            ps.setString(1, e.getEventType());
+            ps.setString(2, e.getPagePath());
+            setLong(ps, 3, e.getVehicleId());
+            ps.setString(4, e.getVehicleName());
+            setInt(ps, 5, e.getStepNumber());
+            ps.setString(6, e.getStepName());
+            ps.setString(7, e.getSource());
+            ps.setString(8, e.getContractNumber());
+            ps.setBigDecimal(9, e.getTotalAmount());
+            ps.setString(10, e.getSessionId());
+            ps.setString(11, e.getIp());
+            LocalDateTime createdAt = e.getCreatedAt() != null ? e.getCreatedAt() : LocalDateTime.now();
+            ps.setTimestamp(12, Timestamp.valueOf(createdAt));
+        });
+        return events.size();
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static void setInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+}
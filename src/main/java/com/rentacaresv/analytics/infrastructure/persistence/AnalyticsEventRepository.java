@@ -19,19 +19,34 @@ public interface AnalyticsEventRepository extends JpaRepository<AnalyticsEvent,
             """, nativeQuery = true)
     Long countUniqueVisitors(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
-    /** Cantidad de eventos de un tipo específico */
+    /** Session ids distintos en el rango (para agregarlos a un sketch HyperLogLog) */
     @Query(value = """
-            SELECT COUNT(*)
+            SELECT DISTINCT session_id
             FROM analytics_event
-            WHERE event_type = :type
-              AND created_at BETWEEN :from AND :to
+            WHERE created_at BETWEEN :from AND :to
+              AND session_id IS NOT NULL
+            """, nativeQuery = true)
+    List<String> findDistinctSessionIds(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Contadores del dashboard en una sola pasada.
+     * Columnas: vehicle_detail, whatsapp_click, reserve_click, reservation_complete, unique_visitors
+     */
+    @Query(value = """
+            SELECT
+                SUM(CASE WHEN event_type = 'vehicle_detail'       THEN 1 ELSE 0 END) AS vehicle_detail,
+                SUM(CASE WHEN event_type = 'whatsapp_click'       THEN 1 ELSE 0 END) AS whatsapp_click,
+                SUM(CASE WHEN event_type = 'reserve_click'        THEN 1 ELSE 0 END) AS reserve_click,
+                SUM(CASE WHEN event_type = 'reservation_complete' THEN 1 ELSE 0 END) AS reservation_complete,
+                COUNT(DISTINCT session_id)                                          AS unique_visitors
+            FROM analytics_event
+            WHERE created_at BETWEEN :from AND :to
             """, nativeQuery = true)
-    Long countByType(@Param("type") String type,
-                     @Param("from") LocalDateTime from,
-                     @Param("to") LocalDateTime to);
+    List<Object[]> sumDashboardCounters(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
     /**
-     * Top vehículos: vistas de detalle, clicks WhatsApp y clicks Reservar.
+     * Vistas, clicks WhatsApp y clicks Reservar de todos los vehículos (sin límite),
+     * para combinar con los rollups diarios.
      * Columnas devueltas: vehicle_name, views, wa_clicks, reserve_clicks
      */
     @Query(value = """
@@ -44,10 +59,8 @@ public interface AnalyticsEventRepository extends JpaRepository<AnalyticsEvent,
             WHERE vehicle_name IS NOT NULL
               AND created_at BETWEEN :from AND :to
             GROUP BY vehicle_name
-            ORDER BY views DESC
-            LIMIT 10
             """, nativeQuery = true)
-    List<Object[]> findTopVehicles(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    List<Object[]> findVehicleStats(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
     /**
      * Embudo de pasos del wizard de reserva.
@@ -0,0 +1,61 @@
+package com.rentacaresv.analytics.infrastructure.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * DDL de particiones mensuales de analytics_event (ver V015).
+ * Las particiones mensuales se llaman pYYYYMM; p_max es la partición de cierre.
+ * Las sentencias ALTER TABLE hacen commit implícito: no llamar dentro de una transacción.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnalyticsPartitionRepository {
+
+    public static final String MAX_PARTITION = "p_max";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Nombres de las particiones en orden, o lista vacía si la tabla no está particionada */
+    public List<String> findPartitionNames() {
+        return jdbcTemplate.queryForList("""
+                SELECT PARTITION_NAME
+                FROM information_schema.PARTITIONS
+                WHERE TABLE_SCHEMA = DATABASE()
+                  AND TABLE_NAME = 'analytics_event'
+                  AND PARTITION_NAME IS NOT NULL
+                ORDER BY PARTITION_ORDINAL_POSITION
+                """, String.class);
+    }
+
+    /** Crea la partición del mes separándola de p_max */
+    public void addMonthPartition(YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE analytics_event REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+                + "PARTITION " + partitionName(month)
+                + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "'), "
+                + "PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+    }
+
+    /** Elimina la partición del mes junto con todos sus eventos */
+    public void dropMonthPartition(YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE analytics_event DROP PARTITION " + partitionName(month));
+    }
+
+    public static String partitionName(YearMonth month) {
+        return NAME_FORMAT.format(month);
+    }
+
+    /** Mes de una partición pYYYYMM, o null si no es una partición mensual */
+    public static YearMonth parseMonth(String partitionName) {
+        if (partitionName == null || !partitionName.matches("p\\d{6}")) {
+            return null;
+        }
+        return YearMonth.parse(partitionName, NAME_FORMAT);
+    }
+}
@@ -0,0 +1,160 @@
+package com.rentacaresv.analytics.infrastructure.persistence;
+
+import com.rentacaresv.shared.util.HyperLogLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Acceso a los rollups diarios de analíticas (tablas analytics_daily_rollup,
+ * analytics_daily_visitors y analytics_rollup_day).
+ * No son entidades JPA: se leen y escriben con SQL directo.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnalyticsRollupRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // ─── Estado de consolidación ───────────────────────────────────────────────
+
+    /** Último día consolidado, o null si aún no hay ninguno */
+    public LocalDate findLastRolledUpDay() {
+        Date day = jdbcTemplate.queryForObject("SELECT MAX(day) FROM analytics_rollup_day", Date.class);
+        return day != null ? day.toLocalDate() : null;
+    }
+
+    /** Día del evento más antiguo, o null si no hay eventos */
+    public LocalDate findFirstEventDay() {
+        Timestamp first = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM analytics_event", Timestamp.class);
+        return first != null ? first.toLocalDateTime().toLocalDate() : null;
+    }
+
+    // ─── Consolidación ─────────────────────────────────────────────────────────
+
+    /**
+     * Recalcula el rollup de un día a partir de los eventos crudos, guarda el sketch
+     * HyperLogLog de sus session_id y lo marca como consolidado.
+     * Debe ejecutarse dentro de una transacción.
+     *
+     * @return cantidad de eventos del día
+     */
+    public long rollupDay(LocalDate day, int hllPrecision) {
+        Date sqlDay = Date.valueOf(day);
+        Timestamp start = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+
+        jdbcTemplate.update("DELETE FROM analytics_daily_rollup WHERE day = ?", sqlDay);
+        jdbcTemplate.update("""
+                INSERT INTO analytics_daily_rollup
+                    (day, event_type, vehicle_name, step_number, step_name, event_count)
+                SELECT ?, event_type,
+                       COALESCE(vehicle_name, ''), COALESCE(step_number, 0), COALESCE(step_name, ''),
+                       COUNT(*)
+                FROM analytics_event
+                WHERE created_at >= ? AND created_at < ?
+                GROUP BY event_type, COALESCE(vehicle_name, ''), COALESCE(step_number, 0), COALESCE(step_name, '')
+                """, sqlDay, start, end);
+
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(event_count), 0) FROM analytics_daily_rollup WHERE day = ?",
+                Long.class, sqlDay);
+        long eventCount = total != null ? total : 0L;
+
+        HyperLogLog sketch = new HyperLogLog(hllPrecision);
+        jdbcTemplate.query("""
+                SELECT DISTINCT session_id
+                FROM analytics_event
+                WHERE created_at >= ? AND created_at < ?
+                  AND session_id IS NOT NULL
+                """, (RowCallbackHandler) rs -> sketch.add(rs.getString(1)), start, end);
+        jdbcTemplate.update("""
+                INSERT INTO analytics_daily_visitors (day, hll_precision, sketch)
+                VALUES (?, ?, ?)
+                ON DUPLICATE KEY UPDATE hll_precision = VALUES(hll_precision), sketch = VALUES(sketch)
+                """, sqlDay, hllPrecision, sketch.toBytes());
+
+        jdbcTemplate.update("""
+                INSERT INTO analytics_rollup_day (day, event_count, rolled_up_at)
+                VALUES (?, ?, NOW())
+                ON DUPLICATE KEY UPDATE event_count = VALUES(event_count), rolled_up_at = NOW()
+                """, sqlDay, eventCount);
+        return eventCount;
+    }
+
+    // ─── Consultas del dashboard ───────────────────────────────────────────────
+
+    /** Cantidad de días consolidados dentro del rango */
+    public int countRolledUpDays(LocalDate from, LocalDate to) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM analytics_rollup_day WHERE day BETWEEN ? AND ?",
+                Integer.class, Date.valueOf(from), Date.valueOf(to));
+        return count != null ? count : 0;
+    }
+
+    /** Sketches HyperLogLog de visitantes de cada día del rango */
+    public List<HyperLogLog> findVisitorSketches(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+                "SELECT sketch FROM analytics_daily_visitors WHERE day BETWEEN ? AND ?",
+                (rs, i) -> HyperLogLog.fromBytes(rs.getBytes(1)),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Total de eventos por tipo en el rango de días.
+     * Columnas: event_type, cnt
+     */
+    public List<Object[]> sumByType(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT event_type, SUM(event_count) AS cnt
+                FROM analytics_daily_rollup
+                WHERE day BETWEEN ? AND ?
+                GROUP BY event_type
+                """, (rs, i) -> new Object[]{rs.getString(1), rs.getLong(2)},
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Embudo de pasos del wizard de reserva.
+     * Columnas: step_number, step_name (null si vacío), cnt
+     */
+    public List<Object[]> findReservationStepFunnel(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT step_number, step_name, SUM(event_count) AS cnt
+                FROM analytics_daily_rollup
+                WHERE event_type = 'reservation_step'
+                  AND day BETWEEN ? AND ?
+                GROUP BY step_number, step_name
+                ORDER BY step_number
+                """, (rs, i) -> new Object[]{
+                        rs.getInt(1),
+                        rs.getString(2).isEmpty() ? null : rs.getString(2),
+                        rs.getLong(3)},
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Vistas, clicks WhatsApp y clicks Reservar por vehículo (todos los vehículos).
+     * Columnas: vehicle_name, views, wa_clicks, reserve_clicks
+     */
+    public List<Object[]> findVehicleStats(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT
+                    vehicle_name,
+                    SUM(CASE WHEN event_type = 'vehicle_detail' THEN event_count ELSE 0 END) AS views,
+                    SUM(CASE WHEN event_type = 'whatsapp_click' THEN event_count ELSE 0 END) AS wa_clicks,
+                    SUM(CASE WHEN event_type = 'reserve_click'  THEN event_count ELSE 0 END) AS reserve_clicks
+                FROM analytics_daily_rollup
+                WHERE vehicle_name <> ''
+                  AND day BETWEEN ? AND ?
+                GROUP BY vehicle_name
+                """, (rs, i) -> new Object[]{rs.getString(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)},
+                Date.valueOf(from), Date.valueOf(to));
+    }
+}
@@ -0,0 +1,37 @@
+package com.rentacaresv.calendar.application;
+
+import com.google.api.services.calendar.model.Event;
+
+/**
+ * Cambio a aplicar sobre un evento de Google Calendar dentro de un lote
+ *
+ * @param key     identificador del cambio para correlacionar el resultado (ID de la renta)
+ * @param type    operación sobre el evento
+ * @param eventId ID del evento (en INSERT, el ID asignado por la aplicación)
+ * @param event   contenido del evento (null en DELETE)
+ */
+public record CalendarEventChange(long key, Type type, String eventId, Event event) {
+
+    public enum Type {
+        INSERT, UPDATE, DELETE
+    }
+
+    /**
+     * Resultado de un cambio del lote
+     */
+    public record Result(long key, Type type, String eventId, Status status, String error) {
+
+        public boolean isOk() {
+            return status == Status.OK;
+        }
+    }
+
+    public enum Status {
+        /** Aplicado */
+        OK,
+        /** El evento ya no existe en Google */
+        NOT_FOUND,
+        /** Falló; debe reintentarse */
+        FAILED
+    }
+}
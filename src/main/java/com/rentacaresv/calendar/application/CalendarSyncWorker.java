@@ -0,0 +1,282 @@
+package com.rentacaresv.calendar.application;
+
+import com.google.api.services.calendar.model.Event;
+import com.rentacaresv.calendar.domain.CalendarSyncOperation;
+import com.rentacaresv.calendar.domain.CalendarSyncOutboxEntry;
+import com.rentacaresv.calendar.infrastructure.CalendarSyncOutboxRepository;
+import com.rentacaresv.rental.domain.Rental;
+import com.rentacaresv.rental.infrastructure.RentalRepository;
+import com.rentacaresv.shared.infrastructure.DatabaseLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Vacía el outbox de sincronización con Google Calendar.
+ *
+ * Las rentas solo registran la operación pendiente en su transacción; este worker
+ * la envía a Google después, sin conexión a la base de datos abierta durante las
+ * llamadas HTTP:
+ * <ul>
+ *   <li>Colapsa las filas de una misma renta: solo se aplica la última operación,
+ *       con el estado actual de la renta (las actualizaciones intermedias se descartan).</li>
+ *   <li>Agrupa los cambios por calendario en peticiones de lote (batch API).</li>
+ *   <li>Reintenta los fallos con backoff exponencial hasta {@code max-attempts};
+ *       las filas agotadas quedan en la tabla con su último error.</li>
+ * </ul>
+ * Los INSERT usan un ID de evento estable por renta, así un reintento tras un
+ * lote aplicado pero no confirmado no duplica eventos.
+ *
+ * Corre en un solo nodo a la vez (named lock de MariaDB): dos nodos con las mismas filas
+ * podrían enviar un DELETE antes de que el otro registre su INSERT. El lock se mantiene en
+ * una conexión aparte; las lecturas y escrituras del outbox usan transacciones cortas.
+ */
+@Component
+@Slf4j
+public class CalendarSyncWorker {
+
+    private static final String LOCK_NAME = "rentacaresv.calendar-sync";
+
+    private final CalendarSyncOutboxRepository outboxRepository;
+    private final RentalRepository rentalRepository;
+    private final GoogleCalendarService googleCalendarService;
+    private final DatabaseLock databaseLock;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffInitialMs;
+    private final long backoffMaxMs;
+    private final Counter syncedCounter;
+    private final Counter failedCounter;
+    private final Counter collapsedCounter;
+
+    public CalendarSyncWorker(
+            CalendarSyncOutboxRepository outboxRepository,
+            RentalRepository rentalRepository,
+            GoogleCalendarService googleCalendarService,
+            DatabaseLock databaseLock,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.calendar.sync.batch-size:200}") int batchSize,
+            @Value("${app.calendar.sync.max-attempts:8}") int maxAttempts,
+            @Value("${app.calendar.sync.backoff-initial-ms:10000}") long backoffInitialMs,
+            @Value("${app.calendar.sync.backoff-max-ms:3600000}") long backoffMaxMs) {
+        this.outboxRepository = outboxRepository;
+        this.rentalRepository = rentalRepository;
+        this.googleCalendarService = googleCalendarService;
+        this.databaseLock = databaseLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffInitialMs = backoffInitialMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.syncedCounter = Counter.builder("calendar.sync.changes")
+                .description("Cambios de rentas aplicados en Google Calendar")
+                .tag("result", "synced")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("calendar.sync.changes")
+                .description("Cambios de rentas aplicados en Google Calendar")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.collapsedCounter = Counter.builder("calendar.sync.changes")
+                .description("Cambios de rentas aplicados en Google Calendar")
+                .tag("result", "collapsed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Procesa las filas pendientes del outbox (cada 5 segundos por defecto)
+     */
+    @Scheduled(fixedDelayString = "${app.calendar.sync.interval-ms:5000}",
+               initialDelayString = "${app.calendar.sync.initial-delay-ms:30000}")
+    public void drain() {
+        Optional<Boolean> ran = databaseLock.runIfAvailableWithoutTransaction(LOCK_NAME, () -> {
+            drainBatch();
+            return Boolean.TRUE;
+        });
+        if (ran.isEmpty()) {
+            log.debug("Outbox de Google Calendar: otro nodo lo está procesando");
+        }
+    }
+
+    private void drainBatch() {
+        List<CalendarSyncOutboxEntry> due = outboxRepository.findDue(batchSize, maxAttempts);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        // Última fila por renta; las anteriores quedan superadas por ella
+        Map<Long, CalendarSyncOutboxEntry> latestByRental = new LinkedHashMap<>();
+        for (CalendarSyncOutboxEntry entry : due) {
+            latestByRental.put(entry.rentalId(), entry);
+        }
+        collapsedCounter.increment(due.size() - latestByRental.size());
+
+        // Cada fila en su propia transacción: una renta con datos que no se pueden leer
+        // se reprograma sola, sin bloquear al resto de la cola
+        List<Outcome> outcomes = new ArrayList<>();
+        List<PendingChange> pending = new ArrayList<>();
+        for (CalendarSyncOutboxEntry entry : latestByRental.values()) {
+            try {
+                pending.add(readOnlyTransactionTemplate.execute(status -> prepareChange(entry)));
+            } catch (Exception e) {
+                log.warn("⚠️ Renta {}: no se pudo preparar el cambio para Google Calendar: {}",
+                        entry.rentalId(), e.getMessage());
+                outcomes.add(Outcome.retry(new PendingChange(entry, null), e.getMessage()));
+            }
+        }
+
+        // Un lote por usuario (cada usuario puede resolver a un calendario distinto)
+        Map<Long, List<PendingChange>> byUser = new LinkedHashMap<>();
+        List<PendingChange> noOp = new ArrayList<>();
+        for (PendingChange change : pending) {
+            if (change.change() == null) {
+                noOp.add(change);
+            } else {
+                byUser.computeIfAbsent(change.entry().userId(), k -> new ArrayList<>()).add(change);
+            }
+        }
+
+        noOp.forEach(change -> outcomes.add(Outcome.done(change, null)));
+        byUser.forEach((userId, changes) -> outcomes.addAll(apply(userId, changes)));
+
+        transactionTemplate.executeWithoutResult(status -> outcomes.forEach(this::record));
+    }
+
+    /**
+     * Traduce una fila a un cambio de Google con el estado actual de la renta.
+     * Un cambio null significa que no hay nada que enviar.
+     */
+    private PendingChange prepareChange(CalendarSyncOutboxEntry entry) {
+        Optional<Rental> rentalOpt = rentalRepository.findById(entry.rentalId());
+        String eventId = rentalOpt.map(Rental::getGoogleCalendarEventId).orElse(null);
+
+        CalendarEventChange change;
+        if (entry.operation() == CalendarSyncOperation.DELETE || rentalOpt.isEmpty()) {
+            change = eventId == null ? null
+                    : new CalendarEventChange(entry.rentalId(), CalendarEventChange.Type.DELETE, eventId, null);
+        } else {
+            Event event = googleCalendarService.buildRentalEvent(rentalOpt.get());
+            if (eventId == null) {
+                String newEventId = GoogleCalendarService.rentalEventId(entry.rentalId());
+                change = new CalendarEventChange(entry.rentalId(), CalendarEventChange.Type.INSERT,
+                        newEventId, event.setId(newEventId));
+            } else {
+                change = new CalendarEventChange(entry.rentalId(), CalendarEventChange.Type.UPDATE,
+                        eventId, event);
+            }
+        }
+        return new PendingChange(entry, change);
+    }
+
+    /**
+     * Envía los cambios de un usuario a Google y clasifica cada resultado
+     */
+    private List<Outcome> apply(Long userId, List<PendingChange> changes) {
+        List<Outcome> outcomes = new ArrayList<>(changes.size());
+        Optional<List<CalendarEventChange.Result>> results;
+        try {
+            results = googleCalendarService.applyEventChanges(userId,
+                    changes.stream().map(PendingChange::change).toList());
+        } catch (Exception e) {
+            log.warn("⚠️ Lote de Google Calendar falló ({} cambios): {}", changes.size(), e.getMessage());
+            changes.forEach(change -> outcomes.add(Outcome.retry(change, e.getMessage())));
+            return outcomes;
+        }
+
+        if (results.isEmpty()) {
+            // Sin calendario disponible para el usuario: no hay nada que sincronizar
+            changes.forEach(change -> outcomes.add(Outcome.done(change, null)));
+            return outcomes;
+        }
+
+        Map<Long, CalendarEventChange.Result> resultByRental = new HashMap<>();
+        results.get().forEach(result -> resultByRental.put(result.key(), result));
+
+        for (PendingChange change : changes) {
+            CalendarEventChange.Result result = resultByRental.get(change.entry().rentalId());
+            if (result == null) {
+                outcomes.add(Outcome.retry(change, "Sin respuesta en el lote"));
+            } else if (result.isOk()) {
+                outcomes.add(Outcome.done(change, result));
+            } else if (result.status() == CalendarEventChange.Status.NOT_FOUND) {
+                log.warn("⚠️ Evento {} de la renta {} ya no existe en Google Calendar",
+                        result.eventId(), result.key());
+                outcomes.add(Outcome.done(change, result));
+            } else {
+                outcomes.add(Outcome.retry(change, result.error()));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Registra el resultado de un cambio: guarda el ID del evento y borra o reprograma las filas
+     */
+    private void record(Outcome outcome) {
+        CalendarSyncOutboxEntry entry = outcome.change().entry();
+
+        if (outcome.retry()) {
+            failedCounter.increment();
+            int attempt = entry.attempts() + 1;
+            if (attempt >= maxAttempts) {
+                log.error("❌ Renta {}: sincronización con Google Calendar abandonada tras {} intentos: {}",
+                        entry.rentalId(), attempt, outcome.error());
+            }
+            outboxRepository.scheduleRetry(entry.rentalId(), entry.id(),
+                    LocalDateTime.now().plusNanos(backoffMillis(attempt) * 1_000_000L), outcome.error());
+            return;
+        }
+
+        CalendarEventChange.Result result = outcome.result();
+        if (result != null) {
+            if (result.type() == CalendarEventChange.Type.INSERT) {
+                outboxRepository.updateRentalEventId(entry.rentalId(), result.eventId());
+            } else if (result.type() == CalendarEventChange.Type.DELETE || !result.isOk()) {
+                // Eliminado, o borrado en Google por el usuario: la renta queda sin evento
+                outboxRepository.updateRentalEventId(entry.rentalId(), null);
+            }
+            if (result.isOk()) {
+                syncedCounter.increment();
+                log.debug("Renta {} sincronizada con Google Calendar ({} {})",
+                        entry.rentalId(), result.type(), result.eventId());
+            }
+        }
+        outboxRepository.deleteProcessed(entry.rentalId(), entry.id());
+    }
+
+    /** Backoff exponencial: inicial × 2^(intento-1), acotado al máximo */
+    private long backoffMillis(int attempt) {
+        int shift = Math.min(attempt - 1, 30);
+        return Math.min(backoffInitialMs << shift, backoffMaxMs);
+    }
+
+    private record PendingChange(CalendarSyncOutboxEntry entry, CalendarEventChange change) {}
+
+    private record Outcome(PendingChange change, CalendarEventChange.Result result, boolean retry, String error) {
+
+        static Outcome done(PendingChange change, CalendarEventChange.Result result) {
+            return new Outcome(change, result, false, null);
+        }
+
+        static Outcome retry(PendingChange change, String error) {
+            return new Outcome(change, null, true, error);
+        }
+    }
+}
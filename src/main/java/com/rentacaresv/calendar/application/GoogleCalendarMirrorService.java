@@ -0,0 +1,321 @@
+package com.rentacaresv.calendar.application;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.Calendar;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.Events;
+import com.rentacaresv.calendar.domain.GoogleCalendarToken;
+import com.rentacaresv.calendar.infrastructure.GoogleCalendarMirrorRepository;
+import com.rentacaresv.calendar.infrastructure.GoogleCalendarTokenRepository;
+import com.rentacaresv.shared.infrastructure.DatabaseLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Copia local de los eventos de Google Calendar.
+ *
+ * La vista de calendario lee de google_calendar_event_mirror (sin latencia externa).
+ * Un job la mantiene al día con events.list incremental: la primera vez se descarga
+ * la ventana [hoy - días pasados, hoy + días futuros] y se guarda el nextSyncToken;
+ * después solo se transfieren los eventos cambiados o eliminados desde ese token.
+ * Si Google invalida el token (410 Gone) o la ventana se está quedando corta, se rehace
+ * la sincronización completa.
+ *
+ * Las llamadas a Google se hacen fuera de transacción; los cambios descargados y el
+ * nuevo syncToken se aplican juntos en una sola transacción, así la vista nunca ve
+ * la copia a medio rellenar y un fallo a mitad deja la copia y el token anteriores.
+ */
+@Service
+@Slf4j
+public class GoogleCalendarMirrorService {
+
+    private static final String LOCK_NAME = "rentacaresv.calendar-mirror";
+    private static final int PAGE_SIZE = 2500;
+    private static final int MAX_EVENTS_PER_QUERY = 100;
+
+    private final GoogleCalendarService googleCalendarService;
+    private final GoogleCalendarTokenRepository tokenRepository;
+    private final GoogleCalendarMirrorRepository mirrorRepository;
+    private final DatabaseLock databaseLock;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int pastDays;
+    private final int futureDays;
+
+    /**
+     * Un lock por token: el job y el botón "Actualizar" del mismo nodo no sincronizan el mismo
+     * calendario a la vez. Entre nodos no hace falta: cada sincronización se aplica completa
+     * en una transacción y el job solo corre en un nodo (DatabaseLock)
+     */
+    private final Map<Long, ReentrantLock> syncLocks = new ConcurrentHashMap<>();
+
+    public GoogleCalendarMirrorService(
+            GoogleCalendarService googleCalendarService,
+            GoogleCalendarTokenRepository tokenRepository,
+            GoogleCalendarMirrorRepository mirrorRepository,
+            DatabaseLock databaseLock,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.calendar.mirror.enabled:true}") boolean enabled,
+            @Value("${app.calendar.mirror.past-days:365}") int pastDays,
+            @Value("${app.calendar.mirror.future-days:730}") int futureDays) {
+        this.googleCalendarService = googleCalendarService;
+        this.tokenRepository = tokenRepository;
+        this.mirrorRepository = mirrorRepository;
+        this.databaseLock = databaseLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.pastDays = pastDays;
+        this.futureDays = futureDays;
+    }
+
+    /**
+     * Obtiene los eventos del calendario efectivo del usuario desde la copia local.
+     * Si el calendario aún no se ha sincronizado nunca, lo sincroniza primero.
+     */
+    public List<GoogleCalendarEventDTO> getUserEvents(Long userId, LocalDate startDate, LocalDate endDate) {
+        Optional<GoogleCalendarToken> tokenOpt = googleCalendarService.getEffectiveToken(userId);
+        if (tokenOpt.isEmpty() || !tokenOpt.get().getSyncEnabled()) {
+            log.debug("No hay calendario disponible para usuario {}", userId);
+            return List.of();
+        }
+
+        GoogleCalendarToken token = tokenOpt.get();
+        if (mirrorRepository.findState(token.getId()) == null) {
+            syncQuietly(token);
+        }
+
+        List<GoogleCalendarEventDTO> events = mirrorRepository.findEvents(
+                token.getId(), startDate, endDate, MAX_EVENTS_PER_QUERY);
+        events.forEach(event -> event.setColor(event.getColor() != null
+                ? getColorFromId(event.getColor()) : "#4285F4"));
+        return events;
+    }
+
+    /**
+     * Trae los cambios pendientes del calendario efectivo del usuario (botón "Actualizar")
+     */
+    public void refreshUserEvents(Long userId) {
+        googleCalendarService.getEffectiveToken(userId)
+                .filter(GoogleCalendarToken::getSyncEnabled)
+                .ifPresent(this::syncQuietly);
+    }
+
+    /**
+     * Sincroniza todos los calendarios vinculados (cada minuto por defecto).
+     * Solo un nodo a la vez: si otro tiene el lock, esta pasada se omite.
+     */
+    @Scheduled(fixedDelayString = "${app.calendar.mirror.interval-ms:60000}",
+               initialDelayString = "${app.calendar.mirror.initial-delay-ms:60000}")
+    public void syncAll() {
+        if (!enabled || !googleCalendarService.isConfigured()) {
+            return;
+        }
+        databaseLock.runIfAvailableWithoutTransaction(LOCK_NAME, () -> {
+            tokenRepository.findAll().stream()
+                    .filter(GoogleCalendarToken::getSyncEnabled)
+                    .forEach(this::syncQuietly);
+            return Boolean.TRUE;
+        });
+    }
+
+    private void syncQuietly(GoogleCalendarToken token) {
+        try {
+            sync(token);
+        } catch (Exception e) {
+            log.warn("⚠️ Error sincronizando eventos de Google Calendar (token {}): {}",
+                    token.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Sincroniza un token: incremental si hay syncToken del mismo calendario y la ventana
+     * aún cubre al menos la mitad de los días futuros; completa si no
+     */
+    private void sync(GoogleCalendarToken token) throws IOException {
+        ReentrantLock lock = syncLocks.computeIfAbsent(token.getId(), k -> new ReentrantLock());
+        lock.lock();
+        try {
+            GoogleCalendarMirrorRepository.MirrorState state = mirrorRepository.findState(token.getId());
+            boolean incremental = state != null
+                    && state.syncToken() != null
+                    && state.windowEnd() != null
+                    && token.getCalendarId().equals(state.calendarId())
+                    && !LocalDate.now().plusDays(futureDays / 2).isAfter(state.windowEnd());
+
+            if (!incremental) {
+                fullSync(token);
+                return;
+            }
+            try {
+                Changes changes = fetchChanges(token, state.syncToken(), null, null);
+                apply(token, changes, false, state.windowEnd());
+            } catch (GoogleJsonResponseException e) {
+                if (e.getStatusCode() != 410) {
+                    throw e;
+                }
+                log.info("syncToken de Google Calendar expirado (token {}); sincronización completa", token.getId());
+                fullSync(token);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void fullSync(GoogleCalendarToken token) throws IOException {
+        LocalDate today = LocalDate.now();
+        LocalDate windowStart = today.minusDays(pastDays);
+        LocalDate windowEnd = today.plusDays(futureDays);
+        Changes changes = fetchChanges(token, null, windowStart, windowEnd);
+        apply(token, changes, true, windowEnd);
+    }
+
+    /**
+     * Descarga todas las páginas de cambios (sin tocar la BD). Con syncToken Google no
+     * admite timeMin/timeMax: el token conserva la ventana de la sincronización completa.
+     */
+    private Changes fetchChanges(GoogleCalendarToken token, String syncToken,
+                                 LocalDate windowStart, LocalDate windowEnd) throws IOException {
+        Calendar service = googleCalendarService.getCalendarClient(token);
+
+        // Por id, el último estado gana (null = eliminado) aunque el evento salga en varias páginas
+        Map<String, GoogleCalendarEventDTO> events = new LinkedHashMap<>();
+        String pageToken = null;
+        String nextSyncToken;
+        do {
+            Calendar.Events.List request = service.events().list(token.getCalendarId())
+                    .setSingleEvents(true)
+                    .setMaxResults(PAGE_SIZE)
+                    .setPageToken(pageToken);
+            if (syncToken != null) {
+                request.setSyncToken(syncToken);
+            } else {
+                request.setTimeMin(toDateTime(windowStart))
+                        .setTimeMax(toDateTime(windowEnd.plusDays(1)));
+            }
+            Events page = request.execute();
+
+            if (page.getItems() != null) {
+                for (Event event : page.getItems()) {
+                    events.put(event.getId(), "cancelled".equals(event.getStatus()) ? null : convertToDTO(event));
+                }
+            }
+
+            pageToken = page.getNextPageToken();
+            nextSyncToken = page.getNextSyncToken();
+        } while (pageToken != null);
+
+        List<GoogleCalendarEventDTO> changed = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        events.forEach((id, dto) -> {
+            if (dto != null) {
+                changed.add(dto);
+            } else {
+                removed.add(id);
+            }
+        });
+        return new Changes(changed, removed, nextSyncToken);
+    }
+
+    /**
+     * Aplica los cambios y guarda el nuevo syncToken en una sola transacción.
+     * En la completa se vacía la copia del token antes de rellenarla.
+     */
+    private void apply(GoogleCalendarToken token, Changes changes, boolean full, LocalDate windowEnd) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (full) {
+                mirrorRepository.deleteByToken(token.getId(), false);
+            }
+            mirrorRepository.upsertEvents(token.getId(), changes.changed());
+            mirrorRepository.deleteEvents(token.getId(), changes.removed());
+            mirrorRepository.saveState(token.getId(), token.getCalendarId(), changes.nextSyncToken(), windowEnd);
+        });
+
+        if (full || !changes.changed().isEmpty() || !changes.removed().isEmpty()) {
+            log.debug("Copia de Google Calendar (token {}, {}): {} eventos actualizados, {} eliminados",
+                    token.getId(), full ? "completa" : "incremental",
+                    changes.changed().size(), changes.removed().size());
+        }
+    }
+
+    private static DateTime toDateTime(LocalDate date) {
+        return new DateTime(date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli());
+    }
+
+    private record Changes(List<GoogleCalendarEventDTO> changed, List<String> removed, String nextSyncToken) {}
+
+    /**
+     * Convierte un evento de Google Calendar a DTO (color = colorId de Google)
+     */
+    private GoogleCalendarEventDTO convertToDTO(Event event) {
+        try {
+            LocalDate startDate;
+            LocalDate endDate;
+            boolean allDay = false;
+
+            // Manejar eventos de todo el día vs eventos con hora
+            if (event.getStart().getDate() != null) {
+                // Evento de todo el día
+                startDate = LocalDate.parse(event.getStart().getDate().toStringRfc3339().substring(0, 10));
+                endDate = LocalDate.parse(event.getEnd().getDate().toStringRfc3339().substring(0, 10));
+                allDay = true;
+            } else if (event.getStart().getDateTime() != null) {
+                // Evento con hora específica
+                startDate = LocalDate.parse(event.getStart().getDateTime().toStringRfc3339().substring(0, 10));
+                endDate = LocalDate.parse(event.getEnd().getDateTime().toStringRfc3339().substring(0, 10));
+            } else {
+                return null;
+            }
+
+            return GoogleCalendarEventDTO.builder()
+                    .id(event.getId())
+                    .title(event.getSummary() != null ? event.getSummary() : "(Sin título)")
+                    .description(event.getDescription())
+                    .startDate(startDate)
+                    .endDate(endDate)
+                    .allDay(allDay)
+                    .color(event.getColorId())
+                    .htmlLink(event.getHtmlLink())
+                    .build();
+        } catch (Exception e) {
+            log.warn("Error convirtiendo evento {}: {}", event.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Convierte el colorId de Google a un color hex
+     */
+    private String getColorFromId(String colorId) {
+        // Colores de Google Calendar (aproximados)
+        return switch (colorId) {
+            case "1" -> "#7986CB"; // Lavanda
+            case "2" -> "#33B679"; // Salvia
+            case "3" -> "#8E24AA"; // Uva
+            case "4" -> "#E67C73"; // Flamenco
+            case "5" -> "#F6BF26"; // Banana
+            case "6" -> "#F4511E"; // Mandarina
+            case "7" -> "#039BE5"; // Pavo real
+            case "8" -> "#616161"; // Grafito
+            case "9" -> "#3F51B5"; // Arándano
+            case "10" -> "#0B8043"; // Albahaca
+            case "11" -> "#D50000"; // Tomate
+            default -> "#4285F4"; // Azul Google por defecto
+        };
+    }
+}
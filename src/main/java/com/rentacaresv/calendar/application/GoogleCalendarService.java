@@ -1,21 +1,20 @@
 package com.rentacaresv.calendar.application;
 
-import com.google.api.client.auth.oauth2.Credential;
 import com.google.api.client.auth.oauth2.TokenResponse;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
-import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
 import com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.JsonFactory;
-import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.util.DateTime;
 import com.google.api.services.calendar.Calendar;
-import com.google.api.services.calendar.CalendarScopes;
 import com.google.api.services.calendar.model.Event;
 import com.google.api.services.calendar.model.EventDateTime;
 import com.google.api.services.calendar.model.EventReminder;
 import com.rentacaresv.calendar.domain.GoogleCalendarToken;
+import com.rentacaresv.calendar.infrastructure.GoogleCalendarClientFactory;
+import com.rentacaresv.calendar.infrastructure.GoogleCalendarMirrorRepository;
 import com.rentacaresv.calendar.infrastructure.GoogleCalendarTokenRepository;
 import com.rentacaresv.rental.domain.Rental;
 import com.rentacaresv.settings.application.SettingsCache;
@@ -28,12 +27,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -48,10 +44,12 @@ public class GoogleCalendarService {
 
     private final GoogleCalendarTokenRepository tokenRepository;
     private final SettingsCache settingsCache;
+    private final GoogleCalendarClientFactory clientFactory;
+    private final GoogleCalendarMirrorRepository mirrorRepository;
 
-    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
-    private static final List<String> SCOPES = Collections.singletonList(CalendarScopes.CALENDAR);
-    private static final String APPLICATION_NAME = "RentaCar ESV";
+    /** Máximo de operaciones por petición de lote (recomendación de Google) */
+    private static final int MAX_BATCH_SIZE = 50;
+    private static final String RENTAL_EVENT_ID_PREFIX = "rentacar";
 
     // URL base de la aplicación (para el callback de OAuth)
     @Value("${app.base-url:http://localhost:8091}")
@@ -214,27 +212,21 @@ public class GoogleCalendarService {
             log.info("Calendario de empresa removido porque el usuario {} se desvincula", userId);
         }
         
+        tokenRepository.findByUserId(userId).ifPresent(token -> {
+            clientFactory.evict(token.getId());
+            mirrorRepository.deleteByToken(token.getId(), true);
+        });
         tokenRepository.deleteByUserId(userId);
         log.info("Google Calendar desvinculado para usuario ID {}", userId);
     }
 
     /**
-     * Crea un evento en Google Calendar para una renta.
-     * Usa el calendario de empresa si está configurado, sino el del usuario.
+     * Construye el evento de Google Calendar de una renta (todo el día, con recordatorios).
+     * Debe llamarse con la renta, su vehículo y su cliente cargados.
      */
-    public String createRentalEvent(Rental rental, User user) throws GeneralSecurityException, IOException {
-        // Usar el token efectivo (calendario empresa o personal)
-        Optional<GoogleCalendarToken> tokenOpt = getEffectiveToken(user.getId());
-        if (tokenOpt.isEmpty() || !tokenOpt.get().getSyncEnabled()) {
-            log.debug("No hay calendario disponible para crear evento de renta");
-            return null;
-        }
-
-        GoogleCalendarToken token = tokenOpt.get();
-        Calendar service = getCalendarService(token);
-
+    public Event buildRentalEvent(Rental rental) {
         String companyName = settingsCache.getCompanyName();
-        
+
         Event event = new Event()
                 .setSummary("🚗 Renta: " + rental.getVehicle().getBrand() + " " + rental.getVehicle().getModel())
                 .setDescription(buildEventDescription(rental, companyName))
@@ -262,70 +254,109 @@ public class GoogleCalendarService {
                 .setOverrides(Arrays.asList(reminders));
         event.setReminders(eventReminders);
 
-        Event createdEvent = service.events().insert(token.getCalendarId(), event).execute();
-        log.info("Evento creado en Google Calendar: {}", createdEvent.getId());
-        
-        return createdEvent.getId();
+        return event;
     }
 
     /**
-     * Actualiza un evento existente.
-     * Usa el calendario de empresa si está configurado.
+     * ID de evento asignado por la aplicación a una renta.
+     * Google acepta IDs propios (base32hex: a-v y 0-9); al ser estable por renta,
+     * reintentar un INSERT ya aplicado responde 409 en vez de duplicar el evento.
      */
-    public void updateRentalEvent(String eventId, Rental rental, User user) throws GeneralSecurityException, IOException {
-        // Usar el token efectivo (calendario empresa o personal)
-        Optional<GoogleCalendarToken> tokenOpt = getEffectiveToken(user.getId());
+    public static String rentalEventId(long rentalId) {
+        return RENTAL_EVENT_ID_PREFIX + rentalId;
+    }
+
+    /**
+     * Aplica un lote de cambios en el calendario efectivo del usuario, agrupando hasta
+     * {@link #MAX_BATCH_SIZE} operaciones por petición HTTP (batch API de Google).
+     *
+     * Un INSERT que responde 409 significa que el evento con ese ID ya existe: lo creó un
+     * intento anterior (y puede tener datos más viejos que los de este) o es el evento de la
+     * renta borrado antes, que Google conserva como cancelado. En ambos casos se reenvía como
+     * UPDATE con el contenido actual y {@code status=confirmed}, que también lo restaura.
+     *
+     * @return resultados por cambio, o vacío si el usuario no tiene calendario disponible
+     * @throws IOException si falla una petición de lote completa
+     */
+    public Optional<List<CalendarEventChange.Result>> applyEventChanges(Long userId, List<CalendarEventChange> changes)
+            throws IOException {
+        Optional<GoogleCalendarToken> tokenOpt = getEffectiveToken(userId);
         if (tokenOpt.isEmpty() || !tokenOpt.get().getSyncEnabled()) {
-            return;
+            return Optional.empty();
         }
 
         GoogleCalendarToken token = tokenOpt.get();
         Calendar service = getCalendarService(token);
+        String calendarId = token.getCalendarId();
+
+        List<CalendarEventChange.Result> results = new ArrayList<>(changes.size());
+        List<CalendarEventChange> existingInserts = new ArrayList<>();
+        for (int from = 0; from < changes.size(); from += MAX_BATCH_SIZE) {
+            List<CalendarEventChange> chunk = changes.subList(from, Math.min(from + MAX_BATCH_SIZE, changes.size()));
+            BatchRequest batch = service.batch();
+
+            for (CalendarEventChange change : chunk) {
+                switch (change.type()) {
+                    case INSERT -> service.events().insert(calendarId, change.event())
+                            .queue(batch, batchCallback(change, results, existingInserts));
+                    case UPDATE -> service.events().update(calendarId, change.eventId(), change.event())
+                            .queue(batch, batchCallback(change, results, null));
+                    case DELETE -> service.events().delete(calendarId, change.eventId())
+                            .queue(batch, batchCallback(change, results, null));
+                }
+            }
 
-        try {
-            Event event = service.events().get(token.getCalendarId(), eventId).execute();
-            
-            String companyName = settingsCache.getCompanyName();
-            event.setSummary("🚗 Renta: " + rental.getVehicle().getBrand() + " " + rental.getVehicle().getModel());
-            event.setDescription(buildEventDescription(rental, companyName));
-
-            EventDateTime start = new EventDateTime()
-                    .setDate(new DateTime(rental.getStartDate().toString()))
-                    .setTimeZone("America/El_Salvador");
-            event.setStart(start);
-
-            EventDateTime end = new EventDateTime()
-                    .setDate(new DateTime(rental.getEndDate().plusDays(1).toString()))
-                    .setTimeZone("America/El_Salvador");
-            event.setEnd(end);
-
-            service.events().update(token.getCalendarId(), eventId, event).execute();
-            log.info("Evento actualizado en Google Calendar: {}", eventId);
-        } catch (Exception e) {
-            log.warn("No se pudo actualizar el evento {}: {}", eventId, e.getMessage());
+            batch.execute();
         }
+
+        // INSERT ya existentes: sobrescribir con los datos actuales (el resultado sigue siendo
+        // un INSERT para que el worker guarde el ID del evento en la renta)
+        for (int from = 0; from < existingInserts.size(); from += MAX_BATCH_SIZE) {
+            List<CalendarEventChange> chunk = existingInserts.subList(from,
+                    Math.min(from + MAX_BATCH_SIZE, existingInserts.size()));
+            BatchRequest batch = service.batch();
+            for (CalendarEventChange change : chunk) {
+                Event event = change.event().clone().setStatus("confirmed");
+                service.events().update(calendarId, change.eventId(), event)
+                        .queue(batch, batchCallback(change, results, null));
+            }
+            batch.execute();
+        }
+
+        log.debug("Lote de Google Calendar aplicado: {} cambios ({} INSERT reenviados como UPDATE)",
+                changes.size(), existingInserts.size());
+        return Optional.of(results);
     }
 
     /**
-     * Elimina un evento de Google Calendar.
-     * Usa el calendario de empresa si está configurado.
+     * @param existingInserts si no es null, los INSERT que responden 409 se agregan aquí en lugar
+     *                        de registrar un resultado
      */
-    public void deleteRentalEvent(String eventId, User user) throws GeneralSecurityException, IOException {
-        // Usar el token efectivo (calendario empresa o personal)
-        Optional<GoogleCalendarToken> tokenOpt = getEffectiveToken(user.getId());
-        if (tokenOpt.isEmpty()) {
-            return;
-        }
-
-        GoogleCalendarToken token = tokenOpt.get();
-        Calendar service = getCalendarService(token);
+    private static <T> JsonBatchCallback<T> batchCallback(CalendarEventChange change,
+                                                         List<CalendarEventChange.Result> results,
+                                                         List<CalendarEventChange> existingInserts) {
+        return new JsonBatchCallback<>() {
+            @Override
+            public void onSuccess(T response, HttpHeaders responseHeaders) {
+                results.add(new CalendarEventChange.Result(
+                        change.key(), change.type(), change.eventId(), CalendarEventChange.Status.OK, null));
+            }
 
-        try {
-            service.events().delete(token.getCalendarId(), eventId).execute();
-            log.info("Evento eliminado de Google Calendar: {}", eventId);
-        } catch (Exception e) {
-            log.warn("No se pudo eliminar el evento {}: {}", eventId, e.getMessage());
-        }
+            @Override
+            public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                if (existingInserts != null && change.type() == CalendarEventChange.Type.INSERT
+                        && error.getCode() == 409) {
+                    existingInserts.add(change);
+                    return;
+                }
+                CalendarEventChange.Status status = error.getCode() == 404 || error.getCode() == 410
+                        ? CalendarEventChange.Status.NOT_FOUND
+                        : CalendarEventChange.Status.FAILED;
+                results.add(new CalendarEventChange.Result(
+                        change.key(), change.type(), change.eventId(), status,
+                        error.getCode() + " " + error.getMessage()));
+            }
+        };
     }
 
     /**
@@ -354,47 +385,35 @@ public class GoogleCalendarService {
     // ========================================
 
     /**
-     * Crea el flujo de autorización OAuth2 usando credenciales de Settings
+     * Obtiene el flujo de autorización OAuth2 usando credenciales de Settings
      */
-    private GoogleAuthorizationCodeFlow getFlow() throws GeneralSecurityException, IOException {
-        NetHttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
-        
+    private GoogleAuthorizationCodeFlow getFlow() {
         // Obtener credenciales desde Settings (base de datos)
         String clientId = settingsCache.getGoogleClientId();
         String clientSecret = settingsCache.getGoogleClientSecret();
-        
-        GoogleClientSecrets.Details details = new GoogleClientSecrets.Details()
-                .setClientId(clientId)
-                .setClientSecret(clientSecret);
-        GoogleClientSecrets clientSecrets = new GoogleClientSecrets().setWeb(details);
 
-        return new GoogleAuthorizationCodeFlow.Builder(
-                httpTransport, JSON_FACTORY, clientSecrets, SCOPES)
-                .setAccessType("offline")
-                .build();
+        return clientFactory.getFlow(clientId, clientSecret);
     }
 
-    private Calendar getCalendarService(GoogleCalendarToken token) throws GeneralSecurityException, IOException {
-        NetHttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
+    /**
+     * Cliente de Calendar de un token, refrescando el access token si está por vencer
+     */
+    public Calendar getCalendarClient(GoogleCalendarToken token) {
+        return getCalendarService(token);
+    }
 
+    /**
+     * Cliente de Calendar del token (compartido; se reconstruye solo si el token se refresca)
+     */
+    private Calendar getCalendarService(GoogleCalendarToken token) {
         // Verificar si necesita refresh
         if (token.needsRefresh() && token.getRefreshToken() != null) {
             refreshToken(token);
         }
 
-        Credential credential = new Credential.Builder(
-                com.google.api.client.auth.oauth2.BearerToken.authorizationHeaderAccessMethod())
-                .setTransport(httpTransport)
-                .setJsonFactory(JSON_FACTORY)
-                .build()
-                .setAccessToken(token.getAccessToken());
-
-        return new Calendar.Builder(httpTransport, JSON_FACTORY, credential)
-                .setApplicationName(APPLICATION_NAME)
-                .build();
+        return clientFactory.getClient(token.getId(), token.getAccessToken());
     }
 
-    @Transactional
     private void refreshToken(GoogleCalendarToken token) {
         try {
             GoogleAuthorizationCodeFlow flow = getFlow();
@@ -409,7 +428,8 @@ public class GoogleCalendarService {
             token.setExpiresAt(LocalDateTime.now().plusSeconds(response.getExpiresInSeconds()));
             tokenRepository.save(token);
             
-            log.info("Token refrescado para usuario {}", token.getUser().getUsername());
+            // Sin acceder a token.getUser(): desde los jobs el token está desconectado de la sesión
+            log.info("Token refrescado (token {}, {})", token.getId(), token.getGoogleEmail());
         } catch (Exception e) {
             log.error("Error refrescando token: {}", e.getMessage());
         }
@@ -417,18 +437,7 @@ public class GoogleCalendarService {
 
     private String getGoogleEmail(String accessToken) {
         try {
-            NetHttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
-            Credential credential = new Credential.Builder(
-                    com.google.api.client.auth.oauth2.BearerToken.authorizationHeaderAccessMethod())
-                    .setTransport(httpTransport)
-                    .setJsonFactory(JSON_FACTORY)
-                    .build()
-                    .setAccessToken(accessToken);
-
-            Calendar service = new Calendar.Builder(httpTransport, JSON_FACTORY, credential)
-                    .setApplicationName(APPLICATION_NAME)
-                    .build();
-
+            Calendar service = clientFactory.buildClient(accessToken);
             return service.calendarList().get("primary").execute().getSummary();
         } catch (Exception e) {
             log.warn("No se pudo obtener email de Google: {}", e.getMessage());
@@ -436,115 +445,6 @@ public class GoogleCalendarService {
         }
     }
 
-    /**
-     * Obtiene los eventos del calendario de Google del usuario para un rango de fechas.
-     * Esta es la alternativa cuando el iframe no funciona.
-     */
-    public List<GoogleCalendarEventDTO> getUserEvents(Long userId, LocalDate startDate, LocalDate endDate) {
-        List<GoogleCalendarEventDTO> result = new ArrayList<>();
-        
-        try {
-            // Usar el token efectivo (calendario empresa o personal)
-            Optional<GoogleCalendarToken> tokenOpt = getEffectiveToken(userId);
-            if (tokenOpt.isEmpty() || !tokenOpt.get().getSyncEnabled()) {
-                log.debug("No hay calendario disponible para usuario {}", userId);
-                return result;
-            }
-
-            GoogleCalendarToken token = tokenOpt.get();
-            Calendar service = getCalendarService(token);
-
-            // Convertir fechas a DateTime de Google
-            DateTime timeMin = new DateTime(startDate.atStartOfDay(ZoneId.of("America/El_Salvador")).toInstant().toEpochMilli());
-            DateTime timeMax = new DateTime(endDate.plusDays(1).atStartOfDay(ZoneId.of("America/El_Salvador")).toInstant().toEpochMilli());
-
-            // Obtener eventos
-            com.google.api.services.calendar.model.Events events = service.events()
-                    .list(token.getCalendarId())
-                    .setTimeMin(timeMin)
-                    .setTimeMax(timeMax)
-                    .setOrderBy("startTime")
-                    .setSingleEvents(true)
-                    .setMaxResults(100)
-                    .execute();
-
-            if (events.getItems() != null) {
-                for (Event event : events.getItems()) {
-                    GoogleCalendarEventDTO dto = convertToDTO(event);
-                    if (dto != null) {
-                        result.add(dto);
-                    }
-                }
-            }
-
-            log.debug("Obtenidos {} eventos de Google Calendar para usuario {}", result.size(), userId);
-        } catch (Exception e) {
-            log.error("Error obteniendo eventos de Google Calendar: {}", e.getMessage());
-        }
-
-        return result;
-    }
-
-    /**
-     * Convierte un evento de Google Calendar a DTO
-     */
-    private GoogleCalendarEventDTO convertToDTO(Event event) {
-        try {
-            LocalDate startDate;
-            LocalDate endDate;
-            boolean allDay = false;
-
-            // Manejar eventos de todo el día vs eventos con hora
-            if (event.getStart().getDate() != null) {
-                // Evento de todo el día
-                startDate = LocalDate.parse(event.getStart().getDate().toStringRfc3339().substring(0, 10));
-                endDate = LocalDate.parse(event.getEnd().getDate().toStringRfc3339().substring(0, 10));
-                allDay = true;
-            } else if (event.getStart().getDateTime() != null) {
-                // Evento con hora específica
-                startDate = LocalDate.parse(event.getStart().getDateTime().toStringRfc3339().substring(0, 10));
-                endDate = LocalDate.parse(event.getEnd().getDateTime().toStringRfc3339().substring(0, 10));
-            } else {
-                return null;
-            }
-
-            return GoogleCalendarEventDTO.builder()
-                    .id(event.getId())
-                    .title(event.getSummary() != null ? event.getSummary() : "(Sin título)")
-                    .description(event.getDescription())
-                    .startDate(startDate)
-                    .endDate(endDate)
-                    .allDay(allDay)
-                    .color(event.getColorId() != null ? getColorFromId(event.getColorId()) : "#4285F4")
-                    .htmlLink(event.getHtmlLink())
-                    .build();
-        } catch (Exception e) {
-            log.warn("Error convirtiendo evento {}: {}", event.getId(), e.getMessage());
-            return null;
-        }
-    }
-
-    /**
-     * Convierte el colorId de Google a un color hex
-     */
-    private String getColorFromId(String colorId) {
-        // Colores de Google Calendar (aproximados)
-        return switch (colorId) {
-            case "1" -> "#7986CB"; // Lavanda
-            case "2" -> "#33B679"; // Salvia
-            case "3" -> "#8E24AA"; // Uva
-            case "4" -> "#E67C73"; // Flamenco
-            case "5" -> "#F6BF26"; // Banana
-            case "6" -> "#F4511E"; // Mandarina
-            case "7" -> "#039BE5"; // Pavo real
-            case "8" -> "#616161"; // Grafito
-            case "9" -> "#3F51B5"; // Arándano
-            case "10" -> "#0B8043"; // Albahaca
-            case "11" -> "#D50000"; // Tomate
-            default -> "#4285F4"; // Azul Google por defecto
-        };
-    }
-
     private String buildEventDescription(Rental rental, String companyName) {
         StringBuilder sb = new StringBuilder();
         sb.append("📋 Contrato: ").append(rental.getContractNumber()).append("\n\n");
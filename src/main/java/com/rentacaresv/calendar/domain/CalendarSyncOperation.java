@@ -0,0 +1,11 @@
+package com.rentacaresv.calendar.domain;
+
+/**
+ * Operación pendiente de una renta en el outbox de Google Calendar
+ */
+public enum CalendarSyncOperation {
+    /** Crear el evento o actualizarlo con el estado actual de la renta */
+    UPSERT,
+    /** Eliminar el evento de la renta */
+    DELETE
+}
@@ -0,0 +1,9 @@
+package com.rentacaresv.calendar.domain;
+
+/**
+ * Fila del outbox de sincronización con Google Calendar
+ *
+ * @param userId usuario que originó el cambio (determina el calendario efectivo)
+ */
+public record CalendarSyncOutboxEntry(long id, long rentalId, CalendarSyncOperation operation,
+                                      Long userId, int attempts) {}
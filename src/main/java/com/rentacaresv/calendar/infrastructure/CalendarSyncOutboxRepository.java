@@ -0,0 +1,84 @@
+package com.rentacaresv.calendar.infrastructure;
+
+import com.rentacaresv.calendar.domain.CalendarSyncOperation;
+import com.rentacaresv.calendar.domain.CalendarSyncOutboxEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Acceso al outbox de sincronización con Google Calendar (tabla calendar_sync_outbox).
+ * No es entidad JPA: se lee y escribe con SQL directo.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CalendarSyncOutboxRepository {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Registra una operación pendiente; participa en la transacción activa
+     */
+    public void enqueue(Long rentalId, CalendarSyncOperation operation, Long userId) {
+        jdbcTemplate.update("""
+                INSERT INTO calendar_sync_outbox (rental_id, operation, user_id, next_attempt_at, created_at)
+                VALUES (?, ?, ?, NOW(), NOW())
+                """, rentalId, operation.name(), userId);
+    }
+
+    /**
+     * Filas listas para procesar (vencido su backoff y sin agotar reintentos), en orden de llegada
+     */
+    public List<CalendarSyncOutboxEntry> findDue(int limit, int maxAttempts) {
+        return jdbcTemplate.query("""
+                SELECT id, rental_id, operation, user_id, attempts
+                FROM calendar_sync_outbox
+                WHERE next_attempt_at <= NOW() AND attempts < ?
+                ORDER BY id
+                LIMIT ?
+                """, (rs, i) -> new CalendarSyncOutboxEntry(
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        CalendarSyncOperation.valueOf(rs.getString(3)),
+                        rs.getObject(4, Long.class),
+                        rs.getInt(5)),
+                maxAttempts, limit);
+    }
+
+    /**
+     * Borra las filas ya sincronizadas de una renta (incluye las superadas por la última)
+     */
+    public void deleteProcessed(long rentalId, long upToId) {
+        jdbcTemplate.update("DELETE FROM calendar_sync_outbox WHERE rental_id = ? AND id <= ?",
+                rentalId, upToId);
+    }
+
+    /**
+     * Reprograma las filas de una renta tras un fallo
+     */
+    public void scheduleRetry(long rentalId, long upToId, LocalDateTime nextAttemptAt, String error) {
+        String lastError = error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error;
+        jdbcTemplate.update("""
+                UPDATE calendar_sync_outbox
+                SET attempts = attempts + 1, next_attempt_at = ?, last_error = ?
+                WHERE rental_id = ? AND id <= ?
+                """, Timestamp.valueOf(nextAttemptAt), lastError, rentalId, upToId);
+    }
+
+    /**
+     * Guarda el ID del evento de Google en la renta.
+     * Se escribe por SQL porque la columna no es actualizable desde la entidad Rental.
+     */
+    public void updateRentalEventId(long rentalId, String eventId) {
+        jdbcTemplate.update("UPDATE rental SET google_calendar_event_id = ? WHERE id = ?",
+                eventId, rentalId);
+    }
+}
@@ -0,0 +1,138 @@
+package com.rentacaresv.calendar.infrastructure;
+
+import com.google.api.client.auth.oauth2.BearerToken;
+import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.googleapis.apache.v2.GoogleApacheHttpTransport;
+import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
+import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.calendar.Calendar;
+import com.google.api.services.calendar.CalendarScopes;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Clientes de Google Calendar compartidos.
+ *
+ * Un único HttpTransport (pool de conexiones Apache, trust store cargado una vez)
+ * y un único JsonFactory para toda la aplicación. Los clientes {@link Calendar}
+ * se cachean por token y solo se reconstruyen cuando cambia el access token
+ * (tras un refresh), así cada operación es una llamada HTTP sobre una conexión ya abierta.
+ */
+@Component
+@Slf4j
+public class GoogleCalendarClientFactory {
+
+    private static final String APPLICATION_NAME = "RentaCar ESV";
+    private static final List<String> SCOPES = Collections.singletonList(CalendarScopes.CALENDAR);
+
+    private final HttpTransport httpTransport;
+    private final JsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+
+    private final Map<Long, CachedClient> clients = new ConcurrentHashMap<>();
+    private volatile CachedFlow cachedFlow;
+
+    public GoogleCalendarClientFactory() throws GeneralSecurityException, IOException {
+        this.httpTransport = GoogleApacheHttpTransport.newTrustedTransport();
+    }
+
+    public HttpTransport getHttpTransport() {
+        return httpTransport;
+    }
+
+    public JsonFactory getJsonFactory() {
+        return jsonFactory;
+    }
+
+    /**
+     * Cliente de Calendar para un token; se reutiliza mientras el access token no cambie
+     *
+     * @param tokenId     ID del token (clave del cache)
+     * @param accessToken access token vigente
+     */
+    public Calendar getClient(Long tokenId, String accessToken) {
+        CachedClient cached = clients.get(tokenId);
+        if (cached != null && cached.accessToken().equals(accessToken)) {
+            return cached.client();
+        }
+
+        Calendar client = buildClient(accessToken);
+        clients.put(tokenId, new CachedClient(accessToken, client));
+        return client;
+    }
+
+    /**
+     * Cliente de Calendar sin cache (p. ej. para consultar la cuenta recién vinculada)
+     */
+    public Calendar buildClient(String accessToken) {
+        Credential credential = new Credential.Builder(BearerToken.authorizationHeaderAccessMethod())
+                .setTransport(httpTransport)
+                .setJsonFactory(jsonFactory)
+                .build()
+                .setAccessToken(accessToken);
+
+        return new Calendar.Builder(httpTransport, jsonFactory, credential)
+                .setApplicationName(APPLICATION_NAME)
+                .build();
+    }
+
+    /**
+     * Flujo OAuth2; se reconstruye solo si cambian las credenciales de la aplicación
+     */
+    public GoogleAuthorizationCodeFlow getFlow(String clientId, String clientSecret) {
+        CachedFlow current = cachedFlow;
+        if (current != null && current.matches(clientId, clientSecret)) {
+            return current.flow();
+        }
+
+        GoogleClientSecrets.Details details = new GoogleClientSecrets.Details()
+                .setClientId(clientId)
+                .setClientSecret(clientSecret);
+        GoogleClientSecrets clientSecrets = new GoogleClientSecrets().setWeb(details);
+
+        GoogleAuthorizationCodeFlow flow = new GoogleAuthorizationCodeFlow.Builder(
+                httpTransport, jsonFactory, clientSecrets, SCOPES)
+                .setAccessType("offline")
+                .build();
+        cachedFlow = new CachedFlow(clientId, clientSecret, flow);
+        return flow;
+    }
+
+    /**
+     * Descarta el cliente cacheado de un token (al desvincular la cuenta)
+     */
+    public void evict(Long tokenId) {
+        if (tokenId != null) {
+            clients.remove(tokenId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            httpTransport.shutdown();
+        } catch (IOException e) {
+            log.warn("Error cerrando el transporte HTTP de Google: {}", e.getMessage());
+        }
+    }
+
+    private record CachedClient(String accessToken, Calendar client) {}
+
+    private record CachedFlow(String clientId, String clientSecret, GoogleAuthorizationCodeFlow flow) {
+
+        boolean matches(String otherClientId, String otherClientSecret) {
+            return Objects.equals(clientId, otherClientId) && Objects.equals(clientSecret, otherClientSecret);
+        }
+    }
+}
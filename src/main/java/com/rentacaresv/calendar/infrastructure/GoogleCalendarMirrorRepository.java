@@ -0,0 +1,126 @@
+package com.rentacaresv.calendar.infrastructure;
+
+import com.rentacaresv.calendar.application.GoogleCalendarEventDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Acceso a la copia local de eventos de Google Calendar (tablas google_calendar_event_mirror
+ * y google_calendar_mirror_state). No son entidades JPA: se leen y escriben con SQL directo.
+ * El campo color de los DTO guarda el colorId de Google; lo traduce el servicio.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GoogleCalendarMirrorRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Estado de sincronización de un token
+     *
+     * @param syncToken último nextSyncToken de Google (null = requiere sincronización completa)
+     * @param windowEnd último día de la ventana descargada en la sincronización completa
+     */
+    public record MirrorState(String calendarId, String syncToken, LocalDate windowEnd) {}
+
+    // ─── Estado ────────────────────────────────────────────────────────────────
+
+    public MirrorState findState(Long tokenId) {
+        List<MirrorState> states = jdbcTemplate.query(
+                "SELECT calendar_id, sync_token, window_end FROM google_calendar_mirror_state WHERE token_id = ?",
+                (rs, i) -> new MirrorState(rs.getString(1), rs.getString(2),
+                        rs.getDate(3) != null ? rs.getDate(3).toLocalDate() : null), tokenId);
+        return states.isEmpty() ? null : states.get(0);
+    }
+
+    public void saveState(Long tokenId, String calendarId, String syncToken, LocalDate windowEnd) {
+        jdbcTemplate.update("""
+                INSERT INTO google_calendar_mirror_state (token_id, calendar_id, sync_token, window_end, last_synced_at)
+                VALUES (?, ?, ?, ?, NOW())
+                ON DUPLICATE KEY UPDATE calendar_id = VALUES(calendar_id),
+                                        sync_token = VALUES(sync_token),
+                                        window_end = VALUES(window_end),
+                                        last_synced_at = NOW()
+                """, tokenId, calendarId, syncToken, Date.valueOf(windowEnd));
+    }
+
+    // ─── Eventos ───────────────────────────────────────────────────────────────
+
+    /**
+     * Inserta o reemplaza eventos en un solo lote JDBC
+     */
+    public void upsertEvents(Long tokenId, List<GoogleCalendarEventDTO> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO google_calendar_event_mirror
+                    (token_id, event_id, title, description, start_date, end_date, all_day, color_id, html_link)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE title = VALUES(title), description = VALUES(description),
+                                        start_date = VALUES(start_date), end_date = VALUES(end_date),
+                                        all_day = VALUES(all_day), color_id = VALUES(color_id),
+                                        html_link = VALUES(html_link)
+                """, events, events.size(), (ps, event) -> {
+                    ps.setLong(1, tokenId);
+                    ps.setString(2, event.getId());
+                    ps.setString(3, event.getTitle());
+                    ps.setString(4, event.getDescription());
+                    ps.setDate(5, Date.valueOf(event.getStartDate()));
+                    ps.setDate(6, Date.valueOf(event.getEndDate()));
+                    ps.setBoolean(7, event.isAllDay());
+                    ps.setString(8, event.getColor());
+                    ps.setString(9, event.getHtmlLink());
+                });
+    }
+
+    public void deleteEvents(Long tokenId, List<String> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "DELETE FROM google_calendar_event_mirror WHERE token_id = ? AND event_id = ?",
+                eventIds, eventIds.size(), (ps, eventId) -> {
+                    ps.setLong(1, tokenId);
+                    ps.setString(2, eventId);
+                });
+    }
+
+    /**
+     * Eventos que se solapan con el rango, ordenados por fecha de inicio
+     */
+    public List<GoogleCalendarEventDTO> findEvents(Long tokenId, LocalDate from, LocalDate to, int limit) {
+        return jdbcTemplate.query("""
+                SELECT event_id, title, description, start_date, end_date, all_day, color_id, html_link
+                FROM google_calendar_event_mirror
+                WHERE token_id = ? AND start_date <= ? AND end_date >= ?
+                ORDER BY start_date, event_id
+                LIMIT ?
+                """, (rs, i) -> GoogleCalendarEventDTO.builder()
+                        .id(rs.getString(1))
+                        .title(rs.getString(2))
+                        .description(rs.getString(3))
+                        .startDate(rs.getDate(4).toLocalDate())
+                        .endDate(rs.getDate(5).toLocalDate())
+                        .allDay(rs.getBoolean(6))
+                        .color(rs.getString(7))
+                        .htmlLink(rs.getString(8))
+                        .build(),
+                tokenId, Date.valueOf(to), Date.valueOf(from), limit);
+    }
+
+    /**
+     * Borra la copia local de un token (al desvincular o al rehacer la sincronización completa)
+     */
+    public void deleteByToken(Long tokenId, boolean includeState) {
+        jdbcTemplate.update("DELETE FROM google_calendar_event_mirror WHERE token_id = ?", tokenId);
+        if (includeState) {
+            jdbcTemplate.update("DELETE FROM google_calendar_mirror_state WHERE token_id = ?", tokenId);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.rentacaresv.calendar.ui;
 
 import com.rentacaresv.calendar.application.CalendarEventDTO;
 import com.rentacaresv.calendar.application.GoogleCalendarEventDTO;
+import com.rentacaresv.calendar.application.GoogleCalendarMirrorService;
 import com.rentacaresv.calendar.application.GoogleCalendarService;
 import com.rentacaresv.calendar.domain.GoogleCalendarToken;
 import com.rentacaresv.components.calendar.CustomCalendar;
@@ -9,7 +10,7 @@ import com.rentacaresv.rental.application.RentalDTO;
 import com.rentacaresv.rental.application.RentalService;
 import com.rentacaresv.rental.ui.RentalDetailsDialog;
 import com.rentacaresv.security.AuthenticatedUser;
-import com.rentacaresv.user.domain.User;
+import com.rentacaresv.security.CurrentUser;
 import com.rentacaresv.views.MainLayout;
 import com.vaadin.flow.component.Html;
 import com.vaadin.flow.component.UI;
@@ -49,21 +50,24 @@ public class CalendarView extends VerticalLayout implements HasUrlParameter<Stri
 
     private final RentalService rentalService;
     private final GoogleCalendarService googleCalendarService;
+    private final GoogleCalendarMirrorService googleCalendarMirrorService;
     private final AuthenticatedUser authenticatedUser;
 
     private CustomCalendar calendar;
     private Div googleCalendarStatus;
     private Button linkGoogleButton;
     private Button unlinkGoogleButton;
-    private User currentUser;
+    private CurrentUser currentUser;
     private TabSheet tabSheet;
     private Div googleCalendarIframe;
 
     public CalendarView(RentalService rentalService,
             GoogleCalendarService googleCalendarService,
+            GoogleCalendarMirrorService googleCalendarMirrorService,
             AuthenticatedUser authenticatedUser) {
         this.rentalService = rentalService;
         this.googleCalendarService = googleCalendarService;
+        this.googleCalendarMirrorService = googleCalendarMirrorService;
         this.authenticatedUser = authenticatedUser;
 
         setSizeFull();
@@ -73,7 +77,7 @@ public class CalendarView extends VerticalLayout implements HasUrlParameter<Stri
 
     @Override
     public void beforeEnter(BeforeEnterEvent event) {
-        Optional<User> userOpt = authenticatedUser.get();
+        Optional<CurrentUser> userOpt = authenticatedUser.getCurrentUser();
         if (userOpt.isEmpty()) {
             event.forwardTo("login");
             return;
@@ -138,7 +142,7 @@ public class CalendarView extends VerticalLayout implements HasUrlParameter<Stri
         // Botón refrescar
         Button refreshBtn = new Button("Actualizar", VaadinIcon.REFRESH.create());
         refreshBtn.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
-        refreshBtn.addClickListener(e -> loadCalendarEvents());
+        refreshBtn.addClickListener(e -> calendar.refreshEvents());
 
         // Leyenda
         HorizontalLayout legend = createLegend();
@@ -274,7 +278,7 @@ public class CalendarView extends VerticalLayout implements HasUrlParameter<Stri
 
     private void linkGoogleCalendar() {
         try {
-            String authUrl = googleCalendarService.getAuthorizationUrl(currentUser.getId());
+            String authUrl = googleCalendarService.getAuthorizationUrl(currentUser.id());
             // Redirigir a la página de autorización de Google
             UI.getCurrent().getPage().setLocation(authUrl);
         } catch (Exception e) {
@@ -299,7 +303,7 @@ public class CalendarView extends VerticalLayout implements HasUrlParameter<Stri
 
     private void unlinkGoogleCalendar() {
         try {
-            googleCalendarService.unlinkAccount(currentUser.getId());
+            googleCalendarService.unlinkAccount(currentUser.id());
             updateGoogleCalendarStatus();
             Notification.show("Google Calendar desvinculado", 3000, Notification.Position.TOP_CENTER)
                     .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
@@ -329,7 +333,8 @@ public class CalendarView extends VerticalLayout implements HasUrlParameter<Stri
         calendar = new CustomCalendar();
         calendar.setSizeFull();
 
-        loadCalendarEvents();
+        // Carga por rango: el calendario pide solo los meses visibles y sus adyacentes
+        calendar.setEventLoader(this::loadCalendarEvents);
 
         calendar.addEventClickListener(event -> {
             Object data = event.getData();
@@ -355,7 +360,7 @@ public class CalendarView extends VerticalLayout implements HasUrlParameter<Stri
         container.setSpacing(false);
 
         // Usar el token efectivo (calendario empresa o personal)
-        Optional<GoogleCalendarToken> tokenOpt = googleCalendarService.getEffectiveToken(currentUser.getId());
+        Optional<GoogleCalendarToken> tokenOpt = googleCalendarService.getEffectiveToken(currentUser.id());
 
         if (tokenOpt.isEmpty()) {
             // Mostrar mensaje según el rol del usuario
@@ -563,8 +568,8 @@ public class CalendarView extends VerticalLayout implements HasUrlParameter<Stri
                 LocalDate startDate = YearMonth.now().atDay(1);
                 LocalDate endDate = startDate.plusMonths(2);
 
-                List<GoogleCalendarEventDTO> events = googleCalendarService.getUserEvents(
-                        currentUser.getId(), startDate, endDate);
+                List<GoogleCalendarEventDTO> events = googleCalendarMirrorService.getUserEvents(
+                        currentUser.id(), startDate, endDate);
 
                 eventsContainer.removeAll();
 
@@ -593,9 +598,12 @@ public class CalendarView extends VerticalLayout implements HasUrlParameter<Stri
             }
         };
 
-        refreshBtn.addClickListener(e -> loadEvents.run());
+        refreshBtn.addClickListener(e -> {
+            googleCalendarMirrorService.refreshUserEvents(currentUser.id());
+            loadEvents.run();
+        });
 
-        // Cargar eventos inicialmente
+        // Cargar eventos inicialmente (desde la copia local)
         loadEvents.run();
 
         // Mensaje de éxito
@@ -759,8 +767,8 @@ public class CalendarView extends VerticalLayout implements HasUrlParameter<Stri
         return container;
     }
 
-    private void loadCalendarEvents() {
-        List<CalendarEventDTO> eventDTOs = rentalService.findAllAsCalendarEvents();
+    private List<CustomCalendar.CalendarEvent> loadCalendarEvents(LocalDate from, LocalDate to) {
+        List<CalendarEventDTO> eventDTOs = rentalService.findCalendarEvents(from, to);
 
         List<CustomCalendar.CalendarEvent> customEvents = eventDTOs.stream()
                 .map(dto -> new CustomCalendar.CalendarEvent(
@@ -772,8 +780,8 @@ public class CalendarView extends VerticalLayout implements HasUrlParameter<Stri
                         dto.getRentalId()))
                 .collect(Collectors.toList());
 
-        calendar.setEvents(customEvents);
-        log.debug("Cargados {} eventos en el calendario", customEvents.size());
+        log.debug("Cargados {} eventos en el calendario ({} a {})", customEvents.size(), from, to);
+        return customEvents;
     }
 
     private HorizontalLayout createLegend() {
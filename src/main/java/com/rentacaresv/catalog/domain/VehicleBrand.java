@@ -2,6 +2,8 @@ package com.rentacaresv.catalog.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -12,6 +14,8 @@ import java.util.List;
  */
 @Entity
 @Table(name = "vehicle_brand")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-brands")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -44,6 +48,7 @@ public class VehicleBrand {
     private LocalDateTime updatedAt;
 
     @OneToMany(mappedBy = "brand", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-brand-models")
     @Builder.Default
     private List<VehicleModel> models = new ArrayList<>();
 
@@ -3,6 +3,8 @@ package com.rentacaresv.catalog.domain;
 import com.rentacaresv.vehicle.domain.VehicleType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
@@ -13,6 +15,8 @@ import java.time.LocalDateTime;
 @Table(name = "vehicle_model", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"brand_id", "name"})
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-models")
 @Getter
 @Setter
 @NoArgsConstructor
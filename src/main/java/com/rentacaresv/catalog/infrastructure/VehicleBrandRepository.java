@@ -1,8 +1,11 @@
 package com.rentacaresv.catalog.infrastructure;
 
 import com.rentacaresv.catalog.domain.VehicleBrand;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,6 +18,10 @@ public interface VehicleBrandRepository extends JpaRepository<VehicleBrand, Long
 
     boolean existsByNameIgnoreCase(String name);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
     @Query("SELECT b FROM VehicleBrand b WHERE b.active = true ORDER BY b.name")
     List<VehicleBrand> findAllActive();
 
@@ -2,8 +2,11 @@ package com.rentacaresv.catalog.infrastructure;
 
 import com.rentacaresv.catalog.domain.VehicleModel;
 import com.rentacaresv.vehicle.domain.VehicleType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,12 +16,20 @@ import java.util.Optional;
 @Repository
 public interface VehicleModelRepository extends JpaRepository<VehicleModel, Long> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
     @Query("SELECT m FROM VehicleModel m WHERE m.brand.id = :brandId AND m.active = true ORDER BY m.name")
     List<VehicleModel> findByBrandIdActive(@Param("brandId") Long brandId);
 
     @Query("SELECT m FROM VehicleModel m WHERE m.brand.id = :brandId ORDER BY m.name")
     List<VehicleModel> findByBrandId(@Param("brandId") Long brandId);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
     @Query("SELECT m FROM VehicleModel m WHERE m.active = true ORDER BY m.brand.name, m.name")
     List<VehicleModel> findAllActive();
 
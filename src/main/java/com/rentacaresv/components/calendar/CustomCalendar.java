@@ -16,8 +16,12 @@ import java.time.Month;
 import java.time.YearMonth;
 import java.time.format.TextStyle;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.stream.IntStream;
 
@@ -35,6 +39,10 @@ public class CustomCalendar extends Div {
     private final List<CalendarEvent> events = new ArrayList<>();
     private Consumer<CalendarEvent> eventClickListener;
 
+    // Carga por rango: eventos por mes ya consultados (mes visible y adyacentes)
+    private BiFunction<LocalDate, LocalDate, List<CalendarEvent>> eventLoader;
+    private final Map<YearMonth, List<CalendarEvent>> loadedMonths = new HashMap<>();
+
     public CustomCalendar() {
         this.currentMonth = YearMonth.now();
         addClassName("calendar-container");
@@ -150,16 +158,82 @@ public class CustomCalendar extends Div {
     }
 
     public void setEvents(List<CalendarEvent> events) {
+        this.eventLoader = null;
+        this.loadedMonths.clear();
         this.events.clear();
         this.events.addAll(events);
         render();
     }
 
+    /**
+     * Carga los eventos por rango en vez de recibirlos todos: al mostrar un mes se piden
+     * solo los meses (visible, anterior y siguiente) que aún no están cargados, en una
+     * sola llamada; así navegar al mes contiguo solo consulta un mes nuevo.
+     *
+     * @param loader recibe el rango [desde, hasta] y devuelve los eventos que se solapan con él
+     */
+    public void setEventLoader(BiFunction<LocalDate, LocalDate, List<CalendarEvent>> loader) {
+        this.eventLoader = loader;
+        this.loadedMonths.clear();
+        render();
+    }
+
+    /**
+     * Descarta los meses cargados y vuelve a consultar el rango visible
+     */
+    public void refreshEvents() {
+        loadedMonths.clear();
+        render();
+    }
+
+    private void ensureEventsLoaded() {
+        if (eventLoader == null) {
+            return;
+        }
+
+        YearMonth first = currentMonth.minusMonths(1);
+        YearMonth last = currentMonth.plusMonths(1);
+
+        // Descartar meses lejanos para acotar la memoria de la sesión
+        loadedMonths.keySet().removeIf(month -> month.isBefore(first.minusMonths(1))
+                || month.isAfter(last.plusMonths(1)));
+
+        // Tramo contiguo de meses que faltan
+        YearMonth from = first;
+        YearMonth to = last;
+        while (!from.isAfter(to) && loadedMonths.containsKey(from)) {
+            from = from.plusMonths(1);
+        }
+        while (!to.isBefore(from) && loadedMonths.containsKey(to)) {
+            to = to.minusMonths(1);
+        }
+
+        if (!from.isAfter(to)) {
+            List<CalendarEvent> loaded = eventLoader.apply(from.atDay(1), to.atEndOfMonth());
+            for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                LocalDate monthStart = month.atDay(1);
+                LocalDate monthEnd = month.atEndOfMonth();
+                loadedMonths.put(month, loaded.stream()
+                        .filter(e -> !e.getStart().isAfter(monthEnd) && !e.getEnd().isBefore(monthStart))
+                        .toList());
+            }
+        }
+
+        // Eventos de los tres meses, sin repetir los que cruzan de un mes a otro
+        Map<Long, CalendarEvent> visible = new LinkedHashMap<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            loadedMonths.getOrDefault(month, List.of()).forEach(e -> visible.putIfAbsent(e.getId(), e));
+        }
+        events.clear();
+        events.addAll(visible.values());
+    }
+
     public void addEventClickListener(Consumer<CalendarEvent> listener) {
         this.eventClickListener = listener;
     }
 
     private void render() {
+        ensureEventsLoaded();
         grid.removeAll();
 
         // Weekday Headers
@@ -0,0 +1,76 @@
+package com.rentacaresv.contract.application;
+
+import com.rentacaresv.contract.domain.ContractsExpiredEvent;
+import com.rentacaresv.shared.infrastructure.DatabaseLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Barrido periódico de contratos pendientes vencidos.
+ *
+ * Corre en un solo nodo a la vez (named lock de MariaDB), marca los contratos
+ * con un UPDATE por lotes y publica {@link ContractsExpiredEvent} con los IDs
+ * afectados después del commit.
+ */
+@Component
+@Slf4j
+public class ContractExpiryJob {
+
+    private static final String LOCK_NAME = "rentacaresv.contract-expiry";
+
+    private final ContractService contractService;
+    private final DatabaseLock databaseLock;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter expiredCounter;
+    private final Counter skippedCounter;
+    private final Timer sweepTimer;
+
+    public ContractExpiryJob(ContractService contractService,
+                             DatabaseLock databaseLock,
+                             ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry) {
+        this.contractService = contractService;
+        this.databaseLock = databaseLock;
+        this.eventPublisher = eventPublisher;
+        this.expiredCounter = Counter.builder("contracts.expired")
+                .description("Contratos marcados como expirados por el barrido")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("contracts.expiry.skipped")
+                .description("Barridos omitidos porque otro nodo tenía el lock")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("contracts.expiry.sweep")
+                .description("Duración del barrido de contratos expirados")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Expira contratos pendientes vencidos (cada 5 minutos por defecto)
+     */
+    @Scheduled(fixedDelayString = "${app.contracts.expiry.interval-ms:300000}",
+               initialDelayString = "${app.contracts.expiry.initial-delay-ms:60000}")
+    public void expireContracts() {
+        Optional<List<Long>> result = sweepTimer.record(() ->
+                databaseLock.runIfAvailable(LOCK_NAME, contractService::markExpiredContracts));
+
+        if (result == null || result.isEmpty()) {
+            skippedCounter.increment();
+            return;
+        }
+
+        List<Long> expiredIds = result.get();
+        if (!expiredIds.isEmpty()) {
+            expiredCounter.increment(expiredIds.size());
+            eventPublisher.publishEvent(new ContractsExpiredEvent(expiredIds, LocalDateTime.now()));
+            log.debug("Contratos expirados: {}", expiredIds);
+        }
+    }
+}
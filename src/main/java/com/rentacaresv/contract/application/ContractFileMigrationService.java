@@ -14,7 +14,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Servicio de migración one-time para mover archivos existentes en DO Spaces
@@ -51,6 +53,12 @@ public class ContractFileMigrationService {
         List<Contract> contracts = contractRepository.findAll();
         log.info("Contratos encontrados: {}", contracts.size());
 
+        // Fotos de documentos de todas las rentas en una sola consulta: consultar por contrato
+        // forzaría un flush de las fotos ya modificadas y rompería los lotes de UPDATE
+        Map<Long, List<RentalPhoto>> photosByRental = rentalPhotoRepository
+                .findActiveByPhotoTypes(DOCUMENT_PHOTO_TYPES).stream()
+                .collect(Collectors.groupingBy(photo -> photo.getRental().getId()));
+
         for (Contract contract : contracts) {
             String contractNumber = contract.getRental().getContractNumber();
             logs.add("── Contrato: " + contractNumber + " [" + contract.getStatus() + "]");
@@ -84,7 +92,8 @@ public class ContractFileMigrationService {
             logs.addAll(pdfResult.logs);
 
             // 5. RentalPhoto (documentos subidos en reserva WEB)
-            var rentalPhotoResult = migrateRentalPhotos(contract, contractNumber);
+            var rentalPhotoResult = migrateRentalPhotos(
+                    photosByRental.getOrDefault(contract.getRental().getId(), List.of()), contractNumber);
             moved   += rentalPhotoResult.moved;
             skipped += rentalPhotoResult.skipped;
             errors  += rentalPhotoResult.errors;
@@ -162,20 +171,15 @@ public class ContractFileMigrationService {
 
     // ── RentalPhoto (reservas WEB) ────────────────────────────────────────────
 
-    private PartialResult migrateRentalPhotos(Contract contract, String contractNumber) {
+    private PartialResult migrateRentalPhotos(List<RentalPhoto> photos, String contractNumber) {
         PartialResult r = new PartialResult();
 
-        List<RentalPhoto> photos = rentalPhotoRepository.findByRentalId(contract.getRental().getId());
-
         for (RentalPhoto photo : photos) {
-            if (!DOCUMENT_PHOTO_TYPES.contains(photo.getPhotoType())) continue;
-
             String newUrl = moveFile(photo.getPhotoUrl(), FolderType.CONTRACT_DOCUMENTS, contractNumber,
                     photo.getPhotoType().name().toLowerCase(), r);
 
             if (newUrl != null) {
-                photo.setPhotoUrl(newUrl);
-                rentalPhotoRepository.save(photo);
+                photo.setPhotoUrl(newUrl); // entidad gestionada: el UPDATE sale en lote al hacer flush
             }
         }
 
@@ -6,6 +6,7 @@ import com.rentacaresv.rental.domain.Rental;
 import com.rentacaresv.rental.domain.photo.RentalPhotoType;
 import com.rentacaresv.rental.infrastructure.RentalPhotoRepository;
 import com.rentacaresv.rental.infrastructure.RentalRepository;
+import com.rentacaresv.shared.infrastructure.RetryOnOptimisticLock;
 import com.rentacaresv.shared.storage.FileStorageService;
 import com.rentacaresv.shared.storage.FolderType;
 
@@ -460,6 +461,7 @@ public class ContractService {
     /**
      * Cancela un contrato pendiente
      */
+    @RetryOnOptimisticLock
     @Transactional
     public Contract cancelContract(Long contractId) {
         Contract contract = contractRepository.findById(contractId)
@@ -470,24 +472,23 @@ public class ContractService {
     }
 
     /**
-     * Marca contratos expirados (ejecutar periódicamente)
+     * Marca contratos expirados con un único UPDATE (lo ejecuta {@link ContractExpiryJob}).
+     * Primero bloquea las filas vencidas para devolver exactamente los IDs actualizados.
+     *
+     * @return IDs de los contratos marcados como expirados
      */
     @Transactional
-    public int markExpiredContracts() {
-        List<Contract> expired = contractRepository.findExpiredContracts(LocalDateTime.now());
-        int count = 0;
-
-        for (Contract contract : expired) {
-            contract.markAsExpired();
-            contractRepository.save(contract);
-            count++;
+    public List<Long> markExpiredContracts() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> expiredIds = contractRepository.lockExpiredPendingContractIds(now);
+        if (expiredIds.isEmpty()) {
+            return List.of();
         }
 
-        if (count > 0) {
-            log.info("Marcados {} contratos como expirados", count);
-        }
+        int count = contractRepository.expirePendingContracts(now);
+        log.info("Marcados {} contratos como expirados", count);
 
-        return count;
+        return expiredIds;
     }
 
     // ========================================
@@ -626,6 +627,7 @@ public class ContractService {
      * Confirma la devolución del vehículo desde el contrato firmado.
      * Marca el vehículo como devuelto en buen estado y completa la renta.
      */
+    @RetryOnOptimisticLock
     @Transactional
     public Contract confirmVehicleReturn(String token) {
         Contract contract = findByToken(token)
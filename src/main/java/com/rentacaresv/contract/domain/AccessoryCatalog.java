@@ -2,6 +2,8 @@ package com.rentacaresv.contract.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
@@ -14,6 +16,8 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "accessory_catalog")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-accessories")
 @Getter
 @Setter
 @NoArgsConstructor
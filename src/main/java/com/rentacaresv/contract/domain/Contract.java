@@ -364,6 +364,14 @@ public class Contract {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Versión para bloqueo optimista: el cliente llena el contrato desde el enlace
+     * público mientras un empleado puede cancelarlo o firmarlo.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // ========================================
     // Métodos de Negocio (Domain Logic)
     // ========================================
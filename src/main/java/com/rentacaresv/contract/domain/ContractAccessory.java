@@ -20,8 +20,12 @@ import lombok.*;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class ContractAccessory {
 
+    /**
+     * Id por secuencia (no IDENTITY) para que los INSERT se puedan enviar en lote
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contract_accessory_seq")
+    @SequenceGenerator(name = "contract_accessory_seq", sequenceName = "contract_accessory_seq", allocationSize = 50)
     private Long id;
 
     /**
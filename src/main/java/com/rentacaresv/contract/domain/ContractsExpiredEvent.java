@@ -0,0 +1,9 @@
+package com.rentacaresv.contract.domain;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Evento publicado después de que un barrido marca contratos pendientes como expirados
+ */
+public record ContractsExpiredEvent(List<Long> contractIds, LocalDateTime expiredAt) {}
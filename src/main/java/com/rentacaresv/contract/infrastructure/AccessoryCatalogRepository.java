@@ -2,8 +2,11 @@ package com.rentacaresv.contract.infrastructure;
 
 import com.rentacaresv.contract.domain.AccessoryCatalog;
 import com.rentacaresv.contract.domain.AccessoryCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 
@@ -15,6 +18,10 @@ public interface AccessoryCatalogRepository extends JpaRepository<AccessoryCatal
     /**
      * Busca todos los accesorios activos ordenados por categoría y orden
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
     @Query("SELECT a FROM AccessoryCatalog a WHERE a.isActive = true ORDER BY a.category, a.displayOrder, a.name")
     List<AccessoryCatalog> findAllActiveOrdered();
 
@@ -3,6 +3,7 @@ package com.rentacaresv.contract.infrastructure;
 import com.rentacaresv.contract.domain.Contract;
 import com.rentacaresv.contract.domain.ContractStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -61,10 +62,21 @@ public interface ContractRepository extends JpaRepository<Contract, Long> {
        List<Contract> findByStatus(ContractStatus status);
 
        /**
-        * Busca contratos pendientes que han expirado
+        * IDs de contratos pendientes que han expirado, bloqueados para actualizar
         */
-       @Query("SELECT c FROM Contract c WHERE c.status = 'PENDING' AND c.expiresAt < :now")
-       List<Contract> findExpiredContracts(@Param("now") LocalDateTime now);
+       @Query(value = "SELECT id FROM contract WHERE status = 'PENDING' AND expires_at < :now FOR UPDATE",
+              nativeQuery = true)
+       List<Long> lockExpiredPendingContractIds(@Param("now") LocalDateTime now);
+
+       /**
+        * Marca como expirados todos los contratos pendientes vencidos en un solo UPDATE.
+        * Incrementa la versión para que una edición abierta sobre el contrato no lo reviva.
+        */
+       @Modifying
+       @Query(value = "UPDATE contract SET status = 'EXPIRED', updated_at = :now, version = version + 1 " +
+                      "WHERE status = 'PENDING' AND expires_at < :now",
+              nativeQuery = true)
+       int expirePendingContracts(@Param("now") LocalDateTime now);
 
        /**
         * Busca contratos firmados en un rango de fechas
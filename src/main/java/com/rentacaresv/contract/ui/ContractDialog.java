@@ -3,6 +3,7 @@ package com.rentacaresv.contract.ui;
 import com.rentacaresv.contract.application.ContractService;
 import com.rentacaresv.contract.domain.Contract;
 import com.rentacaresv.contract.domain.ContractStatus;
+import com.rentacaresv.shared.ui.ConcurrentEditNotification;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
@@ -19,6 +20,7 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
@@ -383,6 +385,11 @@ public class ContractDialog extends Dialog {
                 Notification.show("Contrato cancelado", 3000, Notification.Position.BOTTOM_CENTER)
                         .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
 
+            } catch (OptimisticLockingFailureException ex) {
+                ConcurrentEditNotification.show();
+                loadContract();
+                buildContent();
+                confirmDialog.close();
             } catch (Exception ex) {
                 Notification.show("Error: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
                         .addThemeVariants(NotificationVariant.LUMO_ERROR);
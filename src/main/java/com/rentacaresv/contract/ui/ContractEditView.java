@@ -3,6 +3,7 @@ package com.rentacaresv.contract.ui;
 import com.rentacaresv.contract.application.ContractService;
 import com.rentacaresv.contract.domain.*;
 import com.rentacaresv.settings.application.SettingsCache;
+import com.rentacaresv.shared.ui.ConcurrentEditNotification;
 
 import com.vaadin.flow.component.Html;
 import com.vaadin.flow.component.UI;
@@ -31,6 +32,7 @@ import com.vaadin.flow.router.*;
 import com.vaadin.flow.server.VaadinRequest;
 import jakarta.annotation.security.PermitAll;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.io.InputStream;
 import java.math.BigDecimal;
@@ -1150,6 +1152,8 @@ private VerticalLayout createVideoUploadSection(String title, String videoType,
                             .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
                     // Recargar la vista
                     UI.getCurrent().getPage().reload();
+                } catch (OptimisticLockingFailureException ex) {
+                    ConcurrentEditNotification.show();
                 } catch (Exception ex) {
                     log.error("Error confirmando devolución: {}", ex.getMessage(), ex);
                     Notification.show("Error: " + ex.getMessage(), 4000, Notification.Position.MIDDLE)
@@ -5,6 +5,7 @@ import com.rentacaresv.customer.domain.CustomerCategory;
 import com.rentacaresv.customer.domain.DocumentType;
 import com.rentacaresv.customer.infrastructure.CustomerMapper;
 import com.rentacaresv.customer.infrastructure.CustomerRepository;
+import com.rentacaresv.shared.util.FullTextQuery;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -145,11 +146,19 @@ public class CustomerService {
     }
 
     /**
-     * Busca clientes por nombre
+     * Busca clientes por nombre, documento, email o teléfono (prefijos de palabra),
+     * ordenados por relevancia
+     *
+     * @param category categoría a la que se limita la búsqueda, o null para todas
      */
     @Transactional(readOnly = true)
-    public List<CustomerDTO> searchByName(String name) {
-        List<Customer> customers = customerRepository.searchByName(name);
+    public List<CustomerDTO> search(String searchTerm, CustomerCategory category, int limit) {
+        String query = FullTextQuery.allPrefixes(searchTerm);
+        if (query == null) {
+            return List.of();
+        }
+        List<Customer> customers = customerRepository.searchFullText(
+                query, category != null ? category.name() : null, limit);
         return customerMapper.toDTOList(customers);
     }
 
@@ -50,10 +50,19 @@ public interface CustomerRepository extends JpaRepository<Customer, Long>, JpaSp
     List<Customer> findActiveVipCustomers();
 
     /**
-     * Busca clientes por nombre (búsqueda parcial)
+     * Busca clientes con el índice FULLTEXT (nombre, documento, email, teléfono),
+     * ordenados por relevancia. :query es una expresión en modo booleano (ver FullTextQuery);
+     * :category null = todas las categorías (se filtra antes del LIMIT)
      */
-    @Query("SELECT c FROM Customer c WHERE LOWER(c.fullName) LIKE LOWER(CONCAT('%', :name, '%')) AND c.deletedAt IS NULL")
-    List<Customer> searchByName(@Param("name") String name);
+    @Query(value = "SELECT * FROM customer " +
+                   "WHERE deleted_at IS NULL " +
+                   "AND (:category IS NULL OR category = :category) " +
+                   "AND MATCH(full_name, document_number, email, phone) AGAINST (:query IN BOOLEAN MODE) " +
+                   "ORDER BY MATCH(full_name, document_number, email, phone) AGAINST (:query IN BOOLEAN MODE) DESC, full_name " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<Customer> searchFullText(@Param("query") String query, @Param("category") String category,
+                                  @Param("limit") int limit);
 
     /**
      * Busca clientes por teléfono
@@ -3,6 +3,7 @@ package com.rentacaresv.customer.ui;
 import com.rentacaresv.customer.application.CustomerDTO;
 import com.rentacaresv.customer.application.CustomerService;
 import com.rentacaresv.customer.domain.CustomerCategory;
+import com.rentacaresv.search.ui.GlobalSearchField;
 import com.rentacaresv.views.MainLayout;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.button.Button;
@@ -19,6 +20,8 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.router.BeforeEnterEvent;
+import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.Menu;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
@@ -35,7 +38,9 @@ import java.util.List;
 @PageTitle("Gestión de Clientes")
 @Menu(order = 2, icon = LineAwesomeIconUrl.USER_FRIENDS_SOLID)
 @RolesAllowed({"ADMIN", "OPERATOR"})
-public class CustomerListView extends VerticalLayout {
+public class CustomerListView extends VerticalLayout implements BeforeEnterObserver {
+
+    private static final int SEARCH_LIMIT = 200;
 
     private final CustomerService customerService;
     
@@ -59,6 +64,16 @@ public class CustomerListView extends VerticalLayout {
         updateGrid();
     }
 
+    /**
+     * Aplica el filtro recibido desde la búsqueda global ({@code ?q=})
+     */
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+        event.getLocation().getQueryParameters()
+                .getSingleParameter(GlobalSearchField.QUERY_PARAMETER)
+                .ifPresent(searchField::setValue);
+    }
+
     private Component createHeader() {
         H2 title = new H2("Gestión de Clientes");
         title.getStyle()
@@ -318,25 +333,15 @@ public class CustomerListView extends VerticalLayout {
         CustomerCategory category = categoryFilter.getValue();
         String searchTerm = searchField.getValue();
         
-        if (category != null) {
+        if (searchTerm != null && !searchTerm.isBlank()) {
+            // Búsqueda en BD con el índice FULLTEXT; la categoría va en la misma consulta
+            customers = customerService.search(searchTerm, category, SEARCH_LIMIT);
+        } else if (category != null) {
             customers = customerService.findByCategory(category);
         } else {
             customers = customerService.findAll();
         }
         
-        // Filtro de búsqueda local
-        if (searchTerm != null && !searchTerm.isBlank()) {
-            String lowerSearch = searchTerm.toLowerCase();
-            customers = customers.stream()
-                .filter(c -> 
-                    c.getFullName().toLowerCase().contains(lowerSearch) ||
-                    c.getDocumentNumber().toLowerCase().contains(lowerSearch) ||
-                    (c.getPhone() != null && c.getPhone().contains(searchTerm)) ||
-                    (c.getEmail() != null && c.getEmail().toLowerCase().contains(lowerSearch))
-                )
-                .toList();
-        }
-        
         grid.setItems(customers);
     }
 
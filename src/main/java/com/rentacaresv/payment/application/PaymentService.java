@@ -3,11 +3,13 @@ package com.rentacaresv.payment.application;
 import com.rentacaresv.payment.domain.Payment;
 import com.rentacaresv.payment.domain.PaymentMethod;
 import com.rentacaresv.payment.domain.PaymentStatus;
+import com.rentacaresv.payment.infrastructure.PaymentListRow;
 import com.rentacaresv.payment.infrastructure.PaymentMapper;
 import com.rentacaresv.payment.infrastructure.PaymentRepository;
 import com.rentacaresv.rental.domain.Rental;
 import com.rentacaresv.rental.infrastructure.RentalRepository;
 import com.rentacaresv.security.AuthenticatedUser;
+import com.rentacaresv.shared.infrastructure.RetryOnOptimisticLock;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,8 +39,10 @@ public class PaymentService {
     private final AuthenticatedUser authenticatedUser;
 
     /**
-     * Registra un nuevo pago
+     * Registra un nuevo pago.
+     * Si otro pago sobre la misma renta se confirmó primero, se reintenta con el saldo actualizado.
      */
+    @RetryOnOptimisticLock
     public PaymentDTO registerPayment(@Valid RegisterPaymentCommand command) {
         log.info("Registrando pago de ${} para renta {}", 
             command.getAmount(), command.getRentalId());
@@ -65,15 +69,20 @@ public class PaymentService {
             );
         }
 
-        // 4. Generar número de pago
+        // 4. Actualizar saldo de la renta antes de crear el pago. El UPDATE verifica la versión
+        // y bloquea la fila hasta el commit: los pagos simultáneos sobre la misma renta se
+        // serializan aquí (el que llegó tarde falla por versión y se reintenta con el saldo nuevo).
+        rental.registerPayment(command.getAmount());
+        rentalRepository.saveAndFlush(rental);
+
+        // 5. Generar número de pago
         String paymentNumber = generatePaymentNumber();
 
-        // 5. Obtener usuario actual
-        String currentUser = authenticatedUser.get()
-                .map(user -> user.getUsername())
+        // 6. Obtener usuario actual
+        String currentUser = authenticatedUser.getUsername()
                 .orElse("system");
 
-        // 6. Crear entidad de dominio
+        // 7. Crear entidad de dominio
         Payment payment = Payment.builder()
                 .paymentNumber(paymentNumber)
                 .rental(rental)
@@ -87,14 +96,10 @@ public class PaymentService {
                 .createdBy(currentUser)
                 .build();
 
-        // 7. Validar y persistir
+        // 8. Validar y persistir
         payment.validateAmount();
         payment = paymentRepository.save(payment);
 
-        // 8. Actualizar saldo de la renta
-        rental.registerPayment(command.getAmount());
-        rentalRepository.save(rental);
-
         log.info("Pago registrado exitosamente: {} - ${}", paymentNumber, command.getAmount());
         log.info("Nuevo saldo de renta {}: ${}", rental.getContractNumber(), rental.getBalance());
 
@@ -116,8 +121,8 @@ public class PaymentService {
      */
     @Transactional(readOnly = true)
     public List<PaymentDTO> findAll() {
-        List<Payment> payments = paymentRepository.findAllActive();
-        return paymentMapper.toDTOList(payments);
+        List<PaymentListRow> rows = paymentRepository.findAllActive();
+        return paymentMapper.toDTOListFromRows(rows);
     }
 
     /**
@@ -125,8 +130,8 @@ public class PaymentService {
      */
     @Transactional(readOnly = true)
     public List<PaymentDTO> findByRentalId(Long rentalId) {
-        List<Payment> payments = paymentRepository.findByRentalId(rentalId);
-        return paymentMapper.toDTOList(payments);
+        List<PaymentListRow> rows = paymentRepository.findByRentalId(rentalId);
+        return paymentMapper.toDTOListFromRows(rows);
     }
 
     /**
@@ -134,8 +139,8 @@ public class PaymentService {
      */
     @Transactional(readOnly = true)
     public List<PaymentDTO> findByStatus(PaymentStatus status) {
-        List<Payment> payments = paymentRepository.findByStatus(status);
-        return paymentMapper.toDTOList(payments);
+        List<PaymentListRow> rows = paymentRepository.findByStatus(status);
+        return paymentMapper.toDTOListFromRows(rows);
     }
 
     /**
@@ -143,8 +148,8 @@ public class PaymentService {
      */
     @Transactional(readOnly = true)
     public List<PaymentDTO> findByPaymentMethod(PaymentMethod method) {
-        List<Payment> payments = paymentRepository.findByPaymentMethod(method);
-        return paymentMapper.toDTOList(payments);
+        List<PaymentListRow> rows = paymentRepository.findByPaymentMethod(method);
+        return paymentMapper.toDTOListFromRows(rows);
     }
 
     /**
@@ -152,8 +157,8 @@ public class PaymentService {
      */
     @Transactional(readOnly = true)
     public List<PaymentDTO> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        List<Payment> payments = paymentRepository.findByDateRange(startDate, endDate);
-        return paymentMapper.toDTOList(payments);
+        List<PaymentListRow> rows = paymentRepository.findByDateRange(startDate, endDate);
+        return paymentMapper.toDTOListFromRows(rows);
     }
 
     /**
@@ -161,8 +166,8 @@ public class PaymentService {
      */
     @Transactional(readOnly = true)
     public List<PaymentDTO> findPendingPayments() {
-        List<Payment> payments = paymentRepository.findPendingPayments();
-        return paymentMapper.toDTOList(payments);
+        List<PaymentListRow> rows = paymentRepository.findPendingPayments();
+        return paymentMapper.toDTOListFromRows(rows);
     }
 
     /**
@@ -184,6 +189,7 @@ public class PaymentService {
     /**
      * Reembolsa un pago
      */
+    @RetryOnOptimisticLock
     public void refundPayment(Long paymentId) {
         log.info("Reembolsando pago {}", paymentId);
 
@@ -205,6 +211,7 @@ public class PaymentService {
     /**
      * Confirma un pago pendiente
      */
+    @RetryOnOptimisticLock
     public void confirmPayment(Long paymentId) {
         log.info("Confirmando pago {}", paymentId);
 
@@ -218,6 +225,7 @@ public class PaymentService {
     /**
      * Rechaza un pago pendiente
      */
+    @RetryOnOptimisticLock
     public void rejectPayment(Long paymentId, String reason) {
         log.info("Rechazando pago {}: {}", paymentId, reason);
 
@@ -239,6 +247,7 @@ public class PaymentService {
     /**
      * Elimina un pago (soft delete)
      */
+    @RetryOnOptimisticLock
     public void deletePayment(Long paymentId) {
         log.info("Eliminando pago {}", paymentId);
 
@@ -251,20 +260,11 @@ public class PaymentService {
 
     /**
      * Genera un número de pago único
-     * Formato: PAY-YYYYMMDD-XXXXX
+     * Formato: PAY-YYYYMMDD-XXXXX (XXXXX de la secuencia payment_number_seq, sin choques
+     * entre pagos simultáneos de distintas rentas ni entre nodos)
      */
     private String generatePaymentNumber() {
         String date = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String prefix = "PAY-" + date + "-";
-
-        int sequence = 1;
-        String paymentNumber;
-
-        do {
-            paymentNumber = prefix + String.format("%05d", sequence);
-            sequence++;
-        } while (paymentRepository.existsByPaymentNumber(paymentNumber));
-
-        return paymentNumber;
+        return "PAY-" + date + "-" + String.format("%05d", paymentRepository.nextPaymentNumberSequence());
     }
 }
@@ -90,6 +90,13 @@ public class Payment {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    /**
+     * Versión para bloqueo optimista (confirmar, rechazar o reembolsar una sola vez)
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // ========================================
     // Métodos de Negocio (Domain Logic)
     // ========================================
@@ -0,0 +1,27 @@
+package com.rentacaresv.payment.infrastructure;
+
+import com.rentacaresv.payment.domain.PaymentMethod;
+import com.rentacaresv.payment.domain.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de un pago para listados: las columnas que usa PaymentDTO, con el
+ * número de contrato de la renta obtenido por JOIN y sin entidades administradas
+ */
+public record PaymentListRow(
+        Long id,
+        String paymentNumber,
+        Long rentalId,
+        String rentalContractNumber,
+        BigDecimal amount,
+        PaymentMethod paymentMethod,
+        PaymentStatus status,
+        LocalDateTime paymentDate,
+        String referenceNumber,
+        String cardLastDigits,
+        String notes,
+        String createdBy,
+        LocalDateTime createdAt,
+        LocalDateTime deletedAt) {}
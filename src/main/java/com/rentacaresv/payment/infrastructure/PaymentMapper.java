@@ -2,6 +2,7 @@ package com.rentacaresv.payment.infrastructure;
 
 import com.rentacaresv.payment.application.PaymentDTO;
 import com.rentacaresv.payment.domain.Payment;
+import com.rentacaresv.rental.domain.Rental;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -43,6 +44,52 @@ public class PaymentMapper {
                 .build();
     }
 
+    /**
+     * Convierte una proyección de listado a DTO.
+     * Arma entidades transitorias (no administradas) solo con las columnas proyectadas
+     * para reutilizar los cálculos de dominio de {@link #toDTO(Payment)}.
+     */
+    public PaymentDTO toDTO(PaymentListRow row) {
+        if (row == null) {
+            return null;
+        }
+
+        Rental rental = Rental.builder()
+                .id(row.rentalId())
+                .contractNumber(row.rentalContractNumber())
+                .build();
+
+        Payment payment = Payment.builder()
+                .id(row.id())
+                .paymentNumber(row.paymentNumber())
+                .rental(rental)
+                .amount(row.amount())
+                .paymentMethod(row.paymentMethod())
+                .status(row.status())
+                .paymentDate(row.paymentDate())
+                .referenceNumber(row.referenceNumber())
+                .cardLastDigits(row.cardLastDigits())
+                .notes(row.notes())
+                .createdBy(row.createdBy())
+                .createdAt(row.createdAt())
+                .deletedAt(row.deletedAt())
+                .build();
+
+        return toDTO(payment);
+    }
+
+    /**
+     * Convierte una lista de proyecciones de listado a lista de DTO
+     */
+    public List<PaymentDTO> toDTOListFromRows(List<PaymentListRow> rows) {
+        if (rows == null) {
+            return List.of();
+        }
+        return rows.stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Convierte una lista de Payment a lista de DTO
      */
@@ -19,6 +19,15 @@ import java.util.Optional;
  */
 public interface PaymentRepository extends JpaRepository<Payment, Long>, JpaSpecificationExecutor<Payment> {
 
+    /**
+     * SELECT común de los listados: proyección {@link PaymentListRow} con JOIN a la renta
+     */
+    String LIST_ROW_SELECT =
+            "SELECT new com.rentacaresv.payment.infrastructure.PaymentListRow(" +
+            "p.id, p.paymentNumber, r.id, r.contractNumber, p.amount, p.paymentMethod, p.status, " +
+            "p.paymentDate, p.referenceNumber, p.cardLastDigits, p.notes, p.createdBy, p.createdAt, p.deletedAt) " +
+            "FROM Payment p JOIN p.rental r ";
+
     /**
      * Busca un pago por número de pago
      */
@@ -29,35 +38,41 @@ public interface PaymentRepository extends JpaRepository<Payment, Long>, JpaSpec
      */
     boolean existsByPaymentNumber(String paymentNumber);
 
+    /**
+     * Siguiente consecutivo para el número de pago (secuencia payment_number_seq, única entre nodos)
+     */
+    @Query(value = "SELECT NEXTVAL(payment_number_seq)", nativeQuery = true)
+    long nextPaymentNumberSequence();
+
     /**
      * Encuentra todos los pagos activos (no eliminados)
      */
-    @Query("SELECT p FROM Payment p WHERE p.deletedAt IS NULL ORDER BY p.paymentDate DESC")
-    List<Payment> findAllActive();
+    @Query(LIST_ROW_SELECT + "WHERE p.deletedAt IS NULL ORDER BY p.paymentDate DESC")
+    List<PaymentListRow> findAllActive();
 
     /**
      * Encuentra pagos por renta
      */
-    @Query("SELECT p FROM Payment p WHERE p.rental.id = :rentalId AND p.deletedAt IS NULL ORDER BY p.paymentDate DESC")
-    List<Payment> findByRentalId(@Param("rentalId") Long rentalId);
+    @Query(LIST_ROW_SELECT + "WHERE r.id = :rentalId AND p.deletedAt IS NULL ORDER BY p.paymentDate DESC")
+    List<PaymentListRow> findByRentalId(@Param("rentalId") Long rentalId);
 
     /**
      * Encuentra pagos por estado
      */
-    @Query("SELECT p FROM Payment p WHERE p.status = :status AND p.deletedAt IS NULL ORDER BY p.paymentDate DESC")
-    List<Payment> findByStatus(@Param("status") PaymentStatus status);
+    @Query(LIST_ROW_SELECT + "WHERE p.status = :status AND p.deletedAt IS NULL ORDER BY p.paymentDate DESC")
+    List<PaymentListRow> findByStatus(@Param("status") PaymentStatus status);
 
     /**
      * Encuentra pagos por método de pago
      */
-    @Query("SELECT p FROM Payment p WHERE p.paymentMethod = :method AND p.deletedAt IS NULL ORDER BY p.paymentDate DESC")
-    List<Payment> findByPaymentMethod(@Param("method") PaymentMethod method);
+    @Query(LIST_ROW_SELECT + "WHERE p.paymentMethod = :method AND p.deletedAt IS NULL ORDER BY p.paymentDate DESC")
+    List<PaymentListRow> findByPaymentMethod(@Param("method") PaymentMethod method);
 
     /**
      * Encuentra pagos en un rango de fechas
      */
-    @Query("SELECT p FROM Payment p WHERE p.paymentDate BETWEEN :startDate AND :endDate AND p.deletedAt IS NULL ORDER BY p.paymentDate DESC")
-    List<Payment> findByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query(LIST_ROW_SELECT + "WHERE p.paymentDate BETWEEN :startDate AND :endDate AND p.deletedAt IS NULL ORDER BY p.paymentDate DESC")
+    List<PaymentListRow> findByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
     /**
      * Calcula el total de pagos completados para una renta
@@ -68,8 +83,8 @@ public interface PaymentRepository extends JpaRepository<Payment, Long>, JpaSpec
     /**
      * Encuentra pagos pendientes
      */
-    @Query("SELECT p FROM Payment p WHERE p.status = 'PENDING' AND p.deletedAt IS NULL ORDER BY p.paymentDate ASC")
-    List<Payment> findPendingPayments();
+    @Query(LIST_ROW_SELECT + "WHERE p.status = 'PENDING' AND p.deletedAt IS NULL ORDER BY p.paymentDate ASC")
+    List<PaymentListRow> findPendingPayments();
 
     /**
      * Cuenta pagos por estado
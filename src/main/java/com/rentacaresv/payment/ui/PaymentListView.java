@@ -4,6 +4,7 @@ import com.rentacaresv.payment.application.PaymentDTO;
 import com.rentacaresv.payment.application.PaymentService;
 import com.rentacaresv.payment.domain.PaymentMethod;
 import com.rentacaresv.payment.domain.PaymentStatus;
+import com.rentacaresv.shared.ui.ConcurrentEditNotification;
 import com.rentacaresv.shared.util.FormatUtils;
 import com.rentacaresv.views.MainLayout;
 import com.vaadin.flow.component.Component;
@@ -26,6 +27,7 @@ import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import jakarta.annotation.security.RolesAllowed;
 import org.vaadin.lineawesome.LineAwesomeIconUrl;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -251,6 +253,9 @@ public class PaymentListView extends VerticalLayout {
             paymentService.refundPayment(payment.getId());
             updateGrid();
             showSuccessNotification("Pago reembolsado exitosamente");
+        } catch (OptimisticLockingFailureException e) {
+            ConcurrentEditNotification.show();
+            updateGrid();
         } catch (Exception e) {
             showErrorNotification("Error al reembolsar: " + e.getMessage());
         }
@@ -4,6 +4,7 @@ import com.rentacaresv.payment.application.PaymentService;
 import com.rentacaresv.payment.application.RegisterPaymentCommand;
 import com.rentacaresv.payment.domain.PaymentMethod;
 import com.rentacaresv.rental.application.RentalDTO;
+import com.rentacaresv.shared.ui.ConcurrentEditNotification;
 import com.rentacaresv.shared.util.FormatUtils;
 import com.vaadin.flow.component.ComponentEvent;
 import com.vaadin.flow.component.ComponentEventListener;
@@ -25,6 +26,7 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.binder.BeanValidationBinder;
 import com.vaadin.flow.data.binder.ValidationException;
 import com.vaadin.flow.shared.Registration;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 /**
@@ -190,6 +192,9 @@ public class RegisterPaymentDialog extends Dialog {
             close();
         } catch (ValidationException e) {
             showErrorNotification("Por favor corrige los errores en el formulario");
+        } catch (OptimisticLockingFailureException e) {
+            // Se agotaron los reintentos automáticos: otros pagos sobre la renta siguen entrando
+            ConcurrentEditNotification.show();
         } catch (Exception e) {
             showErrorNotification("Error al registrar pago: " + e.getMessage());
         }
@@ -127,7 +127,7 @@ public class PublicReservationService {
         // Cargo adicional por salida del país
         BigDecimal cargoSacarPais = BigDecimal.ZERO;
         if (dto.isSacarPais() && dto.getDiasFueraPais() > 0) {
-            BigDecimal tarifaSacarPais = settingsCache.getSettings().getTarifaSacarPais();
+            BigDecimal tarifaSacarPais = settingsCache.getTarifaSacarPais();
             if (tarifaSacarPais != null && tarifaSacarPais.compareTo(BigDecimal.ZERO) > 0) {
                 cargoSacarPais = tarifaSacarPais.multiply(BigDecimal.valueOf(dto.getDiasFueraPais()));
                 totalAmount = totalAmount.add(cargoSacarPais);
@@ -197,12 +197,16 @@ public class PublicReservationService {
 
         Map<RentalPhotoType, String> documentUrls = new EnumMap<>(RentalPhotoType.class);
         List<String> uploadedUrls = new ArrayList<>();
+        List<RentalPhoto> photos = new ArrayList<>(4);
 
         try {
-            saveDocument(rental, documentFront, RentalPhotoType.DOCUMENT_ID_FRONT, 0, documentUrls, uploadedUrls);
-            saveDocument(rental, documentBack, RentalPhotoType.DOCUMENT_ID_BACK, 1, documentUrls, uploadedUrls);
-            saveDocument(rental, licenseFront, RentalPhotoType.DOCUMENT_LICENSE_FRONT, 2, documentUrls, uploadedUrls);
-            saveDocument(rental, licenseBack, RentalPhotoType.DOCUMENT_LICENSE_BACK, 3, documentUrls, uploadedUrls);
+            uploadDocument(rental, documentFront, RentalPhotoType.DOCUMENT_ID_FRONT, 0, documentUrls, uploadedUrls, photos);
+            uploadDocument(rental, documentBack, RentalPhotoType.DOCUMENT_ID_BACK, 1, documentUrls, uploadedUrls, photos);
+            uploadDocument(rental, licenseFront, RentalPhotoType.DOCUMENT_LICENSE_FRONT, 2, documentUrls, uploadedUrls, photos);
+            uploadDocument(rental, licenseBack, RentalPhotoType.DOCUMENT_LICENSE_BACK, 3, documentUrls, uploadedUrls, photos);
+
+            // Las cuatro fotos se insertan juntas en un solo lote JDBC
+            rentalPhotoRepository.saveAll(photos);
             return documentUrls;
         } catch (Exception e) {
             cleanupUploadedFiles(uploadedUrls);
@@ -236,13 +240,17 @@ public class PublicReservationService {
         }
     }
 
-    private void saveDocument(
+    /**
+     * Sube un documento al almacenamiento y agrega su RentalPhoto (aún sin guardar) a {@code photos}
+     */
+    private void uploadDocument(
             Rental rental,
             MultipartFile file,
             RentalPhotoType type,
             int displayOrder,
             Map<RentalPhotoType, String> documentUrls,
-            List<String> uploadedUrls) {
+            List<String> uploadedUrls,
+            List<RentalPhoto> photos) {
         try {
             String fileName = Optional.ofNullable(file.getOriginalFilename())
                     .filter(name -> !name.isBlank())
@@ -266,7 +274,7 @@ public class PublicReservationService {
                     .displayOrder(displayOrder)
                     .build();
 
-            rentalPhotoRepository.save(photo);
+            photos.add(photo);
             documentUrls.put(type, url);
         } catch (Exception e) {
             log.error("Error guardando documento {} para reserva {}: {}",
@@ -376,7 +384,7 @@ public class PublicReservationService {
                 return;
             }
 
-            String companyName = settingsCache.getSettings().getCompanyName();
+            String companyName = settingsCache.getSnapshot().companyName();
             String vehicleDesc = rental.getVehicle().getFullDescription();
             String subject = "Confirmación de Reserva: " + vehicleDesc + " — " + rental.getContractNumber();
 
@@ -490,9 +498,9 @@ public class PublicReservationService {
                 return;
             }
 
-            String adminEmail = settingsCache.getSettings().getMailFrom();
+            String adminEmail = settingsCache.getSnapshot().mailFrom();
             if (adminEmail == null || adminEmail.isBlank()) {
-                adminEmail = settingsCache.getSettings().getMailUsername();
+                adminEmail = settingsCache.getSnapshot().mailUsername();
             }
             if (adminEmail == null || adminEmail.isBlank()) {
                 log.warn("No hay email de admin configurado para notificaciones");
@@ -62,6 +62,9 @@ public class RentalDTO {
     private String destinosFueraPais;
     private Integer diasFueraPais;
     private BigDecimal cargoSacarPais;
+
+    // Versión leída (bloqueo optimista): permite rechazar una edición hecha sobre datos viejos
+    private Long version;
     
     // Campos calculados
     private Integer actualDays;
@@ -1,22 +1,30 @@
 package com.rentacaresv.rental.application;
 
 import com.rentacaresv.calendar.application.GoogleCalendarService;
+import com.rentacaresv.calendar.domain.CalendarSyncOperation;
+import com.rentacaresv.calendar.infrastructure.CalendarSyncOutboxRepository;
 import com.rentacaresv.customer.domain.Customer;
 import com.rentacaresv.customer.infrastructure.CustomerRepository;
 import com.rentacaresv.rental.domain.Rental;
 import com.rentacaresv.rental.domain.RentalPriceCalculator;
 import com.rentacaresv.rental.domain.RentalStatus;
+import com.rentacaresv.rental.infrastructure.RentalCalendarRow;
+import com.rentacaresv.rental.infrastructure.RentalListRow;
 import com.rentacaresv.rental.infrastructure.RentalMapper;
 import com.rentacaresv.rental.infrastructure.RentalRepository;
 import com.rentacaresv.security.AuthenticatedUser;
 import com.rentacaresv.settings.application.SettingsCache;
+import com.rentacaresv.shared.infrastructure.RetryOnOptimisticLock;
+import com.rentacaresv.shared.util.FullTextQuery;
 import com.rentacaresv.vehicle.domain.Vehicle;
 import com.rentacaresv.vehicle.infrastructure.VehicleRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -25,6 +33,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * Servicio de aplicación para Rental
@@ -42,6 +53,7 @@ public class RentalService {
     private final CustomerRepository customerRepository;
     private final RentalMapper rentalMapper;
     private final GoogleCalendarService googleCalendarService;
+    private final CalendarSyncOutboxRepository calendarSyncOutboxRepository;
     private final AuthenticatedUser authenticatedUser;
     private final SettingsCache settingsCache;
 
@@ -99,7 +111,7 @@ public class RentalService {
         // 4.1 Cargo adicional por salida del país
         BigDecimal cargoSacarPais = BigDecimal.ZERO;
         if (command.isSacarPais() && command.getDiasFueraPais() != null && command.getDiasFueraPais() > 0) {
-            BigDecimal tarifaSacarPais = settingsCache.getSettings().getTarifaSacarPais();
+            BigDecimal tarifaSacarPais = settingsCache.getTarifaSacarPais();
             if (tarifaSacarPais != null && tarifaSacarPais.compareTo(BigDecimal.ZERO) > 0) {
                 cargoSacarPais = tarifaSacarPais.multiply(BigDecimal.valueOf(command.getDiasFueraPais()));
                 totalAmount = totalAmount.add(cargoSacarPais);
@@ -153,6 +165,11 @@ public class RentalService {
         Rental rental = rentalRepository.findById(command.getRentalId())
                 .orElseThrow(() -> new IllegalArgumentException("Renta no encontrada"));
 
+        // Otro usuario guardó la renta después de que se abrió el formulario
+        if (command.getVersion() != null && !command.getVersion().equals(rental.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Rental.class, rental.getId());
+        }
+
         if (!rental.canBeModified()) {
             throw new IllegalStateException(
                     "Solo se puede editar una renta en estado PENDING. Estado actual: " + rental.getStatus().getLabel());
@@ -186,7 +203,7 @@ public class RentalService {
         // Cargo por salida del país
         BigDecimal cargoSacarPais = BigDecimal.ZERO;
         if (command.isSacarPais() && command.getDiasFueraPais() != null && command.getDiasFueraPais() > 0) {
-            BigDecimal tarifaSacarPais = settingsCache.getSettings().getTarifaSacarPais();
+            BigDecimal tarifaSacarPais = settingsCache.getTarifaSacarPais();
             if (tarifaSacarPais != null && tarifaSacarPais.compareTo(BigDecimal.ZERO) > 0) {
                 cargoSacarPais = tarifaSacarPais.multiply(BigDecimal.valueOf(command.getDiasFueraPais()));
                 totalAmount = totalAmount.add(cargoSacarPais);
@@ -223,6 +240,7 @@ public class RentalService {
     /**
      * Entrega el vehículo al cliente (inicia la renta) - CON NOTAS
      */
+    @RetryOnOptimisticLock
     public void deliverRental(Long rentalId, String notes) {
         log.info("Entregando vehículo de la renta {}", rentalId);
 
@@ -257,6 +275,7 @@ public class RentalService {
     /**
      * Devuelve el vehículo (finaliza la renta) - CON NOTAS Y MANTENIMIENTO
      */
+    @RetryOnOptimisticLock
     public void returnRental(Long rentalId, String notes, boolean needsMaintenance) {
         log.info("Devolviendo vehículo de la renta {}", rentalId);
 
@@ -306,6 +325,7 @@ public class RentalService {
     /**
      * Cancela una renta
      */
+    @RetryOnOptimisticLock
     public void cancelRental(Long rentalId) {
         log.info("Cancelando renta {}", rentalId);
 
@@ -322,6 +342,7 @@ public class RentalService {
     /**
      * Registra un pago
      */
+    @RetryOnOptimisticLock
     public void registerPayment(@Valid RegisterPaymentCommand command) {
         log.info("Registrando pago de ${} para renta {}",
                 command.getAmount(), command.getRentalId());
@@ -366,8 +387,8 @@ public class RentalService {
      */
     @Transactional(readOnly = true)
     public List<RentalDTO> findAll() {
-        List<Rental> rentals = rentalRepository.findAllActive();
-        return rentalMapper.toDTOList(rentals);
+        List<RentalListRow> rows = rentalRepository.findAllActive();
+        return rentalMapper.toDTOListFromRows(rows);
     }
 
     /**
@@ -375,8 +396,8 @@ public class RentalService {
      */
     @Transactional(readOnly = true)
     public List<RentalDTO> findByStatus(RentalStatus status) {
-        List<Rental> rentals = rentalRepository.findByStatus(status);
-        return rentalMapper.toDTOList(rentals);
+        List<RentalListRow> rows = rentalRepository.findByStatus(status);
+        return rentalMapper.toDTOListFromRows(rows);
     }
 
     /**
@@ -384,8 +405,8 @@ public class RentalService {
      */
     @Transactional(readOnly = true)
     public List<RentalDTO> findActiveRentals() {
-        List<Rental> rentals = rentalRepository.findActiveRentals();
-        return rentalMapper.toDTOList(rentals);
+        List<RentalListRow> rows = rentalRepository.findActiveRentals();
+        return rentalMapper.toDTOListFromRows(rows);
     }
 
     /**
@@ -393,8 +414,8 @@ public class RentalService {
      */
     @Transactional(readOnly = true)
     public List<RentalDTO> findPendingRentals() {
-        List<Rental> rentals = rentalRepository.findPendingRentals();
-        return rentalMapper.toDTOList(rentals);
+        List<RentalListRow> rows = rentalRepository.findPendingRentals();
+        return rentalMapper.toDTOListFromRows(rows);
     }
 
     /**
@@ -402,8 +423,8 @@ public class RentalService {
      */
     @Transactional(readOnly = true)
     public List<RentalDTO> findByCustomerId(Long customerId) {
-        List<Rental> rentals = rentalRepository.findByCustomerId(customerId);
-        return rentalMapper.toDTOList(rentals);
+        List<RentalListRow> rows = rentalRepository.findByCustomerId(customerId);
+        return rentalMapper.toDTOListFromRows(rows);
     }
 
     /**
@@ -411,8 +432,8 @@ public class RentalService {
      */
     @Transactional(readOnly = true)
     public List<RentalDTO> findByVehicleId(Long vehicleId) {
-        List<Rental> rentals = rentalRepository.findByVehicleId(vehicleId);
-        return rentalMapper.toDTOList(rentals);
+        List<RentalListRow> rows = rentalRepository.findByVehicleId(vehicleId);
+        return rentalMapper.toDTOListFromRows(rows);
     }
 
     /**
@@ -420,8 +441,8 @@ public class RentalService {
      */
     @Transactional(readOnly = true)
     public List<RentalDTO> findWithPendingBalance() {
-        List<Rental> rentals = rentalRepository.findWithPendingBalance();
-        return rentalMapper.toDTOList(rentals);
+        List<RentalListRow> rows = rentalRepository.findWithPendingBalance();
+        return rentalMapper.toDTOListFromRows(rows);
     }
 
     /**
@@ -429,8 +450,8 @@ public class RentalService {
      */
     @Transactional(readOnly = true)
     public List<RentalDTO> findOverdueRentals() {
-        List<Rental> rentals = rentalRepository.findOverdueRentals(LocalDate.now());
-        return rentalMapper.toDTOList(rentals);
+        List<RentalListRow> rows = rentalRepository.findOverdueRentals(LocalDate.now());
+        return rentalMapper.toDTOListFromRows(rows);
     }
 
     /**
@@ -518,7 +539,7 @@ public class RentalService {
      */
     @Transactional(readOnly = true)
     public Page<RentalDTO> findAllPaged(Pageable pageable) {
-        Page<Rental> page = rentalRepository.findAllActivePaged(pageable);
+        Page<RentalListRow> page = rentalRepository.findAllActivePaged(pageable);
         return page.map(rentalMapper::toDTO);
     }
 
@@ -527,20 +548,20 @@ public class RentalService {
      */
     @Transactional(readOnly = true)
     public Page<RentalDTO> findByStatusPaged(RentalStatus status, Pageable pageable) {
-        Page<Rental> page = rentalRepository.findByStatusPaged(status, pageable);
+        Page<RentalListRow> page = rentalRepository.findByStatusPaged(status, pageable);
         return page.map(rentalMapper::toDTO);
     }
 
     /**
-     * Busca rentas paginadas por término de búsqueda
+     * Busca rentas paginadas por término de búsqueda (contrato, cliente o vehículo),
+     * ordenadas por relevancia
      */
     @Transactional(readOnly = true)
     public Page<RentalDTO> searchRentals(String searchTerm, Pageable pageable) {
         if (searchTerm == null || searchTerm.isBlank()) {
             return findAllPaged(pageable);
         }
-        Page<Rental> page = rentalRepository.searchRentals(searchTerm, pageable);
-        return page.map(rentalMapper::toDTO);
+        return searchRentalsFullText(searchTerm, null, pageable);
     }
 
     /**
@@ -551,8 +572,31 @@ public class RentalService {
         if (searchTerm == null || searchTerm.isBlank()) {
             return findByStatusPaged(status, pageable);
         }
-        Page<Rental> page = rentalRepository.searchRentalsByStatus(status, searchTerm, pageable);
-        return page.map(rentalMapper::toDTO);
+        return searchRentalsFullText(searchTerm, status, pageable);
+    }
+
+    /**
+     * Búsqueda FULLTEXT en dos pasos: página de ids por relevancia y luego sus filas de listado
+     */
+    private Page<RentalDTO> searchRentalsFullText(String searchTerm, RentalStatus status, Pageable pageable) {
+        String query = FullTextQuery.allPrefixes(searchTerm);
+        if (query == null) {
+            return Page.empty(pageable);
+        }
+
+        Page<Long> ids = rentalRepository.searchIds(query, status != null ? status.name() : null, pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+
+        Map<Long, RentalListRow> rowsById = rentalRepository.findListRowsByIds(ids.getContent()).stream()
+                .collect(Collectors.toMap(RentalListRow::id, row -> row));
+        List<RentalDTO> dtos = ids.getContent().stream()
+                .map(rowsById::get)
+                .filter(Objects::nonNull)
+                .map(rentalMapper::toDTO)
+                .toList();
+        return new PageImpl<>(dtos, pageable, ids.getTotalElements());
     }
 
     /**
@@ -564,14 +608,12 @@ public class RentalService {
     }
 
     /**
-     * Obtiene todas las rentas como eventos de calendario
-     * Mapea las rentas a eventos con colores según su estado
+     * Obtiene las rentas que se solapan con el rango como eventos de calendario
+     * Mapea las rentas a eventos con colores según su estado (una sola consulta con JOIN)
      */
     @Transactional(readOnly = true)
-    public List<com.rentacaresv.calendar.application.CalendarEventDTO> findAllAsCalendarEvents() {
-        List<Rental> rentals = rentalRepository.findAllActive();
-
-        return rentals.stream()
+    public List<com.rentacaresv.calendar.application.CalendarEventDTO> findCalendarEvents(LocalDate from, LocalDate to) {
+        return rentalRepository.findCalendarRows(from, to).stream()
                 .map(this::mapToCalendarEvent)
                 .toList();
     }
@@ -582,16 +624,16 @@ public class RentalService {
      */
     @Transactional(readOnly = true)
     public List<RentalDTO> findActiveRentalsByVehicleId(Long vehicleId) {
-        List<Rental> rentals = rentalRepository.findActiveRentalsByVehicleId(vehicleId);
-        return rentalMapper.toDTOList(rentals);
+        List<RentalListRow> rows = rentalRepository.findActiveRowsByVehicleId(vehicleId);
+        return rentalMapper.toDTOListFromRows(rows);
     }
 
     /**
      * Mapea una renta a un evento de calendario
      */
-    private com.rentacaresv.calendar.application.CalendarEventDTO mapToCalendarEvent(Rental rental) {
+    private com.rentacaresv.calendar.application.CalendarEventDTO mapToCalendarEvent(RentalCalendarRow row) {
         // Determinar color según estado
-        String color = switch (rental.getStatus()) {
+        String color = switch (row.status()) {
             case PENDING -> "#FFC107"; // Amarillo
             case ACTIVE -> "#4CAF50"; // Verde
             case COMPLETED -> "#2196F3"; // Azul
@@ -600,26 +642,26 @@ public class RentalService {
 
         // Construir título del evento
         String title = String.format("%s - %s %s",
-                rental.getCustomer().getFullName(),
-                rental.getVehicle().getBrand(),
-                rental.getVehicle().getModel());
+                row.customerName(),
+                row.vehicleBrand(),
+                row.vehicleModel());
 
         // Información del vehículo
         String vehicleInfo = String.format("%s %s (%s)",
-                rental.getVehicle().getBrand(),
-                rental.getVehicle().getModel(),
-                rental.getVehicle().getLicensePlate());
+                row.vehicleBrand(),
+                row.vehicleModel(),
+                row.licensePlate());
 
         return new com.rentacaresv.calendar.application.CalendarEventDTO(
-                rental.getId(),
+                row.id(),
                 title,
-                rental.getStartDate(),
-                rental.getEndDate(),
+                row.startDate(),
+                row.endDate(),
                 color,
-                rental.getStatus().name(),
-                rental.getCustomer().getFullName(),
+                row.status().name(),
+                row.customerName(),
                 vehicleInfo,
-                rental.getContractNumber());
+                row.contractNumber());
     }
 
     // ========================================
@@ -627,77 +669,36 @@ public class RentalService {
     // ========================================
 
     /**
-     * Sincroniza una renta con Google Calendar (creación)
+     * Registra la creación de una renta en el outbox de Google Calendar
      */
     private void syncRentalToGoogleCalendar(Rental rental) {
-        try {
-            authenticatedUser.get().ifPresent(user -> {
-                try {
-                    String eventId = googleCalendarService.createRentalEvent(rental, user);
-                    if (eventId != null) {
-                        rental.setGoogleCalendarEventId(eventId);
-                        rentalRepository.save(rental);
-                        log.info("✅ Renta {} sincronizada con Google Calendar: {}",
-                                rental.getContractNumber(), eventId);
-                    }
-                } catch (Exception e) {
-                    log.warn("⚠️ No se pudo sincronizar renta {} con Google Calendar: {}",
-                            rental.getContractNumber(), e.getMessage());
-                }
-            });
-        } catch (Exception e) {
-            log.warn("⚠️ Error al sincronizar con Google Calendar: {}", e.getMessage());
-        }
+        enqueueCalendarSync(rental, CalendarSyncOperation.UPSERT);
     }
 
     /**
-     * Actualiza un evento existente en Google Calendar
+     * Registra la actualización de una renta en el outbox de Google Calendar
+     * (si aún no tiene evento, el worker lo crea)
      */
     private void updateRentalInGoogleCalendar(Rental rental) {
-        if (rental.getGoogleCalendarEventId() == null) {
-            return; // No hay evento que actualizar
-        }
-
-        try {
-            authenticatedUser.get().ifPresent(user -> {
-                try {
-                    googleCalendarService.updateRentalEvent(
-                            rental.getGoogleCalendarEventId(), rental, user);
-                    log.info("✅ Evento de Google Calendar actualizado: {}",
-                            rental.getGoogleCalendarEventId());
-                } catch (Exception e) {
-                    log.warn("⚠️ No se pudo actualizar evento {} en Google Calendar: {}",
-                            rental.getGoogleCalendarEventId(), e.getMessage());
-                }
-            });
-        } catch (Exception e) {
-            log.warn("⚠️ Error al actualizar Google Calendar: {}", e.getMessage());
-        }
+        enqueueCalendarSync(rental, CalendarSyncOperation.UPSERT);
     }
 
     /**
-     * Elimina un evento de Google Calendar
+     * Registra la eliminación del evento de una renta en el outbox de Google Calendar
      */
     private void deleteRentalFromGoogleCalendar(Rental rental) {
-        if (rental.getGoogleCalendarEventId() == null) {
-            return; // No hay evento que eliminar
-        }
+        enqueueCalendarSync(rental, CalendarSyncOperation.DELETE);
+    }
 
-        try {
-            authenticatedUser.get().ifPresent(user -> {
-                try {
-                    googleCalendarService.deleteRentalEvent(
-                            rental.getGoogleCalendarEventId(), user);
-                    log.info("✅ Evento de Google Calendar eliminado: {}",
-                            rental.getGoogleCalendarEventId());
-                    rental.setGoogleCalendarEventId(null);
-                } catch (Exception e) {
-                    log.warn("⚠️ No se pudo eliminar evento {} de Google Calendar: {}",
-                            rental.getGoogleCalendarEventId(), e.getMessage());
-                }
-            });
-        } catch (Exception e) {
-            log.warn("⚠️ Error al eliminar de Google Calendar: {}", e.getMessage());
+    /**
+     * Escribe la operación en el outbox dentro de la transacción de la renta;
+     * CalendarSyncWorker la envía a Google después del commit.
+     */
+    private void enqueueCalendarSync(Rental rental, CalendarSyncOperation operation) {
+        if (!googleCalendarService.isConfigured()) {
+            return;
         }
+        authenticatedUser.getCurrentUser().ifPresent(user ->
+                calendarSyncOutboxRepository.enqueue(rental.getId(), operation, user.id()));
     }
 }
@@ -56,6 +56,9 @@ public class UpdateRentalCommand {
     @Min(value = 0)
     private Integer diasFueraPais;
 
+    /** Versión de la renta cuando se abrió el formulario (null = no verificar) */
+    private Long version;
+
     public void validate() {
         if (endDate != null && startDate != null) {
             if (!endDate.isAfter(startDate)) {
@@ -130,9 +130,11 @@ public class Rental {
     private String contactPhone;
 
     /**
-     * ID del evento en Google Calendar (si está sincronizado)
+     * ID del evento en Google Calendar (si está sincronizado).
+     * Solo lo escribe CalendarSyncWorker por SQL, para que guardar una renta cargada
+     * antes de la sincronización no borre el ID.
      */
-    @Column(name = "google_calendar_event_id", length = 255)
+    @Column(name = "google_calendar_event_id", length = 255, insertable = false, updatable = false)
     private String googleCalendarEventId;
 
     // ========================================
@@ -178,6 +180,14 @@ public class Rental {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    /**
+     * Versión para bloqueo optimista: dos usuarios que registran pagos o cambian el
+     * estado de la misma renta a la vez no pueden pisarse los cambios.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // ========================================
     // Métodos de Negocio (Domain Logic)
     // ========================================
@@ -21,8 +21,12 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class RentalPhoto {
 
+    /**
+     * Id por secuencia (no IDENTITY) para que los INSERT se puedan enviar en lote
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rental_photo_seq")
+    @SequenceGenerator(name = "rental_photo_seq", sequenceName = "rental_photo_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
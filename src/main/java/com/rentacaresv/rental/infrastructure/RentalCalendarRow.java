@@ -0,0 +1,20 @@
+package com.rentacaresv.rental.infrastructure;
+
+import com.rentacaresv.rental.domain.RentalStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección de una renta para el calendario: solo las columnas que se muestran,
+ * obtenidas con un JOIN a cliente y vehículo (sin cargar entidades)
+ */
+public record RentalCalendarRow(
+        Long id,
+        String contractNumber,
+        LocalDate startDate,
+        LocalDate endDate,
+        RentalStatus status,
+        String customerName,
+        String vehicleBrand,
+        String vehicleModel,
+        String licensePlate) {}
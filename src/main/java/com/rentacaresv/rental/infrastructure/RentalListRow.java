@@ -0,0 +1,53 @@
+package com.rentacaresv.rental.infrastructure;
+
+import com.rentacaresv.customer.domain.CustomerCategory;
+import com.rentacaresv.rental.domain.RentalStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de una renta para listados: exactamente las columnas que usa RentalDTO,
+ * incluidas las de vehículo y cliente, en una sola consulta con JOIN y sin entidades
+ * administradas en el contexto de persistencia
+ */
+public record RentalListRow(
+        Long id,
+        String contractNumber,
+        // Vehículo
+        Long vehicleId,
+        String vehicleLicensePlate,
+        String vehicleBrand,
+        String vehicleModel,
+        Integer vehicleYear,
+        // Cliente
+        Long customerId,
+        String customerName,
+        String customerDocument,
+        CustomerCategory customerCategory,
+        // Fechas
+        LocalDate startDate,
+        LocalDate endDate,
+        LocalDateTime actualDeliveryDate,
+        LocalDateTime actualReturnDate,
+        // Montos
+        BigDecimal dailyRate,
+        Integer totalDays,
+        BigDecimal totalAmount,
+        BigDecimal amountPaid,
+        // Estado
+        RentalStatus status,
+        String notes,
+        // Información de viaje
+        String flightNumber,
+        String travelItinerary,
+        String accommodation,
+        String contactPhone,
+        // Salida del país
+        Boolean sacarPais,
+        String destinosFueraPais,
+        Integer diasFueraPais,
+        BigDecimal cargoSacarPais,
+        // Bloqueo optimista
+        Long version) {}
@@ -1,7 +1,9 @@
 package com.rentacaresv.rental.infrastructure;
 
+import com.rentacaresv.customer.domain.Customer;
 import com.rentacaresv.rental.application.RentalDTO;
 import com.rentacaresv.rental.domain.Rental;
+import com.rentacaresv.vehicle.domain.Vehicle;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -59,6 +61,7 @@ public class RentalMapper {
                 .destinosFueraPais(rental.getDestinosFueraPais())
                 .diasFueraPais(rental.getDiasFueraPais())
                 .cargoSacarPais(rental.getCargoSacarPais())
+                .version(rental.getVersion())
                 // Campos calculados
                 .actualDays(rental.getActualDays())
                 .isDelayed(rental.isDelayed())
@@ -71,6 +74,72 @@ public class RentalMapper {
                 .build();
     }
 
+    /**
+     * Convierte una proyección de listado a DTO.
+     * Arma entidades transitorias (no administradas) solo con las columnas proyectadas
+     * para reutilizar los cálculos de dominio de {@link #toDTO(Rental)}.
+     */
+    public RentalDTO toDTO(RentalListRow row) {
+        if (row == null) {
+            return null;
+        }
+
+        Vehicle vehicle = Vehicle.builder()
+                .id(row.vehicleId())
+                .licensePlate(row.vehicleLicensePlate())
+                .brand(row.vehicleBrand())
+                .model(row.vehicleModel())
+                .year(row.vehicleYear())
+                .build();
+
+        Customer customer = Customer.builder()
+                .id(row.customerId())
+                .fullName(row.customerName())
+                .documentNumber(row.customerDocument())
+                .category(row.customerCategory())
+                .build();
+
+        Rental rental = Rental.builder()
+                .id(row.id())
+                .contractNumber(row.contractNumber())
+                .vehicle(vehicle)
+                .customer(customer)
+                .startDate(row.startDate())
+                .endDate(row.endDate())
+                .actualDeliveryDate(row.actualDeliveryDate())
+                .actualReturnDate(row.actualReturnDate())
+                .dailyRate(row.dailyRate())
+                .totalDays(row.totalDays())
+                .totalAmount(row.totalAmount())
+                .amountPaid(row.amountPaid())
+                .status(row.status())
+                .notes(row.notes())
+                .flightNumber(row.flightNumber())
+                .travelItinerary(row.travelItinerary())
+                .accommodation(row.accommodation())
+                .contactPhone(row.contactPhone())
+                .sacarPais(row.sacarPais())
+                .destinosFueraPais(row.destinosFueraPais())
+                .diasFueraPais(row.diasFueraPais())
+                .cargoSacarPais(row.cargoSacarPais())
+                .version(row.version())
+                .build();
+
+        return toDTO(rental);
+    }
+
+    /**
+     * Convierte una lista de proyecciones de listado a lista de DTO
+     */
+    public List<RentalDTO> toDTOListFromRows(List<RentalListRow> rows) {
+        if (rows == null) {
+            return List.of();
+        }
+        return rows.stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Convierte una lista de Rental a lista de DTO
      */
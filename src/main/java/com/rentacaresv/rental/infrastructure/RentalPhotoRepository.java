@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -26,6 +27,12 @@ public interface RentalPhotoRepository extends JpaRepository<RentalPhoto, Long>
     @Query("SELECT rp FROM RentalPhoto rp WHERE rp.rental.id = :rentalId AND rp.photoType = :photoType AND rp.deletedAt IS NULL ORDER BY rp.displayOrder ASC")
     List<RentalPhoto> findByRentalIdAndPhotoType(@Param("rentalId") Long rentalId, @Param("photoType") RentalPhotoType photoType);
 
+    /**
+     * Encuentra las fotos no eliminadas de los tipos indicados (todas las rentas)
+     */
+    @Query("SELECT rp FROM RentalPhoto rp WHERE rp.photoType IN :photoTypes AND rp.deletedAt IS NULL")
+    List<RentalPhoto> findActiveByPhotoTypes(@Param("photoTypes") Collection<RentalPhotoType> photoTypes);
+
     /**
      * Encuentra fotos de entrega
      */
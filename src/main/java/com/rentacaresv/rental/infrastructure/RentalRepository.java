@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +20,22 @@ import java.util.Optional;
  */
 public interface RentalRepository extends JpaRepository<Rental, Long>, JpaSpecificationExecutor<Rental> {
 
+    /**
+     * SELECT común de los listados: proyección {@link RentalListRow} con JOIN a vehículo y cliente
+     */
+    String LIST_ROW_SELECT =
+            "SELECT new com.rentacaresv.rental.infrastructure.RentalListRow(" +
+            "r.id, r.contractNumber, " +
+            "v.id, v.licensePlate, v.brand, v.model, v.year, " +
+            "c.id, c.fullName, c.documentNumber, c.category, " +
+            "r.startDate, r.endDate, r.actualDeliveryDate, r.actualReturnDate, " +
+            "r.dailyRate, r.totalDays, r.totalAmount, r.amountPaid, " +
+            "r.status, r.notes, " +
+            "r.flightNumber, r.travelItinerary, r.accommodation, r.contactPhone, " +
+            "r.sacarPais, r.destinosFueraPais, r.diasFueraPais, r.cargoSacarPais, " +
+            "r.version) " +
+            "FROM Rental r JOIN r.vehicle v JOIN r.customer c ";
+
     /**
      * Busca una renta por número de contrato
      */
@@ -32,44 +49,55 @@ public interface RentalRepository extends JpaRepository<Rental, Long>, JpaSpecif
     /**
      * Encuentra todas las rentas activas (no eliminadas)
      */
-    @Query("SELECT r FROM Rental r WHERE r.deletedAt IS NULL ORDER BY r.createdAt DESC")
-    List<Rental> findAllActive();
+    @Query(LIST_ROW_SELECT + "WHERE r.deletedAt IS NULL ORDER BY r.createdAt DESC")
+    List<RentalListRow> findAllActive();
+
+    /**
+     * Rentas (no eliminadas) que se solapan con el rango, proyectadas para el calendario
+     */
+    @Query("SELECT new com.rentacaresv.rental.infrastructure.RentalCalendarRow(" +
+           "r.id, r.contractNumber, r.startDate, r.endDate, r.status, " +
+           "c.fullName, v.brand, v.model, v.licensePlate) " +
+           "FROM Rental r JOIN r.customer c JOIN r.vehicle v " +
+           "WHERE r.deletedAt IS NULL AND r.startDate <= :to AND r.endDate >= :from " +
+           "ORDER BY r.startDate, r.id")
+    List<RentalCalendarRow> findCalendarRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
 
     /**
      * Encuentra rentas por estado
      */
-    @Query("SELECT r FROM Rental r WHERE r.status = :status AND r.deletedAt IS NULL ORDER BY r.createdAt DESC")
-    List<Rental> findByStatus(@Param("status") RentalStatus status);
+    @Query(LIST_ROW_SELECT + "WHERE r.status = :status AND r.deletedAt IS NULL ORDER BY r.createdAt DESC")
+    List<RentalListRow> findByStatus(@Param("status") RentalStatus status);
 
     /**
      * Encuentra rentas activas (estado ACTIVE)
      */
-    @Query("SELECT r FROM Rental r WHERE r.status = 'ACTIVE' AND r.deletedAt IS NULL")
-    List<Rental> findActiveRentals();
+    @Query(LIST_ROW_SELECT + "WHERE r.status = 'ACTIVE' AND r.deletedAt IS NULL")
+    List<RentalListRow> findActiveRentals();
 
     /**
      * Encuentra rentas pendientes (estado PENDING)
      */
-    @Query("SELECT r FROM Rental r WHERE r.status = 'PENDING' AND r.deletedAt IS NULL")
-    List<Rental> findPendingRentals();
+    @Query(LIST_ROW_SELECT + "WHERE r.status = 'PENDING' AND r.deletedAt IS NULL")
+    List<RentalListRow> findPendingRentals();
 
     /**
      * Encuentra rentas por cliente
      */
-    @Query("SELECT r FROM Rental r WHERE r.customer.id = :customerId AND r.deletedAt IS NULL ORDER BY r.createdAt DESC")
-    List<Rental> findByCustomerId(@Param("customerId") Long customerId);
+    @Query(LIST_ROW_SELECT + "WHERE c.id = :customerId AND r.deletedAt IS NULL ORDER BY r.createdAt DESC")
+    List<RentalListRow> findByCustomerId(@Param("customerId") Long customerId);
 
     /**
      * Encuentra rentas por vehículo
      */
-    @Query("SELECT r FROM Rental r WHERE r.vehicle.id = :vehicleId AND r.deletedAt IS NULL ORDER BY r.createdAt DESC")
-    List<Rental> findByVehicleId(@Param("vehicleId") Long vehicleId);
+    @Query(LIST_ROW_SELECT + "WHERE v.id = :vehicleId AND r.deletedAt IS NULL ORDER BY r.createdAt DESC")
+    List<RentalListRow> findByVehicleId(@Param("vehicleId") Long vehicleId);
 
     /**
      * Encuentra rentas con saldo pendiente
      */
-    @Query("SELECT r FROM Rental r WHERE r.amountPaid < r.totalAmount AND r.deletedAt IS NULL")
-    List<Rental> findWithPendingBalance();
+    @Query(LIST_ROW_SELECT + "WHERE r.amountPaid < r.totalAmount AND r.deletedAt IS NULL")
+    List<RentalListRow> findWithPendingBalance();
 
     /**
      * Encuentra rentas por rango de fechas
@@ -98,8 +126,8 @@ public interface RentalRepository extends JpaRepository<Rental, Long>, JpaSpecif
     /**
      * Encuentra rentas que deberían haber sido devueltas (end_date pasado y status ACTIVE)
      */
-    @Query("SELECT r FROM Rental r WHERE r.status = 'ACTIVE' AND r.endDate < :currentDate AND r.deletedAt IS NULL")
-    List<Rental> findOverdueRentals(@Param("currentDate") LocalDate currentDate);
+    @Query(LIST_ROW_SELECT + "WHERE r.status = 'ACTIVE' AND r.endDate < :currentDate AND r.deletedAt IS NULL")
+    List<RentalListRow> findOverdueRentals(@Param("currentDate") LocalDate currentDate);
 
     // ========================================
     // Métodos con Paginación (para Lazy Loading)
@@ -108,39 +136,53 @@ public interface RentalRepository extends JpaRepository<Rental, Long>, JpaSpecif
     /**
      * Encuentra todas las rentas activas con paginación
      */
-    @Query("SELECT r FROM Rental r WHERE r.deletedAt IS NULL ORDER BY r.createdAt DESC")
-    Page<Rental> findAllActivePaged(Pageable pageable);
+    @Query(value = LIST_ROW_SELECT + "WHERE r.deletedAt IS NULL ORDER BY r.createdAt DESC",
+           countQuery = "SELECT COUNT(r) FROM Rental r WHERE r.deletedAt IS NULL")
+    Page<RentalListRow> findAllActivePaged(Pageable pageable);
 
     /**
      * Encuentra rentas por estado con paginación
      */
-    @Query("SELECT r FROM Rental r WHERE r.status = :status AND r.deletedAt IS NULL ORDER BY r.createdAt DESC")
-    Page<Rental> findByStatusPaged(@Param("status") RentalStatus status, Pageable pageable);
+    @Query(value = LIST_ROW_SELECT + "WHERE r.status = :status AND r.deletedAt IS NULL ORDER BY r.createdAt DESC",
+           countQuery = "SELECT COUNT(r) FROM Rental r WHERE r.status = :status AND r.deletedAt IS NULL")
+    Page<RentalListRow> findByStatusPaged(@Param("status") RentalStatus status, Pageable pageable);
 
     /**
-     * Busca rentas por término de búsqueda (contrato, cliente, vehículo) con paginación
+     * Coincidencias FULLTEXT por número de contrato, cliente (nombre, documento, email, teléfono)
+     * o vehículo (placa, marca, modelo). Cada rama usa su índice FULLTEXT y llega a la renta por
+     * la FK; una renta puede aparecer en varias ramas y su relevancia es la suma.
+     * :query es una expresión en modo booleano (ver FullTextQuery).
      */
-    @Query("SELECT r FROM Rental r " +
-           "WHERE r.deletedAt IS NULL " +
-           "AND (LOWER(r.contractNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR LOWER(r.customer.fullName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR LOWER(r.vehicle.licensePlate) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
-           "ORDER BY r.createdAt DESC")
-    Page<Rental> searchRentals(@Param("searchTerm") String searchTerm, Pageable pageable);
+    String FULLTEXT_MATCHES =
+            "SELECT id, MATCH(contract_number) AGAINST (:query IN BOOLEAN MODE) * 3 AS score " +
+            "FROM rental WHERE MATCH(contract_number) AGAINST (:query IN BOOLEAN MODE) " +
+            "UNION ALL " +
+            "SELECT r.id, MATCH(c.full_name, c.document_number, c.email, c.phone) AGAINST (:query IN BOOLEAN MODE) * 2 " +
+            "FROM customer c JOIN rental r ON r.customer_id = c.id " +
+            "WHERE MATCH(c.full_name, c.document_number, c.email, c.phone) AGAINST (:query IN BOOLEAN MODE) " +
+            "UNION ALL " +
+            "SELECT r.id, MATCH(v.license_plate, v.brand, v.model) AGAINST (:query IN BOOLEAN MODE) " +
+            "FROM vehicle v JOIN rental r ON r.vehicle_id = v.id " +
+            "WHERE MATCH(v.license_plate, v.brand, v.model) AGAINST (:query IN BOOLEAN MODE)";
 
     /**
-     * Busca rentas por estado y término de búsqueda con paginación
+     * Busca ids de rentas con FULLTEXT (contrato, cliente, vehículo), opcionalmente por estado,
+     * ordenados por relevancia y luego por fecha de creación
      */
-    @Query("SELECT r FROM Rental r " +
-           "WHERE r.status = :status " +
-           "AND r.deletedAt IS NULL " +
-           "AND (LOWER(r.contractNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR LOWER(r.customer.fullName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR LOWER(r.vehicle.licensePlate) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
-           "ORDER BY r.createdAt DESC")
-    Page<Rental> searchRentalsByStatus(@Param("status") RentalStatus status, 
-                                        @Param("searchTerm") String searchTerm, 
-                                        Pageable pageable);
+    @Query(value = "SELECT r.id FROM rental r JOIN (" + FULLTEXT_MATCHES + ") m ON m.id = r.id " +
+                   "WHERE r.deleted_at IS NULL AND (:status IS NULL OR r.status = :status) " +
+                   "GROUP BY r.id " +
+                   "ORDER BY SUM(m.score) DESC, MAX(r.created_at) DESC",
+           countQuery = "SELECT COUNT(DISTINCT r.id) FROM rental r JOIN (" + FULLTEXT_MATCHES + ") m ON m.id = r.id " +
+                        "WHERE r.deleted_at IS NULL AND (:status IS NULL OR r.status = :status)",
+           nativeQuery = true)
+    Page<Long> searchIds(@Param("query") String query, @Param("status") String status, Pageable pageable);
+
+    /**
+     * Filas de listado de las rentas indicadas (sin orden garantizado)
+     */
+    @Query(LIST_ROW_SELECT + "WHERE r.id IN :ids")
+    List<RentalListRow> findListRowsByIds(@Param("ids") Collection<Long> ids);
 
     /**
      * Cuenta total de rentas activas (para paginación)
@@ -208,4 +250,14 @@ public interface RentalRepository extends JpaRepository<Rental, Long>, JpaSpecif
            "AND r.deletedAt IS NULL " +
            "ORDER BY r.startDate ASC")
     List<Rental> findActiveRentalsByVehicleId(@Param("vehicleId") Long vehicleId);
+
+    /**
+     * Rentas activas o pendientes de un vehículo, proyectadas para listados
+     */
+    @Query(LIST_ROW_SELECT +
+           "WHERE v.id = :vehicleId " +
+           "AND r.status IN ('PENDING', 'ACTIVE') " +
+           "AND r.deletedAt IS NULL " +
+           "ORDER BY r.startDate ASC")
+    List<RentalListRow> findActiveRowsByVehicleId(@Param("vehicleId") Long vehicleId);
 }
@@ -81,7 +81,7 @@ public class PublicReservationController {
      */
     @GetMapping("/config")
     public ResponseEntity<Map<String, Object>> getPublicConfig() {
-        BigDecimal tarifa = settingsCache.getSettings().getTarifaSacarPais();
+        BigDecimal tarifa = settingsCache.getTarifaSacarPais();
         return ResponseEntity.ok(Map.of(
                 "tarifaSacarPais", tarifa != null ? tarifa : BigDecimal.ZERO
         ));
@@ -2,6 +2,7 @@ package com.rentacaresv.rental.ui;
 
 import com.rentacaresv.rental.application.RentalDTO;
 import com.rentacaresv.rental.application.RentalService;
+import com.rentacaresv.shared.ui.ConcurrentEditNotification;
 import com.vaadin.flow.component.ComponentEvent;
 import com.vaadin.flow.component.ComponentEventListener;
 import com.vaadin.flow.component.button.Button;
@@ -21,6 +22,7 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.shared.Registration;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 /**
  * Diálogo para entregar vehículo al cliente.
@@ -165,6 +167,8 @@ public class DeliveryDialog extends Dialog {
             fireEvent(new DeliveryConfirmedEvent(this));
             showSuccessNotification("Vehículo entregado exitosamente");
             close();
+        } catch (OptimisticLockingFailureException e) {
+            ConcurrentEditNotification.show();
         } catch (Exception e) {
             log.error("Error al entregar vehículo: {}", e.getMessage(), e);
             showErrorNotification("Error al entregar vehículo: " + e.getMessage());
@@ -5,6 +5,7 @@ import com.rentacaresv.customer.application.CustomerService;
 import com.rentacaresv.rental.application.RentalDTO;
 import com.rentacaresv.rental.application.RentalService;
 import com.rentacaresv.rental.application.UpdateRentalCommand;
+import com.rentacaresv.shared.ui.ConcurrentEditNotification;
 import com.rentacaresv.shared.ui.DateRange;
 import com.rentacaresv.shared.ui.ModernDateRangePicker;
 import com.rentacaresv.shared.util.FormatUtils;
@@ -32,6 +33,7 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.binder.BeanValidationBinder;
 import com.vaadin.flow.data.binder.ValidationException;
 import com.vaadin.flow.shared.Registration;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.time.temporal.ChronoUnit;
@@ -121,6 +123,7 @@ public class RentalEditDialog extends Dialog {
                 .sacarPais(Boolean.TRUE.equals(r.getSacarPais()))
                 .destinosFueraPais(r.getDestinosFueraPais())
                 .diasFueraPais(r.getDiasFueraPais())
+                .version(r.getVersion())
                 .build();
     }
 
@@ -421,6 +424,10 @@ public class RentalEditDialog extends Dialog {
             close();
         } catch (ValidationException e) {
             showError("Por favor corrige los errores en el formulario");
+        } catch (OptimisticLockingFailureException e) {
+            // La renta cambió desde que se abrió el formulario: al reabrirlo se cargan los datos actuales
+            ConcurrentEditNotification.show();
+            close();
         } catch (Exception e) {
             showError("Error al guardar: " + e.getMessage());
         }
@@ -13,9 +13,11 @@ import com.rentacaresv.security.AuthenticatedUser;
 import com.rentacaresv.security.Role;
 import com.rentacaresv.settings.application.SettingsCache;
 import com.rentacaresv.shared.storage.StorageInitializer;
+import com.rentacaresv.shared.ui.ConcurrentEditNotification;
 import com.rentacaresv.shared.util.FormatUtils;
 import com.rentacaresv.vehicle.application.VehiclePhotoService;
 import com.rentacaresv.vehicle.application.VehicleService;
+import com.rentacaresv.search.ui.GlobalSearchField;
 import com.rentacaresv.views.MainLayout;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.button.Button;
@@ -34,11 +36,14 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.provider.DataProvider;
 import com.vaadin.flow.data.provider.ListDataProvider;
 import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.router.BeforeEnterEvent;
+import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.Menu;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import jakarta.annotation.security.PermitAll;
 import org.vaadin.lineawesome.LineAwesomeIconUrl;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -51,7 +56,7 @@ import java.util.List;
 @PageTitle("Gestión de Rentas")
 @Menu(order = 3, icon = LineAwesomeIconUrl.FILE_CONTRACT_SOLID)
 @PermitAll
-public class RentalListView extends VerticalLayout {
+public class RentalListView extends VerticalLayout implements BeforeEnterObserver {
 
     private final RentalService rentalService;
     private final VehicleService vehicleService;
@@ -103,10 +108,11 @@ public class RentalListView extends VerticalLayout {
         this.authenticatedUser = authenticatedUser;
 
         // Calcular flags de permisos una sola vez
-        boolean agent = authenticatedUser.get()
+        var currentUser = authenticatedUser.getCurrentUser();
+        boolean agent = currentUser
                 .map(u -> u.hasRole(Role.AGENT) && !u.isAdmin())
                 .orElse(false);
-        boolean admin = authenticatedUser.get().map(u -> u.isAdmin()).orElse(false);
+        boolean admin = currentUser.map(u -> u.isAdmin()).orElse(false);
         this.isAgent   = agent;
         this.canCreate = !agent;
         this.canEdit   = !agent;
@@ -123,6 +129,16 @@ public class RentalListView extends VerticalLayout {
         loadData();
     }
 
+    /**
+     * Aplica el filtro recibido desde la búsqueda global ({@code ?q=})
+     */
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+        event.getLocation().getQueryParameters()
+                .getSingleParameter(GlobalSearchField.QUERY_PARAMETER)
+                .ifPresent(searchField::setValue);
+    }
+
     private Component createHeader() {
         H2 title = new H2("Gestión de Rentas");
         title.getStyle()
@@ -441,7 +457,7 @@ public class RentalListView extends VerticalLayout {
     }
 
     private void openRentalDialog() {
-        java.math.BigDecimal tarifaSacarPais = settingsCache.getSettings().getTarifaSacarPais();
+        java.math.BigDecimal tarifaSacarPais = settingsCache.getTarifaSacarPais();
         RentalFormDialog dialog = new RentalFormDialog(
                 rentalService, vehicleService, customerService, vehiclePhotoService, tarifaSacarPais);
         dialog.addSaveListener(e -> {
@@ -452,8 +468,10 @@ public class RentalListView extends VerticalLayout {
     }
 
     private void openEditDialog(RentalDTO rental) {
-        java.math.BigDecimal tarifaSacarPais = settingsCache.getSettings().getTarifaSacarPais();
-        RentalEditDialog dialog = new RentalEditDialog(rentalService, customerService, tarifaSacarPais, rental);
+        java.math.BigDecimal tarifaSacarPais = settingsCache.getTarifaSacarPais();
+        // Datos (y versión) actuales, no los de la fila del grid que puede llevar rato en pantalla
+        RentalDTO current = rentalService.findById(rental.getId());
+        RentalEditDialog dialog = new RentalEditDialog(rentalService, customerService, tarifaSacarPais, current);
         dialog.addSaveListener(e -> {
             refreshData();
             showSuccessNotification("Renta actualizada exitosamente");
@@ -518,6 +536,9 @@ public class RentalListView extends VerticalLayout {
                 rentalService.cancelRental(rental.getId());
                 refreshData();
                 showSuccessNotification("Renta cancelada exitosamente");
+            } catch (OptimisticLockingFailureException e) {
+                ConcurrentEditNotification.show();
+                refreshData();
             } catch (Exception e) {
                 showErrorNotification("Error: " + e.getMessage());
             }
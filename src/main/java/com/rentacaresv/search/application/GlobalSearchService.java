@@ -0,0 +1,68 @@
+package com.rentacaresv.search.application;
+
+import com.rentacaresv.search.domain.SearchHit;
+import com.rentacaresv.search.infrastructure.GlobalSearchRepository;
+import com.rentacaresv.shared.util.FullTextQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Búsqueda global de rentas, clientes y vehículos.
+ *
+ * {@link #quickSearch} responde cada tecla desde el índice en memoria ({@link QuickSearchIndex}).
+ * {@link #search} usa los índices FULLTEXT de la BD: cada tipo de entidad se consulta con su
+ * propio índice y los resultados se combinan por relevancia. Las relevancias de tablas distintas
+ * no son estrictamente comparables, pero sirven para intercalar: una coincidencia exacta de
+ * placa o contrato sube al inicio.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GlobalSearchService {
+
+    private final GlobalSearchRepository searchRepository;
+    private final QuickSearchIndex quickSearchIndex;
+
+    /**
+     * Búsqueda por prefijos para escribir y ver resultados al instante, sin consultar la BD.
+     * Mientras el índice en memoria no termina su primera carga, usa FULLTEXT.
+     *
+     * @param limit máximo de resultados en total
+     */
+    public List<SearchHit> quickSearch(String searchTerm, int limit) {
+        if (quickSearchIndex.isReady()) {
+            return quickSearchIndex.search(searchTerm, limit);
+        }
+        return search(searchTerm, limit).stream().limit(limit).toList();
+    }
+
+    /**
+     * Busca en todas las entidades
+     *
+     * @param searchTerm   texto escrito por el usuario
+     * @param limitPerType máximo de resultados por tipo de entidad
+     * @return resultados ordenados por relevancia (vacío si el texto no tiene palabras)
+     */
+    public List<SearchHit> search(String searchTerm, int limitPerType) {
+        String query = FullTextQuery.allPrefixes(searchTerm);
+        if (query == null) {
+            return List.of();
+        }
+
+        List<SearchHit> hits = new ArrayList<>();
+        hits.addAll(searchRepository.searchRentals(query, limitPerType));
+        hits.addAll(searchRepository.searchCustomers(query, limitPerType));
+        hits.addAll(searchRepository.searchVehicles(query, limitPerType));
+        hits.sort(Comparator.comparingDouble(SearchHit::score).reversed()
+                .thenComparing(SearchHit::type)
+                .thenComparing(SearchHit::title));
+
+        log.debug("Búsqueda global '{}': {} resultados", searchTerm, hits.size());
+        return hits;
+    }
+}
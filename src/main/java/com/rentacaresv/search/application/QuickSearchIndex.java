@@ -0,0 +1,294 @@
+package com.rentacaresv.search.application;
+
+import com.rentacaresv.search.domain.QuickSearchDocument;
+import com.rentacaresv.search.domain.SearchHit;
+import com.rentacaresv.search.domain.SearchHitType;
+import com.rentacaresv.search.infrastructure.QuickSearchRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice en memoria para la búsqueda rápida del encabezado: nombres, documentos, emails y
+ * teléfonos de clientes, placas/marcas/modelos de vehículos y números de contrato de rentas.
+ *
+ * Cada palabra normalizada (minúsculas, sin tildes) se guarda en un mapa ordenado
+ * ({@link ConcurrentSkipListMap}), así una búsqueda por prefijo es un recorrido del rango
+ * [prefijo, ...) sin tocar la BD. Las lecturas no toman bloqueos.
+ *
+ * Actualización:
+ * - Los cambios confirmados de este nodo llegan por {@link #markChanged} y se aplican en lote
+ *   cada segundo, releyendo solo esas filas.
+ * - Una reconstrucción completa periódica recoge los cambios hechos en otros nodos y refresca
+ *   los datos mostrados de las rentas (nombre del cliente y placa).
+ */
+@Component
+@Slf4j
+public class QuickSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern HAS_DIGIT = Pattern.compile("\\p{N}");
+
+    /** Separador entre la palabra y la entidad en las claves del mapa ordenado */
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    /** Máximo de entidades que coinciden con todas las palabras reunidas por búsqueda antes de ordenar */
+    private static final int MAX_CANDIDATES = 500;
+
+    private record Ref(SearchHitType type, long id) {}
+
+    private record Entry(QuickSearchDocument document, Set<String> tokens) {}
+
+    private record IndexState(ConcurrentSkipListMap<String, Entry> byToken, ConcurrentHashMap<Ref, Entry> byRef) {
+        IndexState() {
+            this(new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    private final QuickSearchRepository repository;
+    private final boolean enabled;
+    private final Timer searchTimer;
+
+    private final Set<Ref> pendingChanges = ConcurrentHashMap.newKeySet();
+    private final Object writeLock = new Object();
+
+    /** null hasta la primera carga completa */
+    private volatile IndexState state;
+
+    public QuickSearchIndex(
+            QuickSearchRepository repository,
+            MeterRegistry meterRegistry,
+            @Value("${app.search.quick-index.enabled:true}") boolean enabled) {
+        this.repository = repository;
+        this.enabled = enabled;
+
+        this.searchTimer = Timer.builder("search.quick.latency")
+                .description("Tiempo de las búsquedas en el índice en memoria")
+                .register(meterRegistry);
+        Gauge.builder("search.quick.entities", this, index -> {
+                    IndexState current = index.state;
+                    return current != null ? current.byRef().size() : 0;
+                })
+                .description("Entidades en el índice de búsqueda rápida")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indica si el índice ya fue cargado
+     */
+    public boolean isReady() {
+        return state != null;
+    }
+
+    /**
+     * Busca entidades en las que cada palabra del texto sea prefijo de alguna de sus palabras
+     *
+     * @return los mejores resultados primero (coincidencias exactas antes que prefijos cortos)
+     */
+    public List<SearchHit> search(String text, int limit) {
+        IndexState current = state;
+        List<String> queryTokens = tokenize(text);
+        if (current == null || queryTokens.isEmpty()) {
+            return List.of();
+        }
+
+        return searchTimer.record(() -> {
+            // La palabra más larga es la más selectiva: recorre su rango y filtra con el resto
+            // dentro del recorrido, así el tope solo cuenta entidades que coinciden con todo
+            String lead = queryTokens.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+            Set<Ref> seen = new HashSet<>();
+            List<SearchHit> hits = new ArrayList<>();
+            for (Map.Entry<String, Entry> e : current.byToken().tailMap(lead).entrySet()) {
+                if (!e.getKey().startsWith(lead) || hits.size() >= MAX_CANDIDATES) {
+                    break;
+                }
+                Entry entry = e.getValue();
+                if (seen.add(ref(entry.document()))) {
+                    SearchHit hit = toHit(entry, queryTokens);
+                    if (hit != null) {
+                        hits.add(hit);
+                    }
+                }
+            }
+
+            return hits.stream()
+                    .sorted(Comparator.comparingDouble(SearchHit::score).reversed()
+                            .thenComparing(SearchHit::title))
+                    .limit(limit)
+                    .toList();
+        });
+    }
+
+    /**
+     * Registra que una entidad cambió (creada, modificada o eliminada).
+     * Se aplica en la siguiente pasada de {@link #applyPendingChanges()}.
+     */
+    public void markChanged(SearchHitType type, long id) {
+        if (enabled) {
+            pendingChanges.add(new Ref(type, id));
+        }
+    }
+
+    /**
+     * Reconstruye el índice completo desde la BD (al iniciar y luego periódicamente)
+     */
+    @Scheduled(fixedDelayString = "${app.search.quick-index.rebuild-interval-ms:300000}",
+               initialDelayString = "${app.search.quick-index.initial-delay-ms:5000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            synchronized (writeLock) {
+                IndexState next = new IndexState();
+                for (SearchHitType type : SearchHitType.values()) {
+                    repository.findAll(type).forEach(document -> add(next, document));
+                }
+                state = next;
+            }
+            log.debug("Índice de búsqueda rápida reconstruido: {} entidades en {} ms",
+                    state.byRef().size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("⚠️ No se pudo reconstruir el índice de búsqueda rápida: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Relee las entidades marcadas como cambiadas y actualiza solo sus entradas
+     */
+    @Scheduled(fixedDelayString = "${app.search.quick-index.apply-interval-ms:1000}")
+    public void applyPendingChanges() {
+        if (pendingChanges.isEmpty() || state == null) {
+            return;
+        }
+
+        List<Ref> refs = new ArrayList<>(pendingChanges);
+        refs.forEach(pendingChanges::remove);
+
+        Map<SearchHitType, Set<Long>> idsByType = new EnumMap<>(SearchHitType.class);
+        refs.forEach(ref -> idsByType.computeIfAbsent(ref.type(), t -> new LinkedHashSet<>()).add(ref.id()));
+
+        try {
+            synchronized (writeLock) {
+                IndexState current = state;
+                idsByType.forEach((type, ids) -> {
+                    Set<Long> missing = new HashSet<>(ids);
+                    for (QuickSearchDocument document : repository.findByIds(type, ids)) {
+                        missing.remove(document.id());
+                        remove(current, ref(document));
+                        if (!document.deleted()) {
+                            add(current, document);
+                        }
+                    }
+                    missing.forEach(id -> remove(current, new Ref(type, id)));
+                });
+            }
+        } catch (Exception e) {
+            // Se reintenta en la próxima pasada
+            pendingChanges.addAll(refs);
+            log.warn("⚠️ No se pudieron aplicar cambios al índice de búsqueda rápida: {}", e.getMessage());
+        }
+    }
+
+    // ─── Estructura del índice ────────────────────────────────────────────────
+
+    private static void add(IndexState index, QuickSearchDocument document) {
+        Entry entry = new Entry(document, documentTokens(document));
+        index.byRef().put(ref(document), entry);
+        for (String token : entry.tokens()) {
+            index.byToken().put(key(token, document), entry);
+        }
+    }
+
+    private static void remove(IndexState index, Ref ref) {
+        Entry entry = index.byRef().remove(ref);
+        if (entry != null) {
+            for (String token : entry.tokens()) {
+                index.byToken().remove(key(token, entry.document()));
+            }
+        }
+    }
+
+    private static String key(String token, QuickSearchDocument document) {
+        return token + KEY_SEPARATOR + document.type().ordinal() + ':' + document.id();
+    }
+
+    private static Ref ref(QuickSearchDocument document) {
+        return new Ref(document.type(), document.id());
+    }
+
+    /**
+     * Palabras de la entidad. Los identificadores con separadores ("P123-456",
+     * "ADM-20260410-00001") también se indexan compactos para encontrarlos escritos sin guiones.
+     */
+    private static Set<String> documentTokens(QuickSearchDocument document) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String term : document.terms()) {
+            List<String> words = tokenize(term);
+            tokens.addAll(words);
+            if (words.size() > 1 && HAS_DIGIT.matcher(term).find()) {
+                tokens.add(String.join("", words));
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Resultado si cada palabra buscada es prefijo de alguna palabra de la entidad.
+     * La relevancia es el promedio de qué tan completa está cada palabra (1.0 = exacta).
+     */
+    private static SearchHit toHit(Entry entry, List<String> queryTokens) {
+        double score = 0;
+        for (String queryToken : queryTokens) {
+            double best = 0;
+            for (String token : entry.tokens()) {
+                if (token.startsWith(queryToken)) {
+                    best = Math.max(best, (double) queryToken.length() / token.length());
+                }
+            }
+            if (best == 0) {
+                return null;
+            }
+            score += best;
+        }
+        QuickSearchDocument document = entry.document();
+        return new SearchHit(document.type(), document.id(), document.title(), document.subtitle(),
+                document.key(), score / queryTokens.size());
+    }
+}
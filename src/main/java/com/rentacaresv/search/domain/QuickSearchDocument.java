@@ -0,0 +1,13 @@
+package com.rentacaresv.search.domain;
+
+import java.util.List;
+
+/**
+ * Entidad tal como se indexa en el índice de búsqueda rápida en memoria
+ *
+ * @param key     identificador visible (número de contrato, documento o placa)
+ * @param terms   textos cuyas palabras se indexan como prefijos
+ * @param deleted true si la entidad fue eliminada (borrado lógico) y debe salir del índice
+ */
+public record QuickSearchDocument(SearchHitType type, long id, String title, String subtitle, String key,
+                                  List<String> terms, boolean deleted) {}
@@ -0,0 +1,10 @@
+package com.rentacaresv.search.domain;
+
+/**
+ * Resultado de la búsqueda global
+ *
+ * @param key   identificador visible de la entidad (número de contrato, documento o placa),
+ *              usado para abrir la vista de listado ya filtrada
+ * @param score relevancia; mayor es mejor
+ */
+public record SearchHit(SearchHitType type, Long id, String title, String subtitle, String key, double score) {}
@@ -0,0 +1,18 @@
+package com.rentacaresv.search.domain;
+
+/**
+ * Tipo de entidad de un resultado de la búsqueda global
+ */
+public enum SearchHitType {
+    RENTAL,
+    CUSTOMER,
+    VEHICLE;
+
+    public String getLabel() {
+        return switch (this) {
+            case RENTAL -> "Renta";
+            case CUSTOMER -> "Cliente";
+            case VEHICLE -> "Vehículo";
+        };
+    }
+}
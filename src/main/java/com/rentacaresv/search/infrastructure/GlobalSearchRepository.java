@@ -0,0 +1,85 @@
+package com.rentacaresv.search.infrastructure;
+
+import com.rentacaresv.search.domain.SearchHit;
+import com.rentacaresv.search.domain.SearchHitType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Consultas FULLTEXT de la búsqueda global (índices de V021).
+ * Todas reciben una expresión en modo booleano (ver FullTextQuery) y devuelven
+ * los resultados más relevantes primero.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GlobalSearchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Rentas por número de contrato */
+    public List<SearchHit> searchRentals(String query, int limit) {
+        return jdbcTemplate.query("""
+                SELECT r.id, r.contract_number, c.full_name, v.license_plate,
+                       MATCH(r.contract_number) AGAINST (? IN BOOLEAN MODE) AS score
+                FROM rental r
+                JOIN customer c ON c.id = r.customer_id
+                JOIN vehicle v ON v.id = r.vehicle_id
+                WHERE r.deleted_at IS NULL
+                  AND MATCH(r.contract_number) AGAINST (? IN BOOLEAN MODE)
+                ORDER BY score DESC, r.created_at DESC
+                LIMIT ?
+                """, (rs, i) -> new SearchHit(
+                        SearchHitType.RENTAL,
+                        rs.getLong("id"),
+                        rs.getString("contract_number"),
+                        rs.getString("full_name") + " · " + rs.getString("license_plate"),
+                        rs.getString("contract_number"),
+                        rs.getDouble("score")),
+                query, query, limit);
+    }
+
+    /** Clientes por nombre, documento, email o teléfono */
+    public List<SearchHit> searchCustomers(String query, int limit) {
+        return jdbcTemplate.query("""
+                SELECT id, full_name, document_number, phone,
+                       MATCH(full_name, document_number, email, phone) AGAINST (? IN BOOLEAN MODE) AS score
+                FROM customer
+                WHERE deleted_at IS NULL
+                  AND MATCH(full_name, document_number, email, phone) AGAINST (? IN BOOLEAN MODE)
+                ORDER BY score DESC, full_name
+                LIMIT ?
+                """, (rs, i) -> new SearchHit(
+                        SearchHitType.CUSTOMER,
+                        rs.getLong("id"),
+                        rs.getString("full_name"),
+                        rs.getString("phone") != null
+                                ? rs.getString("document_number") + " · " + rs.getString("phone")
+                                : rs.getString("document_number"),
+                        rs.getString("document_number"),
+                        rs.getDouble("score")),
+                query, query, limit);
+    }
+
+    /** Vehículos por placa, marca o modelo */
+    public List<SearchHit> searchVehicles(String query, int limit) {
+        return jdbcTemplate.query("""
+                SELECT id, license_plate, brand, model, year,
+                       MATCH(license_plate, brand, model) AGAINST (? IN BOOLEAN MODE) AS score
+                FROM vehicle
+                WHERE deleted_at IS NULL
+                  AND MATCH(license_plate, brand, model) AGAINST (? IN BOOLEAN MODE)
+                ORDER BY score DESC, license_plate
+                LIMIT ?
+                """, (rs, i) -> new SearchHit(
+                        SearchHitType.VEHICLE,
+                        rs.getLong("id"),
+                        rs.getString("license_plate"),
+                        rs.getString("brand") + " " + rs.getString("model") + " " + rs.getInt("year"),
+                        rs.getString("license_plate"),
+                        rs.getDouble("score")),
+                query, query, limit);
+    }
+}
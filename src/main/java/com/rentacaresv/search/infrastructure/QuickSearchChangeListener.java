@@ -0,0 +1,95 @@
+package com.rentacaresv.search.infrastructure;
+
+import com.rentacaresv.customer.domain.Customer;
+import com.rentacaresv.rental.domain.Rental;
+import com.rentacaresv.search.application.QuickSearchIndex;
+import com.rentacaresv.search.domain.SearchHitType;
+import com.rentacaresv.vehicle.domain.Vehicle;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Avisa al índice de búsqueda rápida cuando se confirma un cambio en clientes,
+ * vehículos o rentas hecho con Hibernate en este nodo.
+ *
+ * Solo registra el id: el índice relee la fila después, fuera de la transacción.
+ */
+@Component
+@RequiredArgsConstructor
+public class QuickSearchChangeListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Map<Class<?>, SearchHitType> TYPES = Map.of(
+            Customer.class, SearchHitType.CUSTOMER,
+            Vehicle.class, SearchHitType.VEHICLE,
+            Rental.class, SearchHitType.RENTAL);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final QuickSearchIndex quickSearchIndex;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return TYPES.containsKey(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Sin cambios que indexar
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Sin cambios que indexar
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Sin cambios que indexar
+    }
+
+    private void changed(Object entity, Object id) {
+        SearchHitType type = TYPES.get(entity.getClass());
+        if (type != null && id instanceof Long entityId) {
+            quickSearchIndex.markChanged(type, entityId);
+        }
+    }
+}
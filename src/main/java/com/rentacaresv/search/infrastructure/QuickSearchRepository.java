@@ -0,0 +1,102 @@
+package com.rentacaresv.search.infrastructure;
+
+import com.rentacaresv.search.domain.QuickSearchDocument;
+import com.rentacaresv.search.domain.SearchHitType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Carga los documentos del índice de búsqueda rápida (clientes, vehículos y rentas).
+ * Solo lee las columnas que se indexan o se muestran en los resultados.
+ */
+@Repository
+@RequiredArgsConstructor
+public class QuickSearchRepository {
+
+    private static final String CUSTOMER_SELECT =
+            "SELECT id, full_name, document_number, email, phone, deleted_at FROM customer ";
+
+    private static final String VEHICLE_SELECT =
+            "SELECT id, license_plate, brand, model, year, deleted_at FROM vehicle ";
+
+    private static final String RENTAL_SELECT = """
+            SELECT r.id, r.contract_number, c.full_name, v.license_plate, r.deleted_at
+            FROM rental r
+            JOIN customer c ON c.id = r.customer_id
+            JOIN vehicle v ON v.id = r.vehicle_id
+            """;
+
+    private static final RowMapper<QuickSearchDocument> CUSTOMER_MAPPER = (rs, i) -> {
+        String document = rs.getString("document_number");
+        String phone = rs.getString("phone");
+        return new QuickSearchDocument(
+                SearchHitType.CUSTOMER,
+                rs.getLong("id"),
+                rs.getString("full_name"),
+                phone != null ? document + " · " + phone : document,
+                document,
+                terms(rs.getString("full_name"), document, rs.getString("email"), phone),
+                rs.getTimestamp("deleted_at") != null);
+    };
+
+    private static final RowMapper<QuickSearchDocument> VEHICLE_MAPPER = (rs, i) -> new QuickSearchDocument(
+            SearchHitType.VEHICLE,
+            rs.getLong("id"),
+            rs.getString("license_plate"),
+            rs.getString("brand") + " " + rs.getString("model") + " " + rs.getInt("year"),
+            rs.getString("license_plate"),
+            terms(rs.getString("license_plate"), rs.getString("brand"), rs.getString("model")),
+            rs.getTimestamp("deleted_at") != null);
+
+    private static final RowMapper<QuickSearchDocument> RENTAL_MAPPER = (rs, i) -> new QuickSearchDocument(
+            SearchHitType.RENTAL,
+            rs.getLong("id"),
+            rs.getString("contract_number"),
+            rs.getString("full_name") + " · " + rs.getString("license_plate"),
+            rs.getString("contract_number"),
+            terms(rs.getString("contract_number")),
+            rs.getTimestamp("deleted_at") != null);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Todas las entidades no eliminadas del tipo indicado */
+    public List<QuickSearchDocument> findAll(SearchHitType type) {
+        return switch (type) {
+            case CUSTOMER -> jdbcTemplate.query(CUSTOMER_SELECT + "WHERE deleted_at IS NULL", CUSTOMER_MAPPER);
+            case VEHICLE -> jdbcTemplate.query(VEHICLE_SELECT + "WHERE deleted_at IS NULL", VEHICLE_MAPPER);
+            case RENTAL -> jdbcTemplate.query(RENTAL_SELECT + "WHERE r.deleted_at IS NULL", RENTAL_MAPPER);
+        };
+    }
+
+    /**
+     * Entidades con los ids indicados, incluidas las eliminadas (para quitarlas del índice).
+     * Los ids que ya no existen no aparecen en el resultado.
+     */
+    public List<QuickSearchDocument> findByIds(SearchHitType type, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = ids.stream().map(id -> "?").collect(Collectors.joining(", "));
+        Object[] args = ids.toArray();
+        return switch (type) {
+            case CUSTOMER -> jdbcTemplate.query(CUSTOMER_SELECT + "WHERE id IN (" + placeholders + ")",
+                    CUSTOMER_MAPPER, args);
+            case VEHICLE -> jdbcTemplate.query(VEHICLE_SELECT + "WHERE id IN (" + placeholders + ")",
+                    VEHICLE_MAPPER, args);
+            case RENTAL -> jdbcTemplate.query(RENTAL_SELECT + "WHERE r.id IN (" + placeholders + ")",
+                    RENTAL_MAPPER, args);
+        };
+    }
+
+    private static List<String> terms(String... values) {
+        return Arrays.stream(values).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,83 @@
+package com.rentacaresv.search.ui;
+
+import com.rentacaresv.search.application.GlobalSearchService;
+import com.rentacaresv.search.domain.SearchHit;
+import com.rentacaresv.search.domain.SearchHitType;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.data.renderer.ComponentRenderer;
+import com.vaadin.flow.router.QueryParameters;
+
+import java.util.Map;
+
+/**
+ * Campo de búsqueda global del encabezado.
+ *
+ * Consulta el índice en memoria de {@link GlobalSearchService#quickSearch} mientras el usuario
+ * escribe (el ComboBox ya espera a que deje de teclear antes de pedir resultados) y, al elegir
+ * un resultado, abre la vista de listado correspondiente filtrada por el contrato, documento
+ * o placa ({@code ?q=}).
+ */
+public class GlobalSearchField extends ComboBox<SearchHit> {
+
+    /** Parámetro de URL con el que las vistas de listado reciben el filtro inicial */
+    public static final String QUERY_PARAMETER = "q";
+
+    private static final int LIMIT = 15;
+
+    private final Map<SearchHitType, String> routes;
+
+    /**
+     * @param routes ruta de la vista de listado de cada tipo de resultado; los tipos que no
+     *               estén en el mapa (vistas sin acceso para el usuario) no se muestran
+     */
+    public GlobalSearchField(GlobalSearchService searchService, Map<SearchHitType, String> routes) {
+        this.routes = routes;
+
+        setPlaceholder("Buscar contrato, cliente o placa...");
+        setPrefixComponent(VaadinIcon.SEARCH.create());
+        setClearButtonVisible(true);
+        setWidth("320px");
+        setItemLabelGenerator(SearchHit::title);
+        setRenderer(new ComponentRenderer<>(this::renderHit));
+
+        setItems(query -> searchService.quickSearch(query.getFilter().orElse(""), LIMIT).stream()
+                .filter(hit -> routes.containsKey(hit.type()))
+                .skip(query.getOffset())
+                .limit(query.getLimit()));
+
+        addValueChangeListener(e -> {
+            if (e.isFromClient() && e.getValue() != null) {
+                openHit(e.getValue());
+            }
+        });
+    }
+
+    private void openHit(SearchHit hit) {
+        String route = routes.get(hit.type());
+        clear();
+        getUI().ifPresent(ui -> ui.navigate(route, QueryParameters.of(QUERY_PARAMETER, hit.key())));
+    }
+
+    private Div renderHit(SearchHit hit) {
+        Span title = new Span(hit.title());
+        title.getStyle().set("font-weight", "500");
+
+        Span type = new Span(hit.type().getLabel());
+        type.getElement().getThemeList().add("badge small contrast");
+        type.getStyle().set("margin-left", "var(--lumo-space-s)");
+
+        Div header = new Div(title, type);
+
+        Span subtitle = new Span(hit.subtitle());
+        subtitle.getStyle()
+                .set("font-size", "var(--lumo-font-size-s)")
+                .set("color", "var(--lumo-secondary-text-color)");
+
+        Div item = new Div(header, subtitle);
+        item.getStyle().set("display", "flex").set("flex-direction", "column");
+        return item;
+    }
+}
@@ -1,38 +1,106 @@
 package com.rentacaresv.security;
 
+import com.rentacaresv.security.accesslog.application.AccessLogService;
 import com.rentacaresv.user.domain.User;
 import com.rentacaresv.user.infrastructure.UserRepository;
+import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.spring.security.AuthenticationContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Helper para manejar el usuario autenticado en la sesión actual
- * 
+ *
  * Proporciona métodos para:
  * - Obtener el usuario actual
  * - Cerrar sesión
  * - Actualizar último login
+ *
+ * {@link #getCurrentUser()} guarda en la VaadinSession un {@link CurrentUser}
+ * inmutable, de modo que una petición de UI no repite la misma consulta de usuario.
+ * Se descarta cuando el usuario se edita ({@link #invalidate(String)}) o tras
+ * {@link #PRINCIPAL_TTL}, lo que también acota el desfase entre nodos.
  */
 @Component
 @RequiredArgsConstructor
 public class AuthenticatedUser {
 
+    /**
+     * Tiempo máximo que se reutiliza el usuario cacheado en la sesión
+     */
+    private static final Duration PRINCIPAL_TTL = Duration.ofMinutes(1);
+
     private final UserRepository userRepository;
     private final AuthenticationContext authenticationContext;
+    private final AccessLogService accessLogService;
 
     /**
-     * Obtiene el usuario actualmente autenticado
-     * 
+     * Contador de cambios por username. Cada edición del usuario lo incrementa
+     * y deja obsoletos los {@link CurrentUser} cacheados en sesión.
+     */
+    private final ConcurrentHashMap<String, Long> userStamps = new ConcurrentHashMap<>();
+
+    /**
+     * Obtiene el usuario actualmente autenticado (entidad gestionada, consulta la BD).
+     * Para solo leer datos del usuario usar {@link #getCurrentUser()}.
+     *
      * @return Optional con el usuario, o vacío si no hay sesión activa
      */
     public Optional<User> get() {
-        return authenticationContext
-                .getAuthenticatedUser(org.springframework.security.core.userdetails.User.class)
-                .map(userDetails -> userRepository.findByUsername(userDetails.getUsername()));
+        return getUsername().map(userRepository::findByUsername);
+    }
+
+    /**
+     * Obtiene los datos del usuario autenticado, cacheados en la sesión
+     *
+     * @return Optional con el usuario, o vacío si no hay sesión activa
+     */
+    public Optional<CurrentUser> getCurrentUser() {
+        Optional<String> username = getUsername();
+        if (username.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long stamp = userStamps.getOrDefault(username.get(), 0L);
+        VaadinSession session = VaadinSession.getCurrent();
+        if (session != null) {
+            CachedPrincipal cached = session.getAttribute(CachedPrincipal.class);
+            if (cached != null && cached.isValidFor(username.get(), stamp)) {
+                return Optional.of(cached.user());
+            }
+        }
+
+        User user = userRepository.findByUsername(username.get());
+        if (user == null) {
+            return Optional.empty();
+        }
+
+        CurrentUser currentUser = CurrentUser.from(user);
+        if (session != null) {
+            session.setAttribute(CachedPrincipal.class, new CachedPrincipal(currentUser, stamp, Instant.now()));
+        }
+        return Optional.of(currentUser);
+    }
+
+    /**
+     * Obtiene el username del usuario autenticado sin consultar la BD
+     */
+    public Optional<String> getUsername() {
+        return authenticationContext.getPrincipalName();
+    }
+
+    /**
+     * Descarta los datos cacheados del usuario indicado en todas las sesiones
+     */
+    public void invalidate(String username) {
+        if (username != null) {
+            userStamps.merge(username, 1L, Long::sum);
+        }
     }
 
     /**
@@ -45,11 +113,19 @@ public class AuthenticatedUser {
     /**
      * Actualiza la fecha de último login del usuario actual
      */
-    @Transactional
     public void updateLastLogin() {
-        get().ifPresent(user -> {
-            user.updateLastLogin();
-            userRepository.save(user);
-        });
+        getCurrentUser().ifPresent(user -> accessLogService.recordLastLogin(user.id()));
+    }
+
+    /**
+     * Usuario cacheado en sesión junto con el contador y la hora en que se cargó
+     */
+    private record CachedPrincipal(CurrentUser user, long stamp, Instant loadedAt) {
+
+        boolean isValidFor(String username, long currentStamp) {
+            return stamp == currentStamp
+                    && user.username().equals(username)
+                    && loadedAt.plus(PRINCIPAL_TTL).isAfter(Instant.now());
+        }
     }
 }
@@ -0,0 +1,44 @@
+package com.rentacaresv.security;
+
+import com.rentacaresv.user.domain.User;
+
+import java.util.Set;
+
+/**
+ * Datos del usuario autenticado que se guardan en la sesión.
+ * Es un valor inmutable (no una entidad JPA), así que puede reutilizarse
+ * entre peticiones sin volver a consultar la BD.
+ */
+public record CurrentUser(
+        Long id,
+        String username,
+        String name,
+        String email,
+        Set<Role> roles
+) {
+
+    public CurrentUser {
+        roles = roles == null ? Set.of() : Set.copyOf(roles);
+    }
+
+    /**
+     * Crea el principal a partir de la entidad User
+     */
+    public static CurrentUser from(User user) {
+        return new CurrentUser(user.getId(), user.getUsername(), user.getName(), user.getEmail(), user.getRoles());
+    }
+
+    /**
+     * Verifica si el usuario tiene un rol específico
+     */
+    public boolean hasRole(Role role) {
+        return roles.contains(role);
+    }
+
+    /**
+     * Verifica si el usuario es administrador
+     */
+    public boolean isAdmin() {
+        return hasRole(Role.ADMIN);
+    }
+}
@@ -1,5 +1,7 @@
 package com.rentacaresv.security;
 
+import com.rentacaresv.security.accesslog.application.LoginFailureDetector;
+import com.rentacaresv.security.accesslog.infrastructure.LoginThrottleFilter;
 import com.rentacaresv.user.domain.User;
 import com.rentacaresv.user.infrastructure.UserRepository;
 import com.rentacaresv.views.LoginView;
@@ -13,6 +15,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 /**
  * Configuración de Spring Security para RentaCar ESV
@@ -40,7 +43,7 @@ public class SecurityConfig {
      * - Configura login view y redirección
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, LoginFailureDetector loginFailureDetector) throws Exception {
         // Permitir acceso a recursos estáticos sin autenticación
         http.authorizeHttpRequests(authorize -> authorize
                 .requestMatchers(
@@ -67,6 +70,10 @@ public class SecurityConfig {
                 .ignoringRequestMatchers("/api/public/**")
                 .ignoringRequestMatchers("/api/admin/**"));
 
+        // Rechazar logins bloqueados por intentos fallidos antes de autenticar
+        http.addFilterBefore(new LoginThrottleFilter(loginFailureDetector),
+                UsernamePasswordAuthenticationFilter.class);
+
         // Configuración de Vaadin Security con login view
         http.with(VaadinSecurityConfigurer.vaadin(), configurer -> configurer
                 .loginView(LoginView.class));
@@ -0,0 +1,203 @@
+package com.rentacaresv.security.accesslog.application;
+
+import com.rentacaresv.security.accesslog.domain.AccessLog;
+import com.rentacaresv.security.accesslog.infrastructure.AccessLogBatchWriter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffer en memoria (write-behind) para el registro de accesos.
+ *
+ * Los eventos se encolan en el hilo de la petición (login, logout...) y un hilo
+ * de fondo los guarda en lotes JDBC. Las actualizaciones de último login se
+ * combinan por usuario (gana la fecha más reciente) y se escriben con cada lote.
+ *
+ * Es un registro de auditoría: nunca descarta eventos. Si la cola está llena,
+ * el evento se guarda de forma síncrona en el hilo llamador. Al apagar la
+ * aplicación se vacía todo lo pendiente.
+ */
+@Component
+@Slf4j
+public class AccessLogBuffer {
+
+    private final AccessLogBatchWriter batchWriter;
+    private final ArrayBlockingQueue<AccessLog> queue;
+    private final Map<Long, LocalDateTime> pendingLastLogins = new ConcurrentHashMap<>();
+    private final int batchSize;
+    private final long flushIntervalMs;
+
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+
+    private volatile boolean running = false;
+    private Thread flusherThread;
+
+    public AccessLogBuffer(
+            AccessLogBatchWriter batchWriter,
+            MeterRegistry meterRegistry,
+            @Value("${app.access-log.buffer.capacity:5000}") int capacity,
+            @Value("${app.access-log.buffer.batch-size:100}") int batchSize,
+            @Value("${app.access-log.buffer.flush-interval-ms:1000}") long flushIntervalMs) {
+
+        this.batchWriter = batchWriter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+
+        FunctionCounter.builder("access_log.events.flushed", flushed, AtomicLong::get)
+                .description("Registros de acceso guardados en BD")
+                .register(meterRegistry);
+        FunctionCounter.builder("access_log.events.failed", failed, AtomicLong::get)
+                .description("Registros de acceso perdidos por error al guardar")
+                .register(meterRegistry);
+        FunctionCounter.builder("access_log.events.overflowed", overflowed, AtomicLong::get)
+                .description("Registros guardados de forma síncrona por buffer lleno")
+                .register(meterRegistry);
+        Gauge.builder("access_log.events.pending", queue, ArrayBlockingQueue::size)
+                .description("Registros de acceso pendientes de guardar")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusherThread = new Thread(this::runFlusher, "access-log-flusher");
+        flusherThread.setDaemon(true);
+        flusherThread.start();
+        log.info("Buffer de registro de accesos iniciado (capacidad: {}, lote: {}, intervalo: {} ms)",
+                queue.remainingCapacity(), batchSize, flushIntervalMs);
+    }
+
+    /**
+     * Encola un registro sin bloquear; si la cola está llena lo guarda en el hilo actual
+     */
+    public void offer(AccessLog entry) {
+        if (!queue.offer(entry)) {
+            overflowed.incrementAndGet();
+            writeBatch(List.of(entry));
+        }
+    }
+
+    /**
+     * Registra el último login de un usuario; se combina con los pendientes
+     */
+    public void recordLastLogin(Long userId, LocalDateTime when) {
+        if (userId != null && when != null) {
+            pendingLastLogins.merge(userId, when, (a, b) -> a.isAfter(b) ? a : b);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (flusherThread != null) {
+            flusherThread.interrupt();
+            try {
+                flusherThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Guardar lo que haya quedado en la cola
+        List<AccessLog> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            writeBatch(remaining);
+            remaining.clear();
+        }
+        flushLastLogins();
+        log.info("Buffer de registro de accesos detenido ({} guardados, {} fallidos)", flushed.get(), failed.get());
+    }
+
+    // ─── Hilo de vaciado ───────────────────────────────────────────────────────
+
+    private void runFlusher() {
+        List<AccessLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                // Apagado: lo pendiente lo guarda shutdown()
+                break;
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+            flushLastLogins();
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    /**
+     * Espera hasta completar un lote o hasta que venza el intervalo
+     */
+    private void fillBatch(List<AccessLog> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return;
+            }
+            AccessLog entry = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            if (entry == null) {
+                return;
+            }
+            batch.add(entry);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void writeBatch(List<AccessLog> batch) {
+        try {
+            flushed.addAndGet(batchWriter.insertBatch(batch));
+        } catch (Exception e) {
+            failed.addAndGet(batch.size());
+            log.error("Error guardando lote de {} registros de acceso: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Escribe las fechas de último login acumuladas (una actualización por usuario)
+     */
+    private void flushLastLogins() {
+        if (pendingLastLogins.isEmpty()) {
+            return;
+        }
+
+        Map<Long, LocalDateTime> snapshot = new HashMap<>();
+        for (Long userId : List.copyOf(pendingLastLogins.keySet())) {
+            LocalDateTime when = pendingLastLogins.remove(userId);
+            if (when != null) {
+                snapshot.put(userId, when);
+            }
+        }
+
+        try {
+            batchWriter.updateLastLogins(snapshot);
+        } catch (Exception e) {
+            // Reintentar en el próximo ciclo sin pisar fechas más recientes
+            snapshot.forEach(this::recordLastLogin);
+            log.warn("Error actualizando último login de {} usuarios: {}", snapshot.size(), e.getMessage());
+        }
+    }
+}
@@ -3,8 +3,8 @@ package com.rentacaresv.security.accesslog.application;
 import com.rentacaresv.security.accesslog.domain.AccessEventType;
 import com.rentacaresv.security.accesslog.domain.AccessLog;
 import com.rentacaresv.security.accesslog.infrastructure.AccessLogRepository;
+import com.rentacaresv.shared.infrastructure.ChunkedPurger;
 import com.rentacaresv.user.domain.User;
-import com.rentacaresv.user.infrastructure.UserRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,18 +14,20 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
- * Servicio para gestión del registro de accesos
+ * Servicio para gestión del registro de accesos.
+ * Los eventos se escriben en segundo plano a través de {@link AccessLogBuffer}.
  */
 @Service
 @RequiredArgsConstructor
@@ -33,23 +35,21 @@ import java.util.stream.Collectors;
 public class AccessLogService {
 
     private final AccessLogRepository accessLogRepository;
-    private final UserRepository userRepository;
+    private final AccessLogBuffer accessLogBuffer;
+    private final LoginFailureDetector loginFailureDetector;
+    private final ChunkedPurger chunkedPurger;
 
     // Configuración de retención de logs (días)
     private static final int LOG_RETENTION_DAYS = 90;
 
-    // Límite de intentos fallidos antes de alertar
-    private static final int MAX_FAILED_ATTEMPTS = 5;
-    private static final int FAILED_ATTEMPTS_WINDOW_HOURS = 1;
-
     // ========================================
     // Registro de Eventos
     // ========================================
 
     /**
-     * Registra un login exitoso
+     * Registra un login exitoso.
+     * El registro y la fecha de último login se guardan en segundo plano.
      */
-    @Transactional
     public void logLoginSuccess(User user) {
         HttpServletRequest request = getCurrentRequest();
         String ipAddress = getClientIpAddress(request);
@@ -57,11 +57,11 @@ public class AccessLogService {
         String sessionId = getSessionId(request);
 
         AccessLog logEntry = AccessLog.loginSuccess(user, ipAddress, userAgent, sessionId);
-        accessLogRepository.save(logEntry);
+        accessLogBuffer.offer(logEntry);
 
-        // Actualizar último login del usuario
-        user.updateLastLogin();
-        userRepository.save(user);
+        // Actualizar último login del usuario (combinado con otros logins pendientes)
+        recordLastLogin(user.getId());
+        loginFailureDetector.recordSuccess(user.getUsername());
 
         log.info("Login exitoso registrado: {} desde {}", user.getUsername(), ipAddress);
     }
@@ -69,14 +69,13 @@ public class AccessLogService {
     /**
      * Registra un login fallido
      */
-    @Transactional
     public void logLoginFailed(String username, String reason) {
         HttpServletRequest request = getCurrentRequest();
         String ipAddress = getClientIpAddress(request);
         String userAgent = getUserAgent(request);
 
         AccessLog logEntry = AccessLog.loginFailed(username, ipAddress, userAgent, reason);
-        accessLogRepository.save(logEntry);
+        accessLogBuffer.offer(logEntry);
 
         log.warn("Login fallido registrado: {} desde {} - Razón: {}", username, ipAddress, reason);
 
@@ -87,14 +86,13 @@ public class AccessLogService {
     /**
      * Registra un logout
      */
-    @Transactional
     public void logLogout(User user) {
         HttpServletRequest request = getCurrentRequest();
         String ipAddress = getClientIpAddress(request);
         String sessionId = getSessionId(request);
 
         AccessLog logEntry = AccessLog.logout(user, ipAddress, sessionId);
-        accessLogRepository.save(logEntry);
+        accessLogBuffer.offer(logEntry);
 
         log.info("Logout registrado: {}", user != null ? user.getUsername() : "unknown");
     }
@@ -102,7 +100,6 @@ public class AccessLogService {
     /**
      * Registra un evento genérico
      */
-    @Transactional
     public void logEvent(User user, AccessEventType eventType, String details) {
         HttpServletRequest request = getCurrentRequest();
 
@@ -117,10 +114,17 @@ public class AccessLogService {
                 .success(true)
                 .build();
 
-        accessLogRepository.save(logEntry);
+        accessLogBuffer.offer(logEntry);
         log.info("Evento {} registrado para usuario {}", eventType, user != null ? user.getUsername() : "system");
     }
 
+    /**
+     * Marca la fecha de último login del usuario como ahora
+     */
+    public void recordLastLogin(Long userId) {
+        accessLogBuffer.recordLastLogin(userId, LocalDateTime.now());
+    }
+
     // ========================================
     // Consultas
     // ========================================
@@ -148,6 +152,44 @@ public class AccessLogService {
         return accessLogRepository.searchLogs(username, eventType, startDate, endDate, pageable);
     }
 
+    /**
+     * Busca logs con filtros por keyset (sin OFFSET ni COUNT).
+     * Devuelve los registros más antiguos que el cursor, o los más recientes si el cursor es null.
+     */
+    public LogSlice searchLogsOlderThan(String username, AccessEventType eventType,
+                                        LocalDateTime startDate, LocalDateTime endDate,
+                                        LogCursor cursor, int size) {
+        List<AccessLog> rows = accessLogRepository.searchLogsOlderThan(username, eventType, startDate, endDate,
+                cursor != null ? cursor.timestamp() : null,
+                cursor != null ? cursor.id() : null,
+                PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        return new LogSlice(hasMore ? rows.subList(0, size) : rows, hasMore);
+    }
+
+    /**
+     * Busca logs con filtros por keyset: la página de registros más recientes que el cursor,
+     * ordenada del más reciente al más antiguo
+     */
+    public LogSlice searchLogsNewerThan(String username, AccessEventType eventType,
+                                        LocalDateTime startDate, LocalDateTime endDate,
+                                        LogCursor cursor, int size) {
+        List<AccessLog> rows = accessLogRepository.searchLogsNewerThan(username, eventType, startDate, endDate,
+                cursor.timestamp(), cursor.id(), PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        List<AccessLog> page = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        Collections.reverse(page);
+        return new LogSlice(page, hasMore);
+    }
+
+    /**
+     * Cantidad aproximada de registros (estadísticas de la tabla, sin COUNT)
+     */
+    public long estimateTotalLogs() {
+        Long estimate = accessLogRepository.estimateRowCount();
+        return estimate != null ? estimate : 0L;
+    }
+
     /**
      * Obtiene logs de un usuario específico
      */
@@ -202,25 +244,22 @@ public class AccessLogService {
     // ========================================
 
     /**
-     * Verifica intentos fallidos y genera alertas si es necesario
+     * Verifica intentos fallidos y genera alertas si es necesario.
+     * Cuenta en memoria ({@link LoginFailureDetector}), sin consultar access_log.
      */
     private void checkFailedAttempts(String username, String ipAddress) {
-        LocalDateTime since = LocalDateTime.now().minusHours(FAILED_ATTEMPTS_WINDOW_HOURS);
+        LoginFailureDetector.FailureCounts counts = loginFailureDetector.recordFailure(username, ipAddress);
 
         // Verificar por usuario
-        long userFailedAttempts = accessLogRepository.countFailedLoginsSince(username, since);
-        if (userFailedAttempts >= MAX_FAILED_ATTEMPTS) {
+        if (counts.userOverLimit()) {
             log.warn("ALERTA DE SEGURIDAD: {} intentos fallidos para usuario {} en la última hora",
-                    userFailedAttempts, username);
-            // Aquí podrías agregar lógica para bloquear la cuenta o enviar notificación
+                    counts.userFailures(), username);
         }
 
         // Verificar por IP
-        long ipFailedAttempts = accessLogRepository.countFailedLoginsFromIpSince(ipAddress, since);
-        if (ipFailedAttempts >= MAX_FAILED_ATTEMPTS * 2) {
+        if (counts.ipOverLimit()) {
             log.warn("ALERTA DE SEGURIDAD: {} intentos fallidos desde IP {} en la última hora",
-                    ipFailedAttempts, ipAddress);
-            // Aquí podrías agregar lógica para bloquear la IP
+                    counts.ipFailures(), ipAddress);
         }
     }
 
@@ -240,12 +279,11 @@ public class AccessLogService {
      * Limpia logs antiguos (ejecutado diariamente a las 3 AM)
      */
     @Scheduled(cron = "0 0 3 * * ?")
-    @Transactional
     public void cleanupOldLogs() {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(LOG_RETENTION_DAYS);
-        int deleted = accessLogRepository.deleteLogsOlderThan(cutoffDate);
-        if (deleted > 0) {
-            log.info("Limpieza de logs: {} registros eliminados (anteriores a {})", deleted, cutoffDate);
+        ChunkedPurger.PurgeResult result = chunkedPurger.purge("access_log", "id", "`timestamp` < ?", cutoffDate);
+        if (result.rowsDeleted() > 0) {
+            log.info("Limpieza de logs: {} registros eliminados (anteriores a {})", result.rowsDeleted(), cutoffDate);
         }
     }
 
@@ -266,38 +304,12 @@ public class AccessLogService {
     }
 
     /**
-     * Obtiene la IP del cliente
+     * Obtiene la IP del cliente: la de la conexión, no la de cabeceras como X-Forwarded-For,
+     * que el cliente puede enviar con cualquier valor. Detrás de un proxy de confianza,
+     * server.forward-headers-strategy hace que getRemoteAddr devuelva la IP original.
      */
-    private String getClientIpAddress(HttpServletRequest request) {
-        if (request == null) {
-            return "unknown";
-        }
-
-        // Verificar headers de proxy
-        String[] headerNames = {
-                "X-Forwarded-For",
-                "X-Real-IP",
-                "Proxy-Client-IP",
-                "WL-Proxy-Client-IP",
-                "HTTP_X_FORWARDED_FOR",
-                "HTTP_X_FORWARDED",
-                "HTTP_FORWARDED_FOR",
-                "HTTP_FORWARDED",
-                "HTTP_CLIENT_IP"
-        };
-
-        for (String header : headerNames) {
-            String ip = request.getHeader(header);
-            if (ip != null && !ip.isEmpty() && !"unknown".equalsIgnoreCase(ip)) {
-                // Si hay múltiples IPs, tomar la primera
-                if (ip.contains(",")) {
-                    ip = ip.split(",")[0].trim();
-                }
-                return ip;
-            }
-        }
-
-        return request.getRemoteAddr();
+    public static String getClientIpAddress(HttpServletRequest request) {
+        return request != null ? request.getRemoteAddr() : "unknown";
     }
 
     /**
@@ -323,4 +335,23 @@ public class AccessLogService {
         }
         return request.getSession().getId();
     }
+
+    // ========================================
+    // Paginación por keyset
+    // ========================================
+
+    /**
+     * Posición de un registro en el orden (timestamp, id)
+     */
+    public record LogCursor(LocalDateTime timestamp, Long id) {
+
+        public static LogCursor of(AccessLog entry) {
+            return new LogCursor(entry.getTimestamp(), entry.getId());
+        }
+    }
+
+    /**
+     * Página de registros y si hay más en la dirección consultada
+     */
+    public record LogSlice(List<AccessLog> items, boolean hasMore) {}
 }
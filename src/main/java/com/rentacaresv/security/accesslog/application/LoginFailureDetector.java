@@ -0,0 +1,261 @@
+package com.rentacaresv.security.accesslog.application;
+
+import com.rentacaresv.security.accesslog.infrastructure.AccessLogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Detector en memoria de fuerza bruta en el login.
+ *
+ * Cuenta los logins fallidos por usuario y por IP en una ventana deslizante
+ * dividida en buckets de tiempo, sin consultar access_log en cada intento.
+ * Usuarios e IPs van en mapas separados, cada uno repartido en stripes con su propio
+ * lock y su propio LRU acotado: la memoria no crece con un ataque desde muchas IPs,
+ * y esas IPs no desalojan los contadores de usuario.
+ *
+ * La IP es la de la conexión ({@code request.getRemoteAddr()}), no la de cabeceras como
+ * X-Forwarded-For que el cliente puede inventar en cada intento. Detrás de un proxy de
+ * confianza, server.forward-headers-strategy hace que getRemoteAddr devuelva la IP real.
+ *
+ * Al arrancar se carga la ventana actual desde access_log. Si el bloqueo está
+ * habilitado, {@code LoginThrottleFilter} rechaza el login antes de autenticar.
+ */
+@Component
+@Slf4j
+public class LoginFailureDetector {
+
+    private static final int STRIPES = 32;
+    private static final int BUCKETS = 12;
+
+    private final AccessLogRepository accessLogRepository;
+    private final long windowMillis;
+    private final long bucketMillis;
+    private final int maxUserFailures;
+    private final int maxIpFailures;
+    private final boolean lockoutEnabled;
+    private final Counters userCounters;
+    private final Counters ipCounters;
+
+    public LoginFailureDetector(
+            AccessLogRepository accessLogRepository,
+            @Value("${app.security.brute-force.window-minutes:60}") long windowMinutes,
+            @Value("${app.security.brute-force.max-user-failures:5}") int maxUserFailures,
+            @Value("${app.security.brute-force.max-ip-failures:10}") int maxIpFailures,
+            @Value("${app.security.brute-force.max-tracked-users:10000}") int maxTrackedUsers,
+            @Value("${app.security.brute-force.max-tracked-ips:10000}") int maxTrackedIps,
+            @Value("${app.security.brute-force.lockout-enabled:false}") boolean lockoutEnabled) {
+
+        this.accessLogRepository = accessLogRepository;
+        this.windowMillis = TimeUnit.MINUTES.toMillis(windowMinutes);
+        this.bucketMillis = Math.max(1, windowMillis / BUCKETS);
+        this.maxUserFailures = maxUserFailures;
+        this.maxIpFailures = maxIpFailures;
+        this.lockoutEnabled = lockoutEnabled;
+        this.userCounters = new Counters(maxTrackedUsers);
+        this.ipCounters = new Counters(maxTrackedIps);
+    }
+
+    /**
+     * Carga los logins fallidos de la ventana actual desde access_log
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedFromAccessLog() {
+        LocalDateTime since = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(windowMillis));
+        int seeded = 0;
+        for (Object[] row : accessLogRepository.findFailedLoginsSince(since)) {
+            long when = ((LocalDateTime) row[2]).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            record((String) row[0], (String) row[1], when);
+            seeded++;
+        }
+        if (seeded > 0) {
+            log.info("Detector de fuerza bruta: {} logins fallidos cargados desde el registro de accesos", seeded);
+        }
+    }
+
+    /**
+     * Registra un login fallido
+     *
+     * @return fallos actuales del usuario y de la IP dentro de la ventana
+     */
+    public FailureCounts recordFailure(String username, String ipAddress) {
+        return record(username, ipAddress, System.currentTimeMillis());
+    }
+
+    /**
+     * Login exitoso: reinicia el contador del usuario (el de la IP se mantiene)
+     */
+    public void recordSuccess(String username) {
+        String key = userKey(username);
+        if (key != null) {
+            userCounters.remove(key);
+        }
+    }
+
+    /**
+     * Fallos actuales del usuario y de la IP dentro de la ventana
+     */
+    public FailureCounts getFailures(String username, String ipAddress) {
+        long bucket = System.currentTimeMillis() / bucketMillis;
+        return toCounts(userCounters.count(userKey(username), bucket), ipCounters.count(ipKey(ipAddress), bucket));
+    }
+
+    /**
+     * Indica si hay que rechazar el login sin autenticar (solo con bloqueo habilitado)
+     */
+    public boolean isLockedOut(String username, String ipAddress) {
+        if (!lockoutEnabled) {
+            return false;
+        }
+        FailureCounts counts = getFailures(username, ipAddress);
+        return counts.userOverLimit() || counts.ipOverLimit();
+    }
+
+    // ─── Helpers ───────────────────────────────────────────────────────────────
+
+    private FailureCounts record(String username, String ipAddress, long timeMillis) {
+        long bucket = timeMillis / bucketMillis;
+        long current = currentBucket();
+        return toCounts(userCounters.add(userKey(username), bucket, current),
+                ipCounters.add(ipKey(ipAddress), bucket, current));
+    }
+
+    private long currentBucket() {
+        return System.currentTimeMillis() / bucketMillis;
+    }
+
+    private FailureCounts toCounts(int userFailures, int ipFailures) {
+        return new FailureCounts(userFailures, ipFailures,
+                userFailures >= maxUserFailures, ipFailures >= maxIpFailures);
+    }
+
+    private static String userKey(String username) {
+        return username == null || username.isBlank() ? null : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String ipKey(String ipAddress) {
+        return ipAddress == null || ipAddress.isBlank() || "unknown".equals(ipAddress) ? null : ipAddress;
+    }
+
+    public record FailureCounts(int userFailures, int ipFailures, boolean userOverLimit, boolean ipOverLimit) {}
+
+    /**
+     * Mapa acotado de ventanas por clave, repartido en stripes (null se ignora)
+     */
+    private static final class Counters {
+
+        private final Stripe[] stripes = new Stripe[STRIPES];
+
+        Counters(int maxEntries) {
+            int maxPerStripe = Math.max(1, maxEntries / STRIPES);
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new Stripe(maxPerStripe);
+            }
+        }
+
+        int add(String key, long bucket, long currentBucket) {
+            return key != null ? stripeFor(key).add(key, bucket, currentBucket) : 0;
+        }
+
+        int count(String key, long currentBucket) {
+            return key != null ? stripeFor(key).count(key, currentBucket) : 0;
+        }
+
+        void remove(String key) {
+            stripeFor(key).remove(key);
+        }
+
+        private Stripe stripeFor(String key) {
+            return stripes[Math.floorMod(key.hashCode(), STRIPES)];
+        }
+    }
+
+    /**
+     * Conjunto de claves protegido por un lock, con desalojo LRU
+     */
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Window> windows;
+
+        Stripe(int maxEntries) {
+            this.windows = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        int add(String key, long bucket, long currentBucket) {
+            lock.lock();
+            try {
+                Window window = windows.computeIfAbsent(key, k -> new Window());
+                window.add(bucket);
+                return window.sum(currentBucket);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int count(String key, long currentBucket) {
+            lock.lock();
+            try {
+                Window window = windows.get(key);
+                return window != null ? window.sum(currentBucket) : 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(String key) {
+            lock.lock();
+            try {
+                windows.remove(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Ventana circular de BUCKETS contadores; cada posición recuerda a qué bucket pertenece
+     */
+    private static final class Window {
+
+        private final int[] counts = new int[BUCKETS];
+        private final long[] buckets = new long[BUCKETS];
+
+        void add(long bucket) {
+            int slot = (int) Math.floorMod(bucket, (long) BUCKETS);
+            if (buckets[slot] == bucket) {
+                counts[slot]++;
+            } else if (buckets[slot] < bucket) {
+                buckets[slot] = bucket;
+                counts[slot] = 1;
+            }
+            // Si la posición ya tiene un bucket más nuevo, el evento quedó fuera de la ventana
+        }
+
+        int sum(long currentBucket) {
+            int total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                long age = currentBucket - buckets[i];
+                if (age >= 0 && age < BUCKETS) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+    }
+}
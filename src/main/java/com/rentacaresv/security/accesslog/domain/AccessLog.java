@@ -13,9 +13,10 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "access_log", indexes = {
     @Index(name = "idx_access_log_user", columnList = "user_id"),
-    @Index(name = "idx_access_log_timestamp", columnList = "timestamp"),
-    @Index(name = "idx_access_log_event_type", columnList = "event_type"),
-    @Index(name = "idx_access_log_username", columnList = "username")
+    @Index(name = "idx_access_log_timestamp_id", columnList = "timestamp, id"),
+    @Index(name = "idx_access_log_username_event_ts", columnList = "username, event_type, timestamp"),
+    @Index(name = "idx_access_log_event_ts", columnList = "event_type, timestamp"),
+    @Index(name = "idx_access_log_ip_event_ts", columnList = "ip_address, event_type, timestamp")
 })
 @Getter
 @Setter
@@ -0,0 +1,82 @@
+package com.rentacaresv.security.accesslog.infrastructure;
+
+import com.rentacaresv.security.accesslog.domain.AccessLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escritura por lotes (JDBC batch) de registros de acceso y del último login
+ * de los usuarios (Infrastructure Layer)
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccessLogBatchWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO access_log
+                (user_id, username, event_type, `timestamp`, ip_address, user_agent, session_id, details, success)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Nunca retrocede la fecha si ya había un login posterior guardado
+    private static final String UPDATE_LAST_LOGIN_SQL = """
+            UPDATE `user`
+            SET last_login = GREATEST(COALESCE(last_login, ?), ?)
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserta todos los registros en un único batch
+     *
+     * @return cantidad de registros enviados
+     */
+    public int insertBatch(List<AccessLog> logs) {
+        if (logs.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, logs.size(), (ps, l) -> {
+            if (l.getUser() != null && l.getUser().getId() != null) {
+                ps.setLong(1, l.getUser().getId());
+            } else {
+                ps.setNull(1, Types.BIGINT);
+            }
+            ps.setString(2, l.getUsername());
+            ps.setString(3, l.getEventType().name());
+            LocalDateTime timestamp = l.getTimestamp() != null ? l.getTimestamp() : LocalDateTime.now();
+            ps.setTimestamp(4, Timestamp.valueOf(timestamp));
+            ps.setString(5, l.getIpAddress());
+            ps.setString(6, l.getUserAgent());
+            ps.setString(7, l.getSessionId());
+            ps.setString(8, l.getDetails());
+            ps.setBoolean(9, l.getSuccess() == null || l.getSuccess());
+        });
+        return logs.size();
+    }
+
+    /**
+     * Actualiza el último login de varios usuarios en un único batch
+     */
+    public void updateLastLogins(Map<Long, LocalDateTime> lastLogins) {
+        if (lastLogins.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(lastLogins.size());
+        lastLogins.forEach((userId, lastLogin) -> {
+            Timestamp ts = Timestamp.valueOf(lastLogin);
+            args.add(new Object[]{ts, ts, userId});
+        });
+        jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN_SQL, args);
+    }
+}
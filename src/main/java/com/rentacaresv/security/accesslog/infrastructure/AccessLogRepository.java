@@ -6,7 +6,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -18,6 +17,15 @@ import java.util.List;
  */
 public interface AccessLogRepository extends JpaRepository<AccessLog, Long>, JpaSpecificationExecutor<AccessLog> {
 
+    /**
+     * Filtros comunes de las búsquedas por keyset
+     */
+    String SEARCH_FILTERS =
+            "(:username IS NULL OR LOWER(a.username) LIKE LOWER(CONCAT('%', :username, '%'))) AND " +
+            "(:eventType IS NULL OR a.eventType = :eventType) AND " +
+            "(:startDate IS NULL OR a.timestamp >= :startDate) AND " +
+            "(:endDate IS NULL OR a.timestamp <= :endDate) ";
+
     /**
      * Encuentra logs por usuario
      */
@@ -55,6 +63,14 @@ public interface AccessLogRepository extends JpaRepository<AccessLog, Long>, Jpa
            "AND a.eventType = 'LOGIN_FAILED' AND a.timestamp > :since")
     long countFailedLoginsSince(@Param("username") String username, @Param("since") LocalDateTime since);
 
+    /**
+     * Logins fallidos desde una fecha (para cargar el detector de fuerza bruta).
+     * Columnas: username, ipAddress, timestamp
+     */
+    @Query("SELECT a.username, a.ipAddress, a.timestamp FROM AccessLog a " +
+           "WHERE a.eventType = 'LOGIN_FAILED' AND a.timestamp > :since")
+    List<Object[]> findFailedLoginsSince(@Param("since") LocalDateTime since);
+
     /**
      * Encuentra logs por IP
      */
@@ -84,11 +100,45 @@ public interface AccessLogRepository extends JpaRepository<AccessLog, Long>, Jpa
             Pageable pageable);
 
     /**
-     * Elimina logs antiguos (para mantenimiento)
+     * Búsqueda con filtros por keyset: registros más antiguos que el cursor (timestamp, id),
+     * del más reciente al más antiguo. Sin cursor devuelve los más recientes.
+     */
+    @Query("SELECT a FROM AccessLog a WHERE " + SEARCH_FILTERS +
+           "AND (:cursorTimestamp IS NULL OR (a.timestamp <= :cursorTimestamp " +
+           "     AND (a.timestamp < :cursorTimestamp OR a.id < :cursorId))) " +
+           "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AccessLog> searchLogsOlderThan(
+            @Param("username") String username,
+            @Param("eventType") AccessEventType eventType,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("cursorTimestamp") LocalDateTime cursorTimestamp,
+            @Param("cursorId") Long cursorId,
+            Pageable limit);
+
+    /**
+     * Búsqueda con filtros por keyset: registros más recientes que el cursor (timestamp, id),
+     * del más antiguo al más reciente
+     */
+    @Query("SELECT a FROM AccessLog a WHERE " + SEARCH_FILTERS +
+           "AND a.timestamp >= :cursorTimestamp " +
+           "AND (a.timestamp > :cursorTimestamp OR a.id > :cursorId) " +
+           "ORDER BY a.timestamp ASC, a.id ASC")
+    List<AccessLog> searchLogsNewerThan(
+            @Param("username") String username,
+            @Param("eventType") AccessEventType eventType,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("cursorTimestamp") LocalDateTime cursorTimestamp,
+            @Param("cursorId") Long cursorId,
+            Pageable limit);
+
+    /**
+     * Cantidad aproximada de registros según las estadísticas de la tabla (sin COUNT)
      */
-    @Modifying
-    @Query("DELETE FROM AccessLog a WHERE a.timestamp < :beforeDate")
-    int deleteLogsOlderThan(@Param("beforeDate") LocalDateTime beforeDate);
+    @Query(value = "SELECT TABLE_ROWS FROM information_schema.TABLES " +
+                   "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'access_log'", nativeQuery = true)
+    Long estimateRowCount();
 
     /**
      * Estadísticas: cuenta por tipo de evento en un período
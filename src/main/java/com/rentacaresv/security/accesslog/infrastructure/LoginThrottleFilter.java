@@ -0,0 +1,45 @@
+package com.rentacaresv.security.accesslog.infrastructure;
+
+import com.rentacaresv.security.accesslog.application.LoginFailureDetector;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rechaza el POST de login de usuarios o IPs bloqueados por
+ * {@link LoginFailureDetector}, antes de que la autenticación consulte la BD
+ * o calcule BCrypt. Se registra en la cadena de seguridad (no como @Component).
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private final LoginFailureDetector loginFailureDetector;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !"/login".equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String username = request.getParameter("username");
+        // IP de la conexión: las cabeceras de proxy las controla el cliente
+        String ipAddress = request.getRemoteAddr();
+
+        if (loginFailureDetector.isLockedOut(username, ipAddress)) {
+            log.warn("Login bloqueado por intentos fallidos: {} desde {}", username, ipAddress);
+            response.sendRedirect(request.getContextPath() + "/login?error");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
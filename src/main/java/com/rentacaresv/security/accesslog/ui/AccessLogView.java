@@ -1,6 +1,8 @@
 package com.rentacaresv.security.accesslog.ui;
 
 import com.rentacaresv.security.accesslog.application.AccessLogService;
+import com.rentacaresv.security.accesslog.application.AccessLogService.LogCursor;
+import com.rentacaresv.security.accesslog.application.AccessLogService.LogSlice;
 import com.rentacaresv.security.accesslog.domain.AccessEventType;
 import com.rentacaresv.security.accesslog.domain.AccessLog;
 import com.rentacaresv.views.MainLayout;
@@ -25,12 +27,8 @@ import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import jakarta.annotation.security.RolesAllowed;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.vaadin.lineawesome.LineAwesomeIconUrl;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
@@ -56,13 +54,16 @@ public class AccessLogView extends VerticalLayout {
     private DatePicker startDateFilter;
     private DatePicker endDateFilter;
 
-    // Paginación
-    private int currentPage = 0;
+    // Paginación por keyset (timestamp, id): sin OFFSET ni COUNT
     private final int pageSize = 50;
+    private int pageNumber = 1;
+    private LogCursor firstCursor;
+    private LogCursor lastCursor;
+    private boolean hasOlder;
     private Span pageInfo;
+    private Button firstButton;
     private Button prevButton;
     private Button nextButton;
-    private long totalElements;
 
     private static final DateTimeFormatter DATE_TIME_FORMATTER = 
             DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
@@ -124,35 +125,23 @@ public class AccessLogView extends VerticalLayout {
         usernameFilter.setClearButtonVisible(true);
         usernameFilter.setValueChangeMode(ValueChangeMode.LAZY);
         usernameFilter.setValueChangeTimeout(500);
-        usernameFilter.addValueChangeListener(e -> {
-            currentPage = 0;
-            refreshGrid();
-        });
+        usernameFilter.addValueChangeListener(e -> refreshGrid());
 
         eventTypeFilter = new ComboBox<>("Tipo de Evento");
         eventTypeFilter.setItems(AccessEventType.values());
         eventTypeFilter.setItemLabelGenerator(AccessEventType::getDescription);
         eventTypeFilter.setClearButtonVisible(true);
-        eventTypeFilter.addValueChangeListener(e -> {
-            currentPage = 0;
-            refreshGrid();
-        });
+        eventTypeFilter.addValueChangeListener(e -> refreshGrid());
 
         startDateFilter = new DatePicker("Desde");
         startDateFilter.setLocale(new Locale("es", "SV"));
         startDateFilter.setClearButtonVisible(true);
-        startDateFilter.addValueChangeListener(e -> {
-            currentPage = 0;
-            refreshGrid();
-        });
+        startDateFilter.addValueChangeListener(e -> refreshGrid());
 
         endDateFilter = new DatePicker("Hasta");
         endDateFilter.setLocale(new Locale("es", "SV"));
         endDateFilter.setClearButtonVisible(true);
-        endDateFilter.addValueChangeListener(e -> {
-            currentPage = 0;
-            refreshGrid();
-        });
+        endDateFilter.addValueChangeListener(e -> refreshGrid());
 
         Button clearFilters = new Button("Limpiar", VaadinIcon.CLOSE_SMALL.create());
         clearFilters.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
@@ -161,7 +150,6 @@ public class AccessLogView extends VerticalLayout {
             eventTypeFilter.clear();
             startDateFilter.clear();
             endDateFilter.clear();
-            currentPage = 0;
             refreshGrid();
         });
 
@@ -270,28 +258,24 @@ public class AccessLogView extends VerticalLayout {
     }
 
     private HorizontalLayout createPagination() {
+        firstButton = new Button(VaadinIcon.ANGLE_DOUBLE_LEFT.create());
+        firstButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+        firstButton.setTooltipText("Más recientes");
+        firstButton.addClickListener(e -> refreshGrid());
+
         prevButton = new Button(VaadinIcon.ANGLE_LEFT.create());
         prevButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
-        prevButton.addClickListener(e -> {
-            if (currentPage > 0) {
-                currentPage--;
-                refreshGrid();
-            }
-        });
+        prevButton.setTooltipText("Página anterior");
+        prevButton.addClickListener(e -> loadNewerPage());
 
         nextButton = new Button(VaadinIcon.ANGLE_RIGHT.create());
         nextButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
-        nextButton.addClickListener(e -> {
-            int totalPages = (int) Math.ceil((double) totalElements / pageSize);
-            if (currentPage < totalPages - 1) {
-                currentPage++;
-                refreshGrid();
-            }
-        });
+        nextButton.setTooltipText("Página siguiente");
+        nextButton.addClickListener(e -> loadOlderPage());
 
         pageInfo = new Span();
 
-        HorizontalLayout pagination = new HorizontalLayout(prevButton, pageInfo, nextButton);
+        HorizontalLayout pagination = new HorizontalLayout(firstButton, prevButton, pageInfo, nextButton);
         pagination.setAlignItems(FlexComponent.Alignment.CENTER);
         pagination.setJustifyContentMode(FlexComponent.JustifyContentMode.CENTER);
         pagination.setWidthFull();
@@ -299,38 +283,85 @@ public class AccessLogView extends VerticalLayout {
         return pagination;
     }
 
+    /**
+     * Vuelve a la primera página (registros más recientes) con los filtros actuales
+     */
     private void refreshGrid() {
-        // Obtener valores de filtros
-        String username = usernameFilter.getValue();
-        if (username != null && username.isEmpty()) username = null;
-
-        AccessEventType eventType = eventTypeFilter.getValue();
+        pageNumber = 1;
+        LogSlice slice = accessLogService.searchLogsOlderThan(
+                usernameValue(), eventTypeFilter.getValue(), startDateValue(), endDateValue(), null, pageSize);
+        showPage(slice.items(), slice.hasMore());
+    }
 
-        LocalDateTime startDate = null;
-        LocalDateTime endDate = null;
+    private void loadOlderPage() {
+        if (!hasOlder || lastCursor == null) {
+            return;
+        }
+        LogSlice slice = accessLogService.searchLogsOlderThan(
+                usernameValue(), eventTypeFilter.getValue(), startDateValue(), endDateValue(), lastCursor, pageSize);
+        if (slice.items().isEmpty()) {
+            hasOlder = false;
+            nextButton.setEnabled(false);
+            return;
+        }
+        pageNumber++;
+        showPage(slice.items(), slice.hasMore());
+    }
 
-        if (startDateFilter.getValue() != null) {
-            startDate = startDateFilter.getValue().atStartOfDay();
+    private void loadNewerPage() {
+        if (pageNumber <= 1 || firstCursor == null) {
+            return;
+        }
+        LogSlice slice = accessLogService.searchLogsNewerThan(
+                usernameValue(), eventTypeFilter.getValue(), startDateValue(), endDateValue(), firstCursor, pageSize);
+        if (!slice.hasMore() || slice.items().size() < pageSize) {
+            // Llegamos a los más recientes: recargar la primera página completa
+            refreshGrid();
+            return;
         }
+        pageNumber--;
+        showPage(slice.items(), true);
+    }
 
-        if (endDateFilter.getValue() != null) {
-            endDate = endDateFilter.getValue().atTime(LocalTime.MAX);
+    private void showPage(List<AccessLog> items, boolean older) {
+        grid.setItems(items);
+        firstCursor = items.isEmpty() ? null : LogCursor.of(items.get(0));
+        lastCursor = items.isEmpty() ? null : LogCursor.of(items.get(items.size() - 1));
+        hasOlder = older;
+
+        firstButton.setEnabled(pageNumber > 1);
+        prevButton.setEnabled(pageNumber > 1);
+        nextButton.setEnabled(hasOlder);
+
+        long from = (long) (pageNumber - 1) * pageSize + 1;
+        long to = from + items.size() - 1;
+        String range = items.isEmpty() ? "Sin registros" : String.format("Registros %d–%d", from, to);
+        if (hasFilters()) {
+            pageInfo.setText(String.format("Página %d · %s", pageNumber, range));
+        } else {
+            // Total aproximado de las estadísticas de la tabla (evita un COUNT por página)
+            pageInfo.setText(String.format("Página %d · %s de ≈%d", pageNumber, range,
+                    Math.max(accessLogService.estimateTotalLogs(), to)));
         }
+    }
+
+    // ─── Valores de filtros ────────────────────────────────────────────────────
+
+    private String usernameValue() {
+        String username = usernameFilter.getValue();
+        return username != null && !username.isEmpty() ? username : null;
+    }
+
+    private LocalDateTime startDateValue() {
+        return startDateFilter.getValue() != null ? startDateFilter.getValue().atStartOfDay() : null;
+    }
+
+    private LocalDateTime endDateValue() {
+        return endDateFilter.getValue() != null ? endDateFilter.getValue().atTime(LocalTime.MAX) : null;
+    }
 
-        // Consultar con filtros y paginación
-        PageRequest pageRequest = PageRequest.of(currentPage, pageSize, Sort.by(Sort.Direction.DESC, "timestamp"));
-        Page<AccessLog> page = accessLogService.searchLogs(username, eventType, startDate, endDate, pageRequest);
-
-        grid.setItems(page.getContent());
-        totalElements = page.getTotalElements();
-
-        // Actualizar paginación
-        int totalPages = page.getTotalPages();
-        prevButton.setEnabled(currentPage > 0);
-        nextButton.setEnabled(currentPage < totalPages - 1);
-        pageInfo.setText(String.format("Página %d de %d (%d registros)",
-                currentPage + 1,
-                Math.max(totalPages, 1),
-                totalElements));
+    private boolean hasFilters() {
+        return usernameValue() != null || eventTypeFilter.getValue() != null
+                || startDateFilter.getValue() != null || endDateFilter.getValue() != null;
     }
 }
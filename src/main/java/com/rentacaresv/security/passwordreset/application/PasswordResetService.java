@@ -6,6 +6,7 @@ import com.rentacaresv.security.passwordreset.domain.PasswordResetToken;
 import com.rentacaresv.security.passwordreset.infrastructure.PasswordResetTokenRepository;
 import com.rentacaresv.settings.application.DynamicMailService;
 import com.rentacaresv.settings.application.SettingsCache;
+import com.rentacaresv.shared.infrastructure.ChunkedPurger;
 import com.rentacaresv.user.domain.User;
 import com.rentacaresv.user.infrastructure.UserRepository;
 import jakarta.mail.MessagingException;
@@ -34,6 +35,7 @@ public class PasswordResetService {
     private final PasswordEncoder passwordEncoder;
     private final SettingsCache settingsCache;
     private final AccessLogService accessLogService;
+    private final ChunkedPurger chunkedPurger;
 
     @Value("${app.base-url:http://localhost:8091}")
     private String baseUrl;
@@ -260,12 +262,11 @@ public class PasswordResetService {
      * Limpia tokens expirados (ejecutado diariamente a las 4 AM)
      */
     @Scheduled(cron = "0 0 4 * * ?")
-    @Transactional
     public void cleanupExpiredTokens() {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(7); // Mantener 7 días después de expirar
-        int deleted = tokenRepository.deleteExpiredTokens(cutoffDate);
-        if (deleted > 0) {
-            log.info("Limpieza de tokens de recuperación: {} tokens eliminados", deleted);
+        ChunkedPurger.PurgeResult result = chunkedPurger.purge("password_reset_token", "id", "expires_at < ?", cutoffDate);
+        if (result.rowsDeleted() > 0) {
+            log.info("Limpieza de tokens de recuperación: {} tokens eliminados", result.rowsDeleted());
         }
     }
 
@@ -39,13 +39,6 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
     @Query("UPDATE PasswordResetToken t SET t.used = true, t.usedAt = :now WHERE t.user = :user AND t.used = false")
     int invalidateAllUserTokens(@Param("user") User user, @Param("now") LocalDateTime now);
 
-    /**
-     * Elimina tokens expirados (para limpieza)
-     */
-    @Modifying
-    @Query("DELETE FROM PasswordResetToken t WHERE t.expiresAt < :beforeDate")
-    int deleteExpiredTokens(@Param("beforeDate") LocalDateTime beforeDate);
-
     /**
      * Cuenta tokens creados por un usuario en las últimas N horas (para rate limiting)
      */
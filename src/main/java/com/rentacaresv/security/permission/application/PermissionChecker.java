@@ -1,18 +1,26 @@
 package com.rentacaresv.security.permission.application;
 
 import com.rentacaresv.security.AuthenticatedUser;
+import com.rentacaresv.security.CurrentUser;
 import com.rentacaresv.security.permission.domain.Permission;
 import com.rentacaresv.user.domain.User;
+import com.vaadin.flow.server.VaadinSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumSet;
 import java.util.Optional;
 import java.util.Set;
 
 /**
  * Servicio para verificar permisos del usuario actual.
  * Diseñado para ser inyectado en vistas y componentes de UI.
+ *
+ * Los permisos efectivos del usuario se resuelven una vez y se guardan en la
+ * VaadinSession; cada verificación posterior es una prueba de bit sobre un EnumSet.
+ * Se vuelven a resolver si cambia el usuario autenticado o la generación de
+ * permisos de {@link RolePermissionService}, que sigue los cambios de todos los nodos.
  */
 @Service
 @RequiredArgsConstructor
@@ -26,24 +34,22 @@ public class PermissionChecker {
      * Verifica si el usuario actual tiene un permiso específico
      */
     public boolean hasPermission(Permission permission) {
-        Optional<User> userOpt = authenticatedUser.get();
-        if (userOpt.isEmpty()) {
-            return false;
-        }
-        return rolePermissionService.userHasPermission(userOpt.get(), permission);
+        return resolveCurrent()
+                .map(resolved -> resolved.permissions().contains(permission))
+                .orElse(false);
     }
 
     /**
      * Verifica si el usuario actual tiene alguno de los permisos especificados
      */
     public boolean hasAnyPermission(Permission... permissions) {
-        Optional<User> userOpt = authenticatedUser.get();
-        if (userOpt.isEmpty()) {
+        Optional<ResolvedPermissions> resolved = resolveCurrent();
+        if (resolved.isEmpty()) {
             return false;
         }
-        User user = userOpt.get();
+        EnumSet<Permission> granted = resolved.get().permissions();
         for (Permission permission : permissions) {
-            if (rolePermissionService.userHasPermission(user, permission)) {
+            if (granted.contains(permission)) {
                 return true;
             }
         }
@@ -54,13 +60,13 @@ public class PermissionChecker {
      * Verifica si el usuario actual tiene todos los permisos especificados
      */
     public boolean hasAllPermissions(Permission... permissions) {
-        Optional<User> userOpt = authenticatedUser.get();
-        if (userOpt.isEmpty()) {
+        Optional<ResolvedPermissions> resolved = resolveCurrent();
+        if (resolved.isEmpty()) {
             return false;
         }
-        User user = userOpt.get();
+        EnumSet<Permission> granted = resolved.get().permissions();
         for (Permission permission : permissions) {
-            if (!rolePermissionService.userHasPermission(user, permission)) {
+            if (!granted.contains(permission)) {
                 return false;
             }
         }
@@ -71,19 +77,16 @@ public class PermissionChecker {
      * Obtiene todos los permisos del usuario actual
      */
     public Set<Permission> getCurrentUserPermissions() {
-        Optional<User> userOpt = authenticatedUser.get();
-        if (userOpt.isEmpty()) {
-            return Set.of();
-        }
-        return rolePermissionService.getUserPermissions(userOpt.get());
+        return resolveCurrent()
+                .<Set<Permission>>map(resolved -> EnumSet.copyOf(resolved.permissions()))
+                .orElse(Set.of());
     }
 
     /**
      * Verifica si el usuario actual es administrador
      */
     public boolean isAdmin() {
-        Optional<User> userOpt = authenticatedUser.get();
-        return userOpt.isPresent() && userOpt.get().isAdmin();
+        return resolveCurrent().map(ResolvedPermissions::admin).orElse(false);
     }
 
     /**
@@ -92,4 +95,61 @@ public class PermissionChecker {
     public Optional<User> getCurrentUser() {
         return authenticatedUser.get();
     }
+
+    // ========================================
+    // Resolución cacheada por sesión
+    // ========================================
+
+    /**
+     * Obtiene los permisos resueltos del usuario actual, reutilizando los
+     * guardados en la VaadinSession mientras sigan vigentes
+     */
+    private Optional<ResolvedPermissions> resolveCurrent() {
+        Optional<String> username = authenticatedUser.getUsername();
+        if (username.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long generation = rolePermissionService.getPermissionsGeneration();
+        VaadinSession session = VaadinSession.getCurrent();
+        if (session != null) {
+            ResolvedPermissions cached = session.getAttribute(ResolvedPermissions.class);
+            if (cached != null && cached.isValidFor(username.get(), generation)) {
+                return Optional.of(cached);
+            }
+            if (cached != null && cached.username().equals(username.get())) {
+                // Cambiaron roles o usuarios (quizá en otro nodo): los roles del usuario
+                // cacheados en sesión también pueden estar desactualizados
+                authenticatedUser.invalidate(username.get());
+            }
+        }
+
+        Optional<CurrentUser> userOpt = authenticatedUser.getCurrentUser();
+        if (userOpt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        CurrentUser user = userOpt.get();
+        ResolvedPermissions resolved = new ResolvedPermissions(
+                user.username(),
+                user.isAdmin(),
+                rolePermissionService.resolvePermissions(user.roles()),
+                generation
+        );
+        if (session != null) {
+            session.setAttribute(ResolvedPermissions.class, resolved);
+        }
+        return Optional.of(resolved);
+    }
+
+    /**
+     * Permisos efectivos de un usuario para una generación de permisos concreta
+     */
+    private record ResolvedPermissions(String username, boolean admin,
+                                       EnumSet<Permission> permissions, long generation) {
+
+        boolean isValidFor(String currentUsername, long currentGeneration) {
+            return generation == currentGeneration && username.equals(currentUsername);
+        }
+    }
 }
@@ -1,26 +1,55 @@
 package com.rentacaresv.security.permission.application;
 
+import com.rentacaresv.security.Role;
 import com.rentacaresv.security.permission.domain.Permission;
 import com.rentacaresv.security.permission.domain.SystemRole;
+import com.rentacaresv.security.permission.infrastructure.PermissionGenerationRepository;
 import com.rentacaresv.security.permission.infrastructure.SystemRoleRepository;
 import com.rentacaresv.user.domain.User;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
- * Servicio para gestión de roles y permisos
+ * Servicio para gestión de roles y permisos.
+ *
+ * Los permisos de cada rol se mantienen en memoria (nombre de rol → EnumSet) y se
+ * recargan completos tras cualquier cambio en roles o permisos. Cada cambio
+ * incrementa una generación que permite a {@link PermissionChecker} saber cuándo
+ * debe volver a resolver los permisos cacheados en la sesión.
+ *
+ * La generación también se incrementa en BD (tabla permission_generation) dentro de la
+ * transacción del cambio. Cada nodo la consulta periódicamente y, si otro nodo la cambió,
+ * descarta los roles de la cache de segundo nivel y sus permisos en memoria.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RolePermissionService {
 
+    /** Región de la cache de consultas de roles (ver SystemRoleRepository) */
+    private static final String SECURITY_QUERY_REGION = "security-queries";
+
     private final SystemRoleRepository roleRepository;
+    private final PermissionGenerationRepository generationRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final AtomicLong permissionsGeneration = new AtomicLong();
+    private volatile CachedRolePermissions rolePermissionsCache;
+
+    /** Última generación leída de BD (null hasta la primera consulta) */
+    private volatile Long lastSeenDbGeneration;
 
     // ========================================
     // Operaciones de Roles
@@ -76,6 +105,7 @@ public class RolePermissionService {
 
         SystemRole saved = roleRepository.save(role);
         log.info("Rol creado: {} ({})", displayName, name);
+        invalidatePermissionCache();
         return saved;
     }
 
@@ -93,6 +123,7 @@ public class RolePermissionService {
 
         SystemRole saved = roleRepository.save(role);
         log.info("Rol actualizado: {}", displayName);
+        invalidatePermissionCache();
         return saved;
     }
 
@@ -110,6 +141,7 @@ public class RolePermissionService {
 
         roleRepository.delete(role);
         log.info("Rol eliminado: {}", role.getDisplayName());
+        invalidatePermissionCache();
     }
 
     /**
@@ -123,6 +155,7 @@ public class RolePermissionService {
         role.setActive(!role.getActive());
         roleRepository.save(role);
         log.info("Rol {} {}", role.getDisplayName(), role.getActive() ? "activado" : "desactivado");
+        invalidatePermissionCache();
     }
 
     // ========================================
@@ -157,6 +190,7 @@ public class RolePermissionService {
         role.setAllPermissions(permissions);
         roleRepository.save(role);
         log.info("Permisos actualizados para rol {}: {} permisos", role.getDisplayName(), permissions.size());
+        invalidatePermissionCache();
     }
 
     /**
@@ -170,6 +204,7 @@ public class RolePermissionService {
         role.addPermission(permission);
         roleRepository.save(role);
         log.info("Permiso {} agregado al rol {}", permission.name(), role.getDisplayName());
+        invalidatePermissionCache();
     }
 
     /**
@@ -183,6 +218,7 @@ public class RolePermissionService {
         role.removePermission(permission);
         roleRepository.save(role);
         log.info("Permiso {} removido del rol {}", permission.name(), role.getDisplayName());
+        invalidatePermissionCache();
     }
 
     // ========================================
@@ -202,10 +238,11 @@ public class RolePermissionService {
             return true;
         }
 
-        // Buscar en los roles del usuario
+        // Buscar en los roles del usuario (desde cache)
+        Map<String, EnumSet<Permission>> rolePermissions = getRolePermissionsMap();
         for (var role : user.getRoles()) {
-            Optional<SystemRole> systemRole = roleRepository.findByName(role.name());
-            if (systemRole.isPresent() && systemRole.get().hasPermission(permission)) {
+            EnumSet<Permission> permissions = rolePermissions.get(role.name());
+            if (permissions != null && permissions.contains(permission)) {
                 return true;
             }
         }
@@ -220,21 +257,137 @@ public class RolePermissionService {
         if (user == null) {
             return Collections.emptySet();
         }
+        return resolvePermissions(user);
+    }
+
+    /**
+     * Resuelve los permisos efectivos de un usuario como EnumSet (un bit por permiso).
+     * El resultado es una copia que el llamador puede conservar.
+     */
+    public EnumSet<Permission> resolvePermissions(User user) {
+        if (user == null) {
+            return EnumSet.noneOf(Permission.class);
+        }
+        return resolvePermissions(user.getRoles());
+    }
+
+    /**
+     * Resuelve los permisos efectivos para un conjunto de roles de usuario
+     */
+    public EnumSet<Permission> resolvePermissions(Set<Role> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return EnumSet.noneOf(Permission.class);
+        }
 
         // Los usuarios con rol ADMIN tienen todos los permisos
-        if (user.isAdmin()) {
-            return new HashSet<>(Arrays.asList(Permission.values()));
+        if (roles.contains(Role.ADMIN)) {
+            return EnumSet.allOf(Permission.class);
         }
 
-        Set<Permission> permissions = new HashSet<>();
-        for (var role : user.getRoles()) {
-            Optional<SystemRole> systemRole = roleRepository.findByName(role.name());
-            systemRole.ifPresent(sr -> permissions.addAll(sr.getPermissions()));
+        Map<String, EnumSet<Permission>> rolePermissions = getRolePermissionsMap();
+        EnumSet<Permission> permissions = EnumSet.noneOf(Permission.class);
+        for (var role : roles) {
+            EnumSet<Permission> granted = rolePermissions.get(role.name());
+            if (granted != null) {
+                permissions.addAll(granted);
+            }
         }
 
         return permissions;
     }
 
+    // ========================================
+    // Cache de Permisos
+    // ========================================
+
+    /**
+     * Generación actual de permisos. Cambia cada vez que se invalida el cache,
+     * de modo que los permisos resueltos con una generación anterior son obsoletos.
+     */
+    public long getPermissionsGeneration() {
+        return permissionsGeneration.get();
+    }
+
+    /**
+     * Invalida el cache de permisos por rol.
+     * Si hay una transacción activa, se invalida de nuevo al confirmar para que
+     * ninguna lectura concurrente deje en cache datos previos al commit.
+     */
+    public void invalidatePermissionCache() {
+        generationRepository.increment();
+        permissionsGeneration.incrementAndGet();
+        rolePermissionsCache = null;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    permissionsGeneration.incrementAndGet();
+                    rolePermissionsCache = null;
+                }
+            });
+        }
+    }
+
+    /**
+     * Detecta cambios de roles, permisos o usuarios hechos en otros nodos comparando la
+     * generación en BD con la última vista. Si cambió, descarta los roles de la cache de
+     * segundo nivel (su TTL queda solo como respaldo) e invalida los permisos en memoria,
+     * lo que obliga a las sesiones a resolverlos de nuevo.
+     * Intervalo configurable con {@code app.security.permissions.refresh-interval-ms} (por defecto 5 s).
+     */
+    @Scheduled(fixedDelayString = "${app.security.permissions.refresh-interval-ms:5000}")
+    public void checkForRemoteChanges() {
+        try {
+            long dbGeneration = generationRepository.current();
+            Long previous = lastSeenDbGeneration;
+            lastSeenDbGeneration = dbGeneration;
+            if (previous == null || previous == dbGeneration) {
+                return;
+            }
+
+            log.info("🔄 Permisos modificados (generación {} → {}). Recargando...", previous, dbGeneration);
+            Cache secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            secondLevelCache.evictEntityData(SystemRole.class);
+            secondLevelCache.evictCollectionData(SystemRole.class.getName() + ".permissions");
+            secondLevelCache.evictQueryRegion(SECURITY_QUERY_REGION);
+            permissionsGeneration.incrementAndGet();
+            rolePermissionsCache = null;
+        } catch (Exception e) {
+            log.warn("No se pudo verificar la generación de permisos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene el mapa rol → permisos, cargándolo de BD solo si no está vigente
+     */
+    private Map<String, EnumSet<Permission>> getRolePermissionsMap() {
+        CachedRolePermissions cached = rolePermissionsCache;
+        long generation = permissionsGeneration.get();
+        if (cached != null && cached.generation() == generation) {
+            return cached.permissionsByRole();
+        }
+
+        Map<String, EnumSet<Permission>> loaded = new HashMap<>();
+        for (SystemRole role : roleRepository.findAll()) {
+            EnumSet<Permission> permissions = EnumSet.noneOf(Permission.class);
+            if (role.getPermissions() != null) {
+                permissions.addAll(role.getPermissions());
+            }
+            loaded.put(role.getName(), permissions);
+        }
+
+        Map<String, EnumSet<Permission>> permissionsByRole = Collections.unmodifiableMap(loaded);
+        rolePermissionsCache = new CachedRolePermissions(generation, permissionsByRole);
+        log.debug("Cache de permisos por rol cargado: {} roles", permissionsByRole.size());
+        return permissionsByRole;
+    }
+
+    /**
+     * Mapa de permisos por rol junto con la generación con la que se cargó
+     */
+    private record CachedRolePermissions(long generation, Map<String, EnumSet<Permission>> permissionsByRole) {}
+
     // ========================================
     // Inicialización de Roles del Sistema
     // ========================================
@@ -317,5 +470,7 @@ public class RolePermissionService {
             roleRepository.save(agent);
             log.info("Rol AGENT inicializado con permisos de entrega");
         }
+
+        invalidatePermissionCache();
     }
 }
@@ -2,6 +2,8 @@ package com.rentacaresv.security.permission.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -13,6 +15,8 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "system_role")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "security-roles")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -48,6 +52,7 @@ public class SystemRole {
     private Boolean active = true;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "security-role-permissions")
     @CollectionTable(
         name = "role_permissions",
         joinColumns = @JoinColumn(name = "role_id")
@@ -0,0 +1,33 @@
+package com.rentacaresv.security.permission.infrastructure;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Generación de permisos compartida por todos los nodos (tabla permission_generation, una fila).
+ * No es entidad JPA para que nunca se sirva desde la cache de segundo nivel.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PermissionGenerationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Generación actual en BD
+     */
+    public long current() {
+        Long generation = jdbcTemplate.queryForObject(
+                "SELECT generation FROM permission_generation WHERE id = 1", Long.class);
+        return generation != null ? generation : 0L;
+    }
+
+    /**
+     * Incrementa la generación; participa en la transacción activa, así los demás nodos
+     * solo ven el cambio cuando se confirma junto con los datos modificados
+     */
+    public void increment() {
+        jdbcTemplate.update("UPDATE permission_generation SET generation = generation + 1 WHERE id = 1");
+    }
+}
@@ -1,8 +1,11 @@
 package com.rentacaresv.security.permission.infrastructure;
 
 import com.rentacaresv.security.permission.domain.SystemRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
@@ -26,6 +29,10 @@ public interface SystemRoleRepository extends JpaRepository<SystemRole, Long> {
     /**
      * Encuentra todos los roles activos
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "security-queries")
+    })
     @Query("SELECT r FROM SystemRole r WHERE r.active = true ORDER BY r.displayName")
     List<SystemRole> findAllActive();
 
@@ -1,6 +1,5 @@
 package com.rentacaresv.settings.application;
 
-import com.rentacaresv.settings.domain.Settings;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
@@ -51,7 +50,7 @@ public class DynamicMailService {
     public void sendEmail(String to, String subject, String htmlContent, 
                           String attachmentName, byte[] attachmentData) throws MessagingException {
         
-        Settings settings = settingsCache.getSettings();
+        SettingsSnapshot settings = settingsCache.getSnapshot();
         
         // Validar configuración
         if (!isEmailEnabled()) {
@@ -73,12 +72,12 @@ public class DynamicMailService {
         
         try {
             // Configurar From con nombre
-            String fromEmail = settings.getMailFrom() != null ? settings.getMailFrom() : settings.getMailUsername();
-            String fromName = settings.getMailFromName() != null ? settings.getMailFromName() : settings.getCompanyName();
+            String fromEmail = settings.mailFrom() != null ? settings.mailFrom() : settings.mailUsername();
+            String fromName = settings.mailFromName() != null ? settings.mailFromName() : settings.companyName();
             helper.setFrom(new InternetAddress(fromEmail, fromName));
         } catch (UnsupportedEncodingException e) {
             // Fallback sin nombre
-            helper.setFrom(settings.getMailFrom() != null ? settings.getMailFrom() : settings.getMailUsername());
+            helper.setFrom(settings.mailFrom() != null ? settings.mailFrom() : settings.mailUsername());
         }
         
         helper.setTo(to);
@@ -91,7 +90,7 @@ public class DynamicMailService {
         }
         
         // Enviar
-        log.info("Enviando email a: {} | Host: {} | Puerto: {}", to, settings.getMailHost(), settings.getMailPort());
+        log.info("Enviando email a: {} | Host: {} | Puerto: {}", to, settings.mailHost(), settings.mailPort());
         mailSender.send(message);
         log.info("✅ Email enviado exitosamente a: {}", to);
     }
@@ -100,8 +99,8 @@ public class DynamicMailService {
      * Verifica si el envío de email está habilitado
      */
     public boolean isEmailEnabled() {
-        Settings settings = settingsCache.getSettings();
-        return Boolean.TRUE.equals(settings.getEmailEnabled()) && settings.isEmailConfigured();
+        SettingsSnapshot settings = settingsCache.getSnapshot();
+        return Boolean.TRUE.equals(settings.emailEnabled()) && settings.isEmailConfigured();
     }
 
     /**
@@ -110,7 +109,7 @@ public class DynamicMailService {
      * @return true si la conexión es exitosa
      */
     public boolean testConnection() {
-        Settings settings = settingsCache.getSettings();
+        SettingsSnapshot settings = settingsCache.getSnapshot();
         
         if (!settings.isEmailConfigured()) {
             log.warn("Configuración de email incompleta para prueba de conexión");
@@ -135,8 +134,8 @@ public class DynamicMailService {
      * @throws MessagingException si hay error
      */
     public void sendTestEmail(String testEmail) throws MessagingException {
-        Settings settings = settingsCache.getSettings();
-        String companyName = settings.getCompanyName() != null ? settings.getCompanyName() : "RentaCarESV";
+        SettingsSnapshot settings = settingsCache.getSnapshot();
+        String companyName = settings.companyName() != null ? settings.companyName() : "RentaCarESV";
         
         String htmlContent = """
             <!DOCTYPE html>
@@ -179,11 +178,11 @@ public class DynamicMailService {
             </html>
             """.formatted(
                 companyName,
-                settings.getMailHost(),
-                settings.getMailPort(),
-                settings.getMailUsername(),
-                Boolean.TRUE.equals(settings.getMailStarttlsEnable()) ? "Habilitado" : "Deshabilitado",
-                Boolean.TRUE.equals(settings.getMailSslEnable()) ? "Habilitado" : "Deshabilitado"
+                settings.mailHost(),
+                settings.mailPort(),
+                settings.mailUsername(),
+                Boolean.TRUE.equals(settings.mailStarttlsEnable()) ? "Habilitado" : "Deshabilitado",
+                Boolean.TRUE.equals(settings.mailSslEnable()) ? "Habilitado" : "Deshabilitado"
             );
         
         sendEmail(testEmail, "Prueba de Configuración de Email - " + companyName, htmlContent);
@@ -192,29 +191,29 @@ public class DynamicMailService {
     /**
      * Crea un JavaMailSender configurado con los valores de Settings
      */
-    private JavaMailSender createMailSender(Settings settings) {
+    private JavaMailSender createMailSender(SettingsSnapshot settings) {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
         
-        mailSender.setHost(settings.getMailHost());
-        mailSender.setPort(settings.getMailPort() != null ? settings.getMailPort() : 587);
-        mailSender.setUsername(settings.getMailUsername());
-        mailSender.setPassword(settings.getMailPassword());
+        mailSender.setHost(settings.mailHost());
+        mailSender.setPort(settings.mailPort() != null ? settings.mailPort() : 587);
+        mailSender.setUsername(settings.mailUsername());
+        mailSender.setPassword(settings.mailPassword());
         
         Properties props = mailSender.getJavaMailProperties();
-        props.put("mail.transport.protocol", settings.getMailProtocol() != null ? settings.getMailProtocol() : "smtp");
-        props.put("mail.smtp.auth", Boolean.TRUE.equals(settings.getMailSmtpAuth()) ? "true" : "false");
-        props.put("mail.smtp.starttls.enable", Boolean.TRUE.equals(settings.getMailStarttlsEnable()) ? "true" : "false");
-        props.put("mail.smtp.starttls.required", Boolean.TRUE.equals(settings.getMailStarttlsEnable()) ? "true" : "false");
-        props.put("mail.smtp.ssl.enable", Boolean.TRUE.equals(settings.getMailSslEnable()) ? "true" : "false");
+        props.put("mail.transport.protocol", settings.mailProtocol() != null ? settings.mailProtocol() : "smtp");
+        props.put("mail.smtp.auth", Boolean.TRUE.equals(settings.mailSmtpAuth()) ? "true" : "false");
+        props.put("mail.smtp.starttls.enable", Boolean.TRUE.equals(settings.mailStarttlsEnable()) ? "true" : "false");
+        props.put("mail.smtp.starttls.required", Boolean.TRUE.equals(settings.mailStarttlsEnable()) ? "true" : "false");
+        props.put("mail.smtp.ssl.enable", Boolean.TRUE.equals(settings.mailSslEnable()) ? "true" : "false");
         
         // SSL trust para servidores que lo requieren
-        if (Boolean.TRUE.equals(settings.getMailSslEnable()) || Boolean.TRUE.equals(settings.getMailStarttlsEnable())) {
-            props.put("mail.smtp.ssl.trust", settings.getMailHost());
+        if (Boolean.TRUE.equals(settings.mailSslEnable()) || Boolean.TRUE.equals(settings.mailStarttlsEnable())) {
+            props.put("mail.smtp.ssl.trust", settings.mailHost());
         }
         
         // Timeouts
-        int connectionTimeout = settings.getMailConnectionTimeout() != null ? settings.getMailConnectionTimeout() : 10000;
-        int timeout = settings.getMailTimeout() != null ? settings.getMailTimeout() : 10000;
+        int connectionTimeout = settings.mailConnectionTimeout() != null ? settings.mailConnectionTimeout() : 10000;
+        int timeout = settings.mailTimeout() != null ? settings.mailTimeout() : 10000;
         
         props.put("mail.smtp.connectiontimeout", String.valueOf(connectionTimeout));
         props.put("mail.smtp.timeout", String.valueOf(timeout));
@@ -2,30 +2,50 @@ package com.rentacaresv.settings.application;
 
 import com.rentacaresv.settings.domain.Settings;
 import com.rentacaresv.settings.infrastructure.SettingsRepository;
-import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Cache singleton para la configuración global del sistema.
  * Carga la configuración al inicio de la aplicación y la mantiene en memoria.
  * Se actualiza manualmente cuando hay cambios.
+ *
+ * La configuración se publica como un {@link SettingsSnapshot} inmutable en una
+ * referencia atómica: las lecturas no toman ningún bloqueo y las escrituras
+ * (copy-on-write) reemplazan el snapshot completo.
+ *
+ * En despliegues con varios nodos, cada nodo consulta periódicamente solo la
+ * columna {@code version} de settings y recarga el snapshot si otro nodo la cambió.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class SettingsCache {
 
     private final SettingsRepository settingsRepository;
+    private final TransactionTemplate newTransaction;
     
-    private Settings cachedSettings;
-    private final Object lock = new Object();
+    private final AtomicReference<SettingsSnapshot> snapshot = new AtomicReference<>();
+    private final Object writeLock = new Object();
+
+    public SettingsCache(SettingsRepository settingsRepository, PlatformTransactionManager transactionManager) {
+        this.settingsRepository = settingsRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
     @EventListener(ApplicationReadyEvent.class)
     public void init() {
@@ -34,98 +54,169 @@ public class SettingsCache {
     }
 
     /**
-     * Carga o recarga la configuración desde la base de datos
+     * Carga o recarga la configuración desde la base de datos y publica un nuevo snapshot
      */
-    public void loadSettings() {
-        synchronized (lock) {
+    public SettingsSnapshot loadSettings() {
+        synchronized (writeLock) {
             var all = settingsRepository.findAll();
+            Settings settings;
             
             if (all.isEmpty()) {
                 log.info("ℹ️ No se encontró configuración. Creando configuración inicial...");
-                Settings settings = new Settings();
+                settings = new Settings();
                 settings.setTenantId(UUID.randomUUID().toString());
                 settings.setCompanyName("RentaCarESV");
                 settings.setFoldersInitialized(false);
                 settings.setCreatedAt(LocalDateTime.now());
-                cachedSettings = settingsRepository.save(settings);
-                log.info("✅ Configuración inicial creada con tenant_id: {}", cachedSettings.getTenantId());
+                settings = settingsRepository.save(settings);
+                log.info("✅ Configuración inicial creada con tenant_id: {}", settings.getTenantId());
             } else {
-                cachedSettings = all.get(0);
+                settings = all.get(0);
                 
                 // Self-healing: reparar tenant_id vacío
-                if (cachedSettings.getTenantId() == null || cachedSettings.getTenantId().trim().isEmpty()) {
+                if (settings.getTenantId() == null || settings.getTenantId().trim().isEmpty()) {
                     log.warn("⚠️ FOUND EMPTY TENANT_ID. REPAIRING RECORD...");
-                    cachedSettings.setTenantId(UUID.randomUUID().toString());
-                    cachedSettings = settingsRepository.save(cachedSettings);
-                    log.info("✅ TENANT_ID REPAIRED: {}", cachedSettings.getTenantId());
+                    settings.setTenantId(UUID.randomUUID().toString());
+                    settings = settingsRepository.save(settings);
+                    log.info("✅ TENANT_ID REPAIRED: {}", settings.getTenantId());
                 }
                 
                 log.info("✅ Configuración cargada - Empresa: {}, Tenant: {}", 
-                        cachedSettings.getCompanyName(), 
-                        cachedSettings.getTenantId());
+                        settings.getCompanyName(), 
+                        settings.getTenantId());
             }
+
+            SettingsSnapshot loaded = SettingsSnapshot.from(settings);
+            snapshot.set(loaded);
+            return loaded;
         }
     }
 
     /**
-     * Obtiene la configuración desde cache (sin consultar BD)
+     * Obtiene el snapshot inmutable de la configuración (sin consultar BD ni bloquear)
+     */
+    public SettingsSnapshot getSnapshot() {
+        SettingsSnapshot current = snapshot.get();
+        return current != null ? current : loadSettings();
+    }
+
+    /**
+     * Obtiene una copia editable (detached) de la configuración.
+     * Los cambios no son visibles hasta llamar a {@link #updateSettings(Settings)}.
      */
     public Settings getSettings() {
-        synchronized (lock) {
-            if (cachedSettings == null) {
-                loadSettings();
-            }
-            return cachedSettings;
-        }
+        return getSnapshot().toEntity();
     }
 
     /**
      * Obtiene el tenant ID desde cache
      */
     public String getTenantId() {
-        return getSettings().getTenantId();
+        return getSnapshot().tenantId();
     }
 
     /**
      * Obtiene la URL del logo desde cache
      */
     public String getLogoUrl() {
-        return getSettings().getLogoUrl();
+        return getSnapshot().logoUrl();
     }
 
     /**
      * Obtiene el nombre de la empresa desde cache
      */
     public String getCompanyName() {
-        String name = getSettings().getCompanyName();
+        String name = getSnapshot().companyName();
         return (name != null && !name.isEmpty()) ? name : "RentaCarESV";
     }
 
+    /**
+     * Obtiene la tarifa diaria por sacar el vehículo del país desde cache
+     */
+    public BigDecimal getTarifaSacarPais() {
+        return getSnapshot().tarifaSacarPais();
+    }
+
     /**
      * Verifica si las carpetas están inicializadas
      */
     public boolean areFoldersInitialized() {
-        return Boolean.TRUE.equals(getSettings().getFoldersInitialized());
+        return Boolean.TRUE.equals(getSnapshot().foldersInitialized());
     }
 
     /**
-     * Actualiza la configuración en cache y en BD
+     * Actualiza la configuración en BD y publica un nuevo snapshot en cache.
+     *
+     * El guardado se hace con flush para que Hibernate incremente la versión ya aquí: el
+     * snapshot publicado lleva la versión nueva y el siguiente guardado desde este nodo no
+     * choca consigo mismo. Si hay una transacción activa (SettingsService, GoogleCalendarService),
+     * el snapshot se publica recién al confirmarla; si se revierte, el cache no cambia.
+     *
+     * Si otro nodo guardó antes (versión desactualizada), el cache se recarga cuando termina
+     * la transacción y se relanza la excepción para que el usuario reintente con los datos actuales.
      */
     public void updateSettings(Settings settings) {
-        synchronized (lock) {
-            cachedSettings = settingsRepository.save(settings);
-            log.info("✅ Cache de configuración actualizado");
+        synchronized (writeLock) {
+            try {
+                Settings saved = settingsRepository.saveAndFlush(settings);
+                SettingsSnapshot updated = SettingsSnapshot.from(saved);
+                afterCommit(() -> {
+                    snapshot.set(updated);
+                    log.info("✅ Cache de configuración actualizado (versión {})", updated.version());
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                log.warn("⚠️ La configuración fue modificada en otro nodo. Recargando cache...");
+                afterCompletion(this::loadSettings);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Ejecuta la acción al confirmar la transacción actual, o de inmediato si no hay una
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Ejecuta la acción al terminar la transacción actual (confirmada o revertida), o de
+     * inmediato si no hay una. La recarga va en una transacción nueva para no leer las
+     * entidades del contexto de persistencia de la transacción que falló.
+     */
+    private void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    newTransaction.executeWithoutResult(tx -> action.run());
+                } catch (Exception e) {
+                    // El snapshot anterior sigue publicado; el sondeo de versión lo corregirá
+                    log.warn("No se pudo recargar la configuración: {}", e.getMessage());
+                }
+            }
+        });
     }
 
     /**
      * Invalida el cache forzando recarga en próxima consulta
      */
     public void invalidate() {
-        synchronized (lock) {
-            cachedSettings = null;
-            log.info("🔄 Cache de configuración invalidado");
-        }
+        snapshot.set(null);
+        log.info("🔄 Cache de configuración invalidado");
     }
 
     /**
@@ -136,6 +227,31 @@ public class SettingsCache {
         loadSettings();
     }
 
+    /**
+     * Detecta cambios hechos por otros nodos comparando solo la versión.
+     * Si la versión en BD difiere del snapshot publicado, recarga la configuración.
+     * Intervalo configurable con {@code app.settings.refresh-interval-ms} (por defecto 5 s).
+     */
+    @Scheduled(fixedDelayString = "${app.settings.refresh-interval-ms:5000}",
+               initialDelayString = "${app.settings.refresh-interval-ms:5000}")
+    public void checkForRemoteChanges() {
+        SettingsSnapshot current = snapshot.get();
+        if (current == null || current.id() == null) {
+            return;
+        }
+
+        try {
+            Long dbVersion = settingsRepository.findVersionById(current.id()).orElse(null);
+            if (dbVersion != null && !dbVersion.equals(current.version())) {
+                log.info("🔄 Configuración modificada en otro nodo (versión {} → {}). Recargando...",
+                        current.version(), dbVersion);
+                loadSettings();
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo verificar la versión de la configuración: {}", e.getMessage());
+        }
+    }
+
     // ========================================
     // Métodos de Google Calendar
     // ========================================
@@ -144,41 +260,41 @@ public class SettingsCache {
      * Verifica si Google Calendar está habilitado y configurado
      */
     public boolean isGoogleCalendarConfigured() {
-        return getSettings().isGoogleCalendarConfigured();
+        return getSnapshot().isGoogleCalendarConfigured();
     }
 
     /**
      * Obtiene el Google Client ID
      */
     public String getGoogleClientId() {
-        return getSettings().getGoogleClientId();
+        return getSnapshot().googleClientId();
     }
 
     /**
      * Obtiene el Google Client Secret
      */
     public String getGoogleClientSecret() {
-        return getSettings().getGoogleClientSecret();
+        return getSnapshot().googleClientSecret();
     }
 
     /**
      * Verifica si Google Calendar está habilitado
      */
     public boolean isGoogleCalendarEnabled() {
-        return Boolean.TRUE.equals(getSettings().getGoogleCalendarEnabled());
+        return Boolean.TRUE.equals(getSnapshot().googleCalendarEnabled());
     }
 
     /**
      * Obtiene el ID del usuario cuyo calendario es el de la empresa
      */
     public Long getCompanyCalendarUserId() {
-        return getSettings().getCompanyCalendarUserId();
+        return getSnapshot().companyCalendarUserId();
     }
 
     /**
      * Verifica si hay un calendario de empresa configurado
      */
     public boolean hasCompanyCalendar() {
-        return getSettings().hasCompanyCalendar();
+        return getSnapshot().hasCompanyCalendar();
     }
 }
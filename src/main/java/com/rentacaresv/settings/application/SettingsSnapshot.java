@@ -0,0 +1,145 @@
+package com.rentacaresv.settings.application;
+
+import com.rentacaresv.settings.domain.Settings;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Copia inmutable de la configuración global publicada por {@link SettingsCache}.
+ * No es una entidad JPA: puede compartirse entre hilos y leerse sin bloqueo.
+ * Para editar la configuración se obtiene una entidad separada con {@link #toEntity()}.
+ */
+public record SettingsSnapshot(
+        Long id,
+        String tenantId,
+        String companyName,
+        String logoUrl,
+        Boolean foldersInitialized,
+        Boolean emailEnabled,
+        String mailHost,
+        Integer mailPort,
+        String mailUsername,
+        String mailPassword,
+        String mailFrom,
+        String mailFromName,
+        Boolean mailSmtpAuth,
+        Boolean mailStarttlsEnable,
+        Boolean mailSslEnable,
+        String mailProtocol,
+        Integer mailConnectionTimeout,
+        Integer mailTimeout,
+        Boolean googleCalendarEnabled,
+        String googleClientId,
+        String googleClientSecret,
+        Long companyCalendarUserId,
+        BigDecimal tarifaSacarPais,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version
+) {
+
+    /**
+     * Crea una copia inmutable a partir de la entidad
+     */
+    public static SettingsSnapshot from(Settings settings) {
+        return new SettingsSnapshot(
+                settings.getId(),
+                settings.getTenantId(),
+                settings.getCompanyName(),
+                settings.getLogoUrl(),
+                settings.getFoldersInitialized(),
+                settings.getEmailEnabled(),
+                settings.getMailHost(),
+                settings.getMailPort(),
+                settings.getMailUsername(),
+                settings.getMailPassword(),
+                settings.getMailFrom(),
+                settings.getMailFromName(),
+                settings.getMailSmtpAuth(),
+                settings.getMailStarttlsEnable(),
+                settings.getMailSslEnable(),
+                settings.getMailProtocol(),
+                settings.getMailConnectionTimeout(),
+                settings.getMailTimeout(),
+                settings.getGoogleCalendarEnabled(),
+                settings.getGoogleClientId(),
+                settings.getGoogleClientSecret(),
+                settings.getCompanyCalendarUserId(),
+                settings.getTarifaSacarPais(),
+                settings.getCreatedAt(),
+                settings.getUpdatedAt(),
+                settings.getVersion()
+        );
+    }
+
+    /**
+     * Crea una entidad separada (detached) con estos valores, lista para
+     * modificarse y guardarse con {@link SettingsCache#updateSettings(Settings)}
+     */
+    public Settings toEntity() {
+        Settings settings = new Settings(id, tenantId, companyName, logoUrl, foldersInitialized, createdAt, updatedAt);
+        settings.setEmailEnabled(emailEnabled);
+        settings.setMailHost(mailHost);
+        settings.setMailPort(mailPort);
+        settings.setMailUsername(mailUsername);
+        settings.setMailPassword(mailPassword);
+        settings.setMailFrom(mailFrom);
+        settings.setMailFromName(mailFromName);
+        settings.setMailSmtpAuth(mailSmtpAuth);
+        settings.setMailStarttlsEnable(mailStarttlsEnable);
+        settings.setMailSslEnable(mailSslEnable);
+        settings.setMailProtocol(mailProtocol);
+        settings.setMailConnectionTimeout(mailConnectionTimeout);
+        settings.setMailTimeout(mailTimeout);
+        settings.setGoogleCalendarEnabled(googleCalendarEnabled);
+        settings.setGoogleClientId(googleClientId);
+        settings.setGoogleClientSecret(googleClientSecret);
+        settings.setCompanyCalendarUserId(companyCalendarUserId);
+        settings.setTarifaSacarPais(tarifaSacarPais);
+        settings.setVersion(version);
+        return settings;
+    }
+
+    // ========================================
+    // Métodos de consulta (equivalentes a Settings)
+    // ========================================
+
+    /**
+     * Verifica si la configuración de email está completa
+     */
+    public boolean isEmailConfigured() {
+        return mailHost != null && !mailHost.isEmpty() &&
+               mailPort != null &&
+               mailUsername != null && !mailUsername.isEmpty() &&
+               mailPassword != null && !mailPassword.isEmpty();
+    }
+
+    /**
+     * Verifica si la configuración de Google Calendar está completa
+     */
+    public boolean isGoogleCalendarConfigured() {
+        return Boolean.TRUE.equals(googleCalendarEnabled) &&
+               googleClientId != null && !googleClientId.isEmpty() &&
+               googleClientSecret != null && !googleClientSecret.isEmpty();
+    }
+
+    /**
+     * Verifica si hay un calendario de empresa configurado
+     */
+    public boolean hasCompanyCalendar() {
+        return companyCalendarUserId != null;
+    }
+
+    @Override
+    public String toString() {
+        return "SettingsSnapshot{" +
+                "id=" + id +
+                ", tenantId='" + tenantId + '\'' +
+                ", companyName='" + companyName + '\'' +
+                ", logoUrl='" + logoUrl + '\'' +
+                ", foldersInitialized=" + foldersInitialized +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -178,6 +178,14 @@ public class Settings implements Serializable {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Versión de la configuración. Se incrementa en cada guardado y permite a
+     * los demás nodos detectar cambios sin leer la fila completa.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // ========================================
     // Getters/Setters explícitos (workaround Lombok)
     // ========================================
@@ -286,6 +294,14 @@ public class Settings implements Serializable {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // ========================================
     // Getters/Setters Email
     // ========================================
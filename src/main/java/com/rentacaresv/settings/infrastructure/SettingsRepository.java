@@ -3,6 +3,7 @@ package com.rentacaresv.settings.infrastructure;
 import com.rentacaresv.settings.domain.Settings;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -29,6 +30,12 @@ public interface SettingsRepository extends JpaRepository<Settings, Long> {
     @Query(value = "SELECT * FROM settings ORDER BY id ASC", nativeQuery = true)
     List<Settings> findAllSettings();
 
+    /**
+     * Obtiene solo la versión de la configuración (para detectar cambios de otros nodos)
+     */
+    @Query("SELECT s.version FROM Settings s WHERE s.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
     /**
      * Verifica si ya existe configuración
      */
@@ -0,0 +1,165 @@
+package com.rentacaresv.shared.infrastructure;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Borrado por tramos de filas antiguas.
+ *
+ * En lugar de un único DELETE masivo (locks largos y undo log enorme en una
+ * sola transacción), recorre la tabla por rangos de clave primaria de
+ * {@code chunk-size} filas, hace commit de cada tramo y pausa entre tramos.
+ * Publica métricas por tabla: filas borradas, duración y filas por segundo.
+ */
+@Component
+@Slf4j
+public class ChunkedPurger {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final long pauseMs;
+
+    public ChunkedPurger(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.purge.chunk-size:1000}") int chunkSize,
+            @Value("${app.purge.pause-ms:100}") long pauseMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+    }
+
+    /**
+     * Borra las filas de la tabla que cumplen la condición, por tramos de clave primaria.
+     *
+     * @param table     tabla (identificador fijo del código, nunca entrada de usuario)
+     * @param idColumn  columna numérica de clave primaria
+     * @param condition condición SQL con parámetros '?', p. ej. "created_at < ?"
+     * @param params    valores de los parámetros de la condición
+     * @return resumen del borrado
+     */
+    public PurgeResult purge(String table, String idColumn, String condition, Object... params) {
+        requireIdentifier(table);
+        requireIdentifier(idColumn);
+
+        String selectUpperSql = "SELECT MAX(" + idColumn + ") FROM (SELECT " + idColumn + " FROM " + table
+                + " WHERE " + idColumn + " > ? AND (" + condition + ") ORDER BY " + idColumn + " LIMIT ?) chunk";
+        String deleteSql = "DELETE FROM " + table
+                + " WHERE " + idColumn + " > ? AND " + idColumn + " <= ? AND (" + condition + ")";
+
+        long startNanos = System.nanoTime();
+        long lowerId = Long.MIN_VALUE;
+        long deleted = 0;
+        int chunks = 0;
+
+        while (true) {
+            Long upperId = jdbcTemplate.queryForObject(selectUpperSql, Long.class,
+                    concat(new Object[]{lowerId}, params, new Object[]{chunkSize}));
+            if (upperId == null) {
+                break;
+            }
+
+            long from = lowerId;
+            Integer rows = transactionTemplate.execute(status ->
+                    jdbcTemplate.update(deleteSql, concat(new Object[]{from, upperId}, params)));
+            deleted += rows != null ? rows : 0;
+            chunks++;
+            lowerId = upperId;
+
+            if (!pause()) {
+                break;
+            }
+        }
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - startNanos);
+        PurgeResult result = new PurgeResult(table, deleted, chunks, duration);
+        recordMetrics(result);
+        if (deleted > 0) {
+            log.info("🧹 Purga de {}: {} filas en {} tramos ({} ms, {} filas/s)",
+                    table, deleted, chunks, duration.toMillis(), Math.round(result.rowsPerSecond()));
+        }
+        return result;
+    }
+
+    // ─── Helpers ───────────────────────────────────────────────────────────────
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Purga interrumpida");
+            return false;
+        }
+    }
+
+    private void recordMetrics(PurgeResult result) {
+        Counter.builder("purge.rows.deleted")
+                .description("Filas eliminadas por purgas por tramos")
+                .tag("table", result.table())
+                .register(meterRegistry)
+                .increment(result.rowsDeleted());
+        Timer.builder("purge.duration")
+                .description("Duración de las purgas por tramos")
+                .tag("table", result.table())
+                .register(meterRegistry)
+                .record(result.duration());
+        if (result.rowsDeleted() > 0) {
+            DistributionSummary.builder("purge.rows.per.second")
+                    .description("Velocidad de borrado de las purgas por tramos")
+                    .tag("table", result.table())
+                    .register(meterRegistry)
+                    .record(result.rowsPerSecond());
+        }
+    }
+
+    private static void requireIdentifier(String name) {
+        if (name == null || !IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("Identificador SQL inválido: " + name);
+        }
+    }
+
+    private static Object[] concat(Object[]... parts) {
+        int length = 0;
+        for (Object[] part : parts) {
+            length += part.length;
+        }
+        Object[] result = new Object[length];
+        int pos = 0;
+        for (Object[] part : parts) {
+            System.arraycopy(part, 0, result, pos, part.length);
+            pos += part.length;
+        }
+        return result;
+    }
+
+    public record PurgeResult(String table, long rowsDeleted, int chunks, Duration duration) {
+
+        public double rowsPerSecond() {
+            long millis = duration.toMillis();
+            return millis > 0 ? rowsDeleted * 1000.0 / millis : rowsDeleted;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.rentacaresv.shared.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Lock distribuido basado en los named locks de MariaDB (GET_LOCK / RELEASE_LOCK).
+ *
+ * Evita que un job programado corra a la vez en varios nodos. La acción se ejecuta
+ * dentro de una transacción sobre la misma conexión que tomó el lock; si el nodo
+ * cae, MariaDB libera el lock al cerrarse la conexión.
+ */
+@Component
+@Slf4j
+public class DatabaseLock {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public DatabaseLock(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Ejecuta la acción solo si obtiene el lock sin esperar
+     *
+     * @return resultado de la acción, o vacío si otro nodo tiene el lock
+     */
+    public <T> Optional<T> runIfAvailable(String name, Supplier<T> action) {
+        return transactionTemplate.execute(status -> {
+            Integer acquired = jdbcTemplate.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, name);
+            if (acquired == null || acquired != 1) {
+                log.debug("Lock '{}' ocupado por otro nodo", name);
+                return Optional.<T>empty();
+            }
+            try {
+                return Optional.ofNullable(action.get());
+            } finally {
+                jdbcTemplate.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, name);
+            }
+        });
+    }
+
+    /**
+     * Ejecuta la acción solo si obtiene el lock sin esperar, sin abrir una transacción.
+     *
+     * El lock se toma en una conexión propia que queda reservada mientras corre la acción;
+     * la acción maneja sus propias transacciones cortas. Sirve para tareas que hacen
+     * llamadas externas (HTTP) entre sus lecturas y escrituras.
+     *
+     * @return resultado de la acción, o vacío si otro nodo tiene el lock
+     */
+    public <T> Optional<T> runIfAvailableWithoutTransaction(String name, Supplier<T> action) {
+        return jdbcTemplate.execute((ConnectionCallback<Optional<T>>) connection -> {
+            if (!namedLock(connection, "SELECT GET_LOCK(?, 0)", name)) {
+                log.debug("Lock '{}' ocupado por otro nodo", name);
+                return Optional.empty();
+            }
+            try {
+                return Optional.ofNullable(action.get());
+            } finally {
+                namedLock(connection, "SELECT RELEASE_LOCK(?)", name);
+            }
+        });
+    }
+
+    private static boolean namedLock(Connection connection, String sql, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, name);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.rentacaresv.shared.infrastructure;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Métricas de la cache de segundo nivel de Hibernate, por región:
+ * aciertos, fallos, inserciones y cantidad de elementos en memoria.
+ *
+ * Requiere {@code hibernate.generate_statistics=true}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HibernateCacheMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            log.warn("⚠️ Estadísticas de Hibernate deshabilitadas: no se registran métricas de la cache L2");
+            return;
+        }
+
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            counter(registry, statistics, region, "hibernate.cache.requests", "hit",
+                    CacheRegionStatistics::getHitCount, "Lecturas resueltas desde la cache L2");
+            counter(registry, statistics, region, "hibernate.cache.requests", "miss",
+                    CacheRegionStatistics::getMissCount, "Lecturas que no encontraron el elemento en la cache L2");
+            FunctionCounter.builder("hibernate.cache.puts", statistics,
+                            s -> regionValue(s, region, CacheRegionStatistics::getPutCount))
+                    .description("Elementos guardados en la cache L2")
+                    .tag("region", region)
+                    .register(registry);
+            Gauge.builder("hibernate.cache.size", statistics,
+                            s -> regionValue(s, region, CacheRegionStatistics::getElementCountInMemory))
+                    .description("Elementos en memoria de la región")
+                    .tag("region", region)
+                    .register(registry);
+        }
+    }
+
+    private void counter(MeterRegistry registry, Statistics statistics, String region, String name,
+                         String result, ToDoubleFunction<CacheRegionStatistics> value, String description) {
+        FunctionCounter.builder(name, statistics, s -> regionValue(s, region, value))
+                .description(description)
+                .tag("region", region)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private double regionValue(Statistics statistics, String region,
+                               ToDoubleFunction<CacheRegionStatistics> value) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics != null ? value.applyAsDouble(regionStatistics) : 0;
+    }
+}
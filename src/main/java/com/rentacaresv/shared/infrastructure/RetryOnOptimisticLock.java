@@ -0,0 +1,34 @@
+package com.rentacaresv.shared.infrastructure;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.resilience.annotation.Retryable;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Reintenta el método completo cuando otra transacción modificó antes la misma entidad
+ * (conflicto de versión del bloqueo optimista).
+ *
+ * El reintento envuelve a {@code @Transactional} (ver {@code @EnableResilientMethods} en
+ * Application): cada intento abre una transacción nueva y relee las filas.
+ *
+ * Usar solo en operaciones que vuelven a validar sus reglas con los datos actuales
+ * (registrar un pago, entregar, devolver o cancelar): el intento fallido se revirtió
+ * completo, así que repetirlo no duplica nada, y si el otro cambio lo invalida (ej. la
+ * renta ya fue cancelada) el reintento falla con el error de negocio correspondiente.
+ * Las ediciones de formularios no se reintentan porque sobrescribirían al otro usuario.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Retryable(includes = OptimisticLockingFailureException.class,
+           maxRetriesString = "${app.optimistic-lock.max-retries:3}",
+           delayString = "${app.optimistic-lock.retry-delay-ms:50}",
+           jitterString = "${app.optimistic-lock.retry-jitter-ms:25}",
+           multiplier = 2)
+public @interface RetryOnOptimisticLock {
+}
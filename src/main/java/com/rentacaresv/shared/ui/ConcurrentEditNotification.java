@@ -0,0 +1,23 @@
+package com.rentacaresv.shared.ui;
+
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.notification.NotificationVariant;
+
+/**
+ * Aviso cuando un guardado se rechaza porque otro usuario modificó el mismo registro
+ * (OptimisticLockingFailureException): la edición se hizo sobre datos que ya no son los actuales.
+ */
+public final class ConcurrentEditNotification {
+
+    private static final String MESSAGE =
+            "⚠️ Otro usuario modificó este registro mientras lo tenías abierto. " +
+            "Tus cambios no se guardaron: revisa los datos actuales e inténtalo de nuevo.";
+
+    private ConcurrentEditNotification() {
+    }
+
+    public static void show() {
+        Notification notification = Notification.show(MESSAGE, 6000, Notification.Position.TOP_CENTER);
+        notification.addThemeVariants(NotificationVariant.LUMO_WARNING);
+    }
+}
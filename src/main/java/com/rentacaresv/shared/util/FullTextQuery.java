@@ -0,0 +1,63 @@
+package com.rentacaresv.shared.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Construye expresiones para MATCH ... AGAINST (... IN BOOLEAN MODE) a partir del texto
+ * que escribe el usuario.
+ *
+ * El texto se separa en palabras (letras y dígitos), descartando cualquier operador
+ * booleano, y cada palabra se convierte en un prefijo obligatorio: "juan pe" → "+juan* +pe*".
+ *
+ * InnoDB no indexa palabras de menos de 3 caracteres (innodb_ft_min_token_size) ni las
+ * stopwords por defecto, así que exigirlas haría fallar búsquedas como "José de la Cruz".
+ * Se descartan, salvo la última palabra: el usuario aún la está escribiendo y sirve como prefijo.
+ * Si esa última palabra es corta y hay otras, queda como opcional (solo mejora la relevancia),
+ * porque puede no existir como palabra indexada (ej. el dígito verificador de "12345678-9").
+ */
+public final class FullTextQuery {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /** Máximo de palabras consideradas (el resto se ignora) */
+    private static final int MAX_TERMS = 8;
+
+    private static final int MIN_TOKEN_SIZE = 3;
+
+    /** Stopwords por defecto de InnoDB (INFORMATION_SCHEMA.INNODB_FT_DEFAULT_STOPWORD) */
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "about", "an", "are", "as", "at", "be", "by", "com", "de", "en", "for", "from",
+            "how", "i", "in", "is", "it", "la", "of", "on", "or", "that", "the", "this", "to",
+            "was", "what", "when", "where", "who", "will", "with", "und", "www");
+
+    private FullTextQuery() {
+    }
+
+    /**
+     * Expresión en la que todas las palabras deben aparecer como prefijo.
+     *
+     * @return la expresión, o null si el texto no contiene ninguna palabra
+     */
+    public static String allPrefixes(String input) {
+        if (input == null || input.isBlank()) {
+            return null;
+        }
+        String[] tokens = TOKEN_SEPARATOR.split(input.trim().toLowerCase(Locale.ROOT));
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < tokens.length && terms.size() < MAX_TERMS; i++) {
+            String token = tokens[i];
+            boolean last = i == tokens.length - 1;
+            if (token.isEmpty() || (!last && (token.length() < MIN_TOKEN_SIZE || STOPWORDS.contains(token)))) {
+                continue;
+            }
+            boolean optional = last && token.length() < MIN_TOKEN_SIZE && !terms.isEmpty();
+            terms.add((optional ? "" : "+") + token + "*");
+        }
+        String query = String.join(" ", terms);
+        return query.isEmpty() ? null : query;
+    }
+}
@@ -0,0 +1,183 @@
+package com.rentacaresv.shared.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Sketch HyperLogLog para contar elementos distintos de forma aproximada.
+ *
+ * Usa 2^precision registros de un byte; el error estándar es ~1.04 / sqrt(2^precision)
+ * (precision 12 → 4 KB y ~1.6 %). Los sketches se combinan con {@link #merge(HyperLogLog)}
+ * tomando el máximo por registro, de modo que el conteo de varios días es la
+ * combinación de sus sketches diarios. Si las precisiones difieren, se reduce a la menor.
+ */
+public class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException(
+                    "Precisión HLL fuera de rango [" + MIN_PRECISION + ", " + MAX_PRECISION + "]: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    private HyperLogLog(int precision, byte[] registers) {
+        this.precision = precision;
+        this.registers = registers;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Agrega un valor al sketch (null se ignora)
+     */
+    public void add(String value) {
+        if (value != null) {
+            addHash(hash64(value));
+        }
+    }
+
+    /**
+     * Agrega un hash de 64 bits ya calculado
+     */
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Bit centinela para que rho nunca supere 64 - precision + 1
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rho = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rho > registers[index]) {
+            registers[index] = rho;
+        }
+    }
+
+    /**
+     * Cantidad estimada de valores distintos
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0.0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+
+        // Corrección para rangos pequeños (linear counting)
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Combina otro sketch en este. Si el otro tiene mayor precisión se reduce antes;
+     * si tiene menor precisión se devuelve un sketch nuevo con la precisión menor.
+     *
+     * @return el sketch combinado (este mismo o uno nuevo de menor precisión)
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision < precision) {
+            return reduceTo(other.precision).merge(other);
+        }
+        HyperLogLog source = other.precision > precision ? other.reduceTo(precision) : other;
+        for (int i = 0; i < registers.length; i++) {
+            if (source.registers[i] > registers[i]) {
+                registers[i] = source.registers[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Devuelve una copia con menor precisión equivalente a haber agregado los
+     * mismos valores con esa precisión
+     */
+    public HyperLogLog reduceTo(int newPrecision) {
+        if (newPrecision == precision) {
+            return new HyperLogLog(precision, registers.clone());
+        }
+        if (newPrecision > precision) {
+            throw new IllegalArgumentException("No se puede aumentar la precisión de un sketch");
+        }
+
+        int shift = precision - newPrecision;
+        HyperLogLog reduced = new HyperLogLog(newPrecision);
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] == 0) {
+                continue;
+            }
+            int newIndex = i >>> shift;
+            int droppedBits = i & ((1 << shift) - 1);
+            // Los bits que dejan de ser índice pasan a ser los primeros del resto
+            byte rho = droppedBits != 0
+                    ? (byte) (Integer.numberOfLeadingZeros(droppedBits) - (32 - shift) + 1)
+                    : (byte) (registers[i] + shift);
+            if (rho > reduced.registers[newIndex]) {
+                reduced.registers[newIndex] = rho;
+            }
+        }
+        return reduced;
+    }
+
+    // ─── Serialización ─────────────────────────────────────────────────────────
+
+    /**
+     * Serializa el sketch: un byte de precisión seguido de los registros
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[registers.length + 1];
+        bytes[0] = (byte) precision;
+        System.arraycopy(registers, 0, bytes, 1, registers.length);
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        int precision = bytes[0];
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION || bytes.length != (1 << precision) + 1) {
+            throw new IllegalArgumentException("Sketch HLL inválido");
+        }
+        return new HyperLogLog(precision, Arrays.copyOfRange(bytes, 1, bytes.length));
+    }
+
+    // ─── Helpers ───────────────────────────────────────────────────────────────
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+    /**
+     * Hash de 64 bits: FNV-1a sobre UTF-8 seguido del finalizador de MurmurHash3
+     * para repartir bien los bits altos (usados como índice)
+     */
+    static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,6 +1,8 @@
 package com.rentacaresv.user.application;
 
+import com.rentacaresv.security.AuthenticatedUser;
 import com.rentacaresv.security.Role;
+import com.rentacaresv.security.permission.application.RolePermissionService;
 import com.rentacaresv.user.domain.User;
 import com.rentacaresv.user.infrastructure.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +29,8 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RolePermissionService rolePermissionService;
+    private final AuthenticatedUser authenticatedUser;
 
     // ========================================
     // Consultas
@@ -141,7 +145,11 @@ public class UserService {
         }
 
         User saved = userRepository.save(user);
+        authenticatedUser.invalidate(user.getUsername());
         log.info("Usuario actualizado: {}", fullName);
+
+        // Los permisos resueltos en sesión dependen de los roles del usuario
+        rolePermissionService.invalidatePermissionCache();
         return saved;
     }
 
@@ -168,6 +176,7 @@ public class UserService {
 
         user.activate();
         userRepository.save(user);
+        authenticatedUser.invalidate(user.getUsername());
         log.info("Usuario activado: {}", user.getUsername());
     }
 
@@ -181,6 +190,7 @@ public class UserService {
 
         user.deactivate();
         userRepository.save(user);
+        authenticatedUser.invalidate(user.getUsername());
         log.info("Usuario desactivado: {}", user.getUsername());
     }
 
@@ -198,6 +208,7 @@ public class UserService {
             user.activate();
         }
         userRepository.save(user);
+        authenticatedUser.invalidate(user.getUsername());
         log.info("Estado de usuario {} cambiado a: {}", user.getUsername(), user.getActive() ? "activo" : "inactivo");
     }
 
@@ -220,6 +231,7 @@ public class UserService {
         }
 
         userRepository.delete(user);
+        authenticatedUser.invalidate(user.getUsername());
         log.info("Usuario eliminado: {}", user.getUsername());
     }
 
@@ -247,7 +259,11 @@ public class UserService {
 
         user.setRoles(new HashSet<>(roles));
         userRepository.save(user);
+        authenticatedUser.invalidate(user.getUsername());
         log.info("Roles actualizados para usuario {}: {}", user.getUsername(), roles);
+
+        // Los permisos resueltos en sesión dependen de los roles del usuario
+        rolePermissionService.invalidatePermissionCache();
     }
 
     /**
@@ -262,7 +278,11 @@ public class UserService {
         roles.add(role);
         user.setRoles(roles);
         userRepository.save(user);
+        authenticatedUser.invalidate(user.getUsername());
         log.info("Rol {} agregado al usuario {}", role, user.getUsername());
+
+        // Los permisos resueltos en sesión dependen de los roles del usuario
+        rolePermissionService.invalidatePermissionCache();
     }
 
     /**
@@ -287,7 +307,11 @@ public class UserService {
         roles.remove(role);
         user.setRoles(roles);
         userRepository.save(user);
+        authenticatedUser.invalidate(user.getUsername());
         log.info("Rol {} removido del usuario {}", role, user.getUsername());
+
+        // Los permisos resueltos en sesión dependen de los roles del usuario
+        rolePermissionService.invalidatePermissionCache();
     }
 
     // ========================================
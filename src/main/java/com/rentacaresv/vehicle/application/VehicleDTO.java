@@ -46,4 +46,7 @@ public class VehicleDTO {
     // Campos calculados
     private String fullDescription;
     private Boolean isAvailable;
+
+    // Versión leída (bloqueo optimista)
+    private Long version;
 }
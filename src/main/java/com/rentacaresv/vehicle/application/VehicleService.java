@@ -1,5 +1,6 @@
 package com.rentacaresv.vehicle.application;
 
+import com.rentacaresv.shared.infrastructure.RetryOnOptimisticLock;
 import com.rentacaresv.vehicle.domain.FuelType;
 import com.rentacaresv.vehicle.domain.TransmissionType;
 import com.rentacaresv.vehicle.domain.Vehicle;
@@ -10,6 +11,7 @@ import com.rentacaresv.vehicle.infrastructure.VehicleRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -75,13 +77,20 @@ public class VehicleService {
 
     /**
      * Actualiza un vehículo existente
+     *
+     * @param expectedVersion versión del vehículo cuando se abrió el formulario; si otro usuario
+     *                        lo guardó después, se rechaza la edición (null = no verificar)
      */
-    public void updateVehicle(Long id, @Valid CreateVehicleCommand command) {
+    public void updateVehicle(Long id, Long expectedVersion, @Valid CreateVehicleCommand command) {
         log.info("Actualizando vehículo ID: {}", id);
 
         Vehicle vehicle = vehicleRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Vehículo no encontrado"));
 
+        if (expectedVersion != null && !expectedVersion.equals(vehicle.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Vehicle.class, id);
+        }
+
         // Validar si la placa cambió y si ya existe otra placa igual
         if (!vehicle.getLicensePlate().equalsIgnoreCase(command.getLicensePlate()) &&
                 vehicleRepository.existsByLicensePlate(command.getLicensePlate())) {
@@ -162,6 +171,7 @@ public class VehicleService {
     /**
      * Marca un vehículo como rentado
      */
+    @RetryOnOptimisticLock
     public void markAsRented(Long vehicleId) {
         log.info("Marcando vehículo {} como rentado", vehicleId);
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
@@ -174,6 +184,7 @@ public class VehicleService {
     /**
      * Marca un vehículo como disponible
      */
+    @RetryOnOptimisticLock
     public void markAsAvailable(Long vehicleId) {
         log.info("Marcando vehículo {} como disponible", vehicleId);
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
@@ -186,6 +197,7 @@ public class VehicleService {
     /**
      * Envía un vehículo a mantenimiento
      */
+    @RetryOnOptimisticLock
     public void sendToMaintenance(Long vehicleId) {
         log.info("Enviando vehículo {} a mantenimiento", vehicleId);
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
@@ -199,6 +211,7 @@ public class VehicleService {
      * Actualiza el estado de un vehículo
      * No permite cambiar a RENTED (eso se hace automáticamente al crear una renta)
      */
+    @RetryOnOptimisticLock
     public void updateVehicleStatus(Long vehicleId, VehicleStatus newStatus) {
         log.info("Actualizando estado del vehículo {} a {}", vehicleId, newStatus);
         
@@ -228,6 +241,7 @@ public class VehicleService {
     /**
      * Actualiza el kilometraje de un vehículo
      */
+    @RetryOnOptimisticLock
     public void updateMileage(Long vehicleId, Integer newMileage) {
         log.info("Actualizando kilometraje del vehículo {} a {}", vehicleId, newMileage);
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
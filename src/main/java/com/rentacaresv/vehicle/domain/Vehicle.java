@@ -114,6 +114,13 @@ public class Vehicle {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    /**
+     * Versión para bloqueo optimista (edición del vehículo y cambios de estado)
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // ========================================
     // Métodos de Negocio (Domain Logic)
     // ========================================
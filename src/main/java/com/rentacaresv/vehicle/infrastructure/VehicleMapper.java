@@ -45,6 +45,7 @@ public class VehicleMapper {
                 .notes(vehicle.getNotes())
                 .fullDescription(vehicle.getFullDescription())
                 .isAvailable(vehicle.isAvailable())
+                .version(vehicle.getVersion())
                 .build();
     }
 
@@ -3,6 +3,7 @@ package com.rentacaresv.vehicle.ui;
 import com.rentacaresv.catalog.application.CatalogService;
 import com.rentacaresv.catalog.application.VehicleBrandDTO;
 import com.rentacaresv.catalog.application.VehicleModelDTO;
+import com.rentacaresv.shared.ui.ConcurrentEditNotification;
 import com.rentacaresv.shared.ui.PhotoUploadPanel;
 import com.rentacaresv.vehicle.application.CreateVehicleCommand;
 import com.rentacaresv.vehicle.application.VehicleDTO;
@@ -41,6 +42,7 @@ import com.vaadin.flow.data.binder.BeanValidationBinder;
 import com.vaadin.flow.data.binder.ValidationException;
 import com.vaadin.flow.shared.Registration;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -911,7 +913,7 @@ public class VehicleFormDialog extends Dialog {
             binder.writeBean(command);
 
             if (isEdit) {
-                vehicleService.updateVehicle(vehicleToEdit.getId(), command);
+                vehicleService.updateVehicle(vehicleToEdit.getId(), vehicleToEdit.getVersion(), command);
 
                 VehicleStatus newStatus = statusField.getValue();
                 if (newStatus != null) {
@@ -933,6 +935,10 @@ public class VehicleFormDialog extends Dialog {
             }
         } catch (ValidationException e) {
             showErrorNotification("Por favor corrige los errores en el formulario");
+        } catch (OptimisticLockingFailureException e) {
+            // El vehículo cambió desde que se abrió el formulario: al reabrirlo se cargan los datos actuales
+            ConcurrentEditNotification.show();
+            close();
         } catch (Exception e) {
             log.error("Error al guardar vehículo: {}", e.getMessage(), e);
             showErrorNotification("Error al guardar: " + e.getMessage());
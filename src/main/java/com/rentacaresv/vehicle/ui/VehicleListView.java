@@ -6,6 +6,7 @@ import com.rentacaresv.vehicle.application.VehicleDTO;
 import com.rentacaresv.vehicle.application.VehiclePhotoService;
 import com.rentacaresv.vehicle.application.VehicleService;
 import com.rentacaresv.vehicle.domain.VehicleStatus;
+import com.rentacaresv.search.ui.GlobalSearchField;
 import com.rentacaresv.views.MainLayout;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.button.Button;
@@ -23,6 +24,8 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.router.BeforeEnterEvent;
+import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.Menu;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
@@ -39,7 +42,7 @@ import java.util.List;
 @PageTitle("Gestión de Vehículos")
 @Menu(order = 1, icon = LineAwesomeIconUrl.CAR_SOLID)
 @RolesAllowed({"ADMIN", "OPERATOR"})
-public class VehicleListView extends VerticalLayout {
+public class VehicleListView extends VerticalLayout implements BeforeEnterObserver {
 
     private final VehicleService vehicleService;
     private final VehiclePhotoService vehiclePhotoService;
@@ -69,6 +72,16 @@ public class VehicleListView extends VerticalLayout {
         updateGrid();
     }
 
+    /**
+     * Aplica el filtro recibido desde la búsqueda global ({@code ?q=})
+     */
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+        event.getLocation().getQueryParameters()
+                .getSingleParameter(GlobalSearchField.QUERY_PARAMETER)
+                .ifPresent(searchField::setValue);
+    }
+
     private Component createHeader() {
         H2 title = new H2("Gestión de Vehículos");
         title.getStyle()
@@ -279,8 +292,10 @@ public class VehicleListView extends VerticalLayout {
     }
 
     private void openVehicleDialog(VehicleDTO vehicle) {
+        // Al editar, datos (y versión) actuales en lugar de los de la fila del grid
+        VehicleDTO current = vehicle != null ? vehicleService.findById(vehicle.getId()) : null;
         VehicleFormDialog dialog = new VehicleFormDialog(
-            vehicleService, vehiclePhotoService, catalogService, vehicle);
+            vehicleService, vehiclePhotoService, catalogService, current);
         dialog.addSaveListener(e -> {
             updateGrid();
             showSuccessNotification(
@@ -1,6 +1,10 @@
 package com.rentacaresv.views;
 
+import com.rentacaresv.search.application.GlobalSearchService;
+import com.rentacaresv.search.domain.SearchHitType;
+import com.rentacaresv.search.ui.GlobalSearchField;
 import com.rentacaresv.security.AuthenticatedUser;
+import com.rentacaresv.security.CurrentUser;
 import com.rentacaresv.settings.application.SettingsService;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.applayout.AppLayout;
@@ -36,8 +40,12 @@ import com.vaadin.flow.theme.lumo.LumoUtility;
 import jakarta.annotation.security.PermitAll;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Layout principal de la aplicación
@@ -49,14 +57,17 @@ public class MainLayout extends AppLayout implements AfterNavigationObserver {
     private H1 viewTitle;
     private final AuthenticatedUser authenticatedUser;
     private final SettingsService settingsService;
+    private final GlobalSearchService globalSearchService;
     private Button themeToggleButton;
     private boolean isDarkMode = false;
 
     private static final String THEME_PREFERENCE_KEY = "theme-preference";
 
-    public MainLayout(AuthenticatedUser authenticatedUser, SettingsService settingsService) {
+    public MainLayout(AuthenticatedUser authenticatedUser, SettingsService settingsService,
+                      GlobalSearchService globalSearchService) {
         this.authenticatedUser = authenticatedUser;
         this.settingsService = settingsService;
+        this.globalSearchService = globalSearchService;
         setPrimarySection(Section.DRAWER);
         addDrawerContent();
         addHeaderContent();
@@ -86,7 +97,9 @@ public class MainLayout extends AppLayout implements AfterNavigationObserver {
         updateThemeButtonIcon();
 
         // Layout del header
-        HorizontalLayout headerLayout = new HorizontalLayout(toggle, viewTitle, spacer, themeToggleButton);
+        HorizontalLayout headerLayout = new HorizontalLayout(toggle, viewTitle, spacer);
+        createGlobalSearch().ifPresent(headerLayout::add);
+        headerLayout.add(themeToggleButton);
         headerLayout.setWidthFull();
         headerLayout.setAlignItems(FlexComponent.Alignment.CENTER);
         headerLayout.setPadding(false);
@@ -96,6 +109,33 @@ public class MainLayout extends AppLayout implements AfterNavigationObserver {
         addToNavbar(true, headerLayout);
     }
 
+    /**
+     * Búsqueda global, limitada a las vistas de listado a las que el usuario tiene acceso
+     * (las entradas de menú ya vienen filtradas por permisos)
+     */
+    private Optional<GlobalSearchField> createGlobalSearch() {
+        Set<String> accessiblePaths = MenuConfiguration.getMenuEntries().stream()
+                .map(MenuEntry::path)
+                .collect(Collectors.toSet());
+
+        Map<SearchHitType, String> routes = new EnumMap<>(SearchHitType.class);
+        Map.of(SearchHitType.RENTAL, "rentals",
+               SearchHitType.CUSTOMER, "customers",
+               SearchHitType.VEHICLE, "vehicles")
+                .forEach((type, path) -> {
+                    if (accessiblePaths.contains(path)) {
+                        routes.put(type, path);
+                    }
+                });
+
+        if (routes.isEmpty()) {
+            return Optional.empty();
+        }
+        GlobalSearchField searchField = new GlobalSearchField(globalSearchService, routes);
+        searchField.getStyle().set("margin-right", "var(--lumo-space-s)");
+        return Optional.of(searchField);
+    }
+
     private void addDrawerContent() {
         // Contenedor para el logo
         Div logoContainer = new Div();
@@ -215,11 +255,11 @@ public class MainLayout extends AppLayout implements AfterNavigationObserver {
     private Footer createFooter() {
         Footer layout = new Footer();
 
-        Optional<com.rentacaresv.user.domain.User> maybeUser = authenticatedUser.get();
+        Optional<CurrentUser> maybeUser = authenticatedUser.getCurrentUser();
         if (maybeUser.isPresent()) {
-            com.rentacaresv.user.domain.User user = maybeUser.get();
+            CurrentUser user = maybeUser.get();
 
-            Avatar avatar = new Avatar(user.getName());
+            Avatar avatar = new Avatar(user.name());
             avatar.setThemeName("xsmall");
             avatar.getElement().setAttribute("tabindex", "-1");
 
@@ -229,7 +269,7 @@ public class MainLayout extends AppLayout implements AfterNavigationObserver {
             MenuItem userName = userMenu.addItem("");
             Div div = new Div();
             div.add(avatar);
-            div.add(user.getName());
+            div.add(user.name());
             div.add(new Icon("lumo", "dropdown"));
             div.getElement().getStyle().set("display", "flex");
             div.getElement().getStyle().set("align-items", "center");
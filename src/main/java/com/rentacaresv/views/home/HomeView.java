@@ -46,13 +46,13 @@ public class HomeView extends VerticalLayout {
         setSizeFull();
 
         // Log de acceso
-        authenticatedUser.get().ifPresent(user -> 
-            log.info("Usuario {} ({}) accedió al sistema", user.getUsername(), user.getName())
+        authenticatedUser.getCurrentUser().ifPresent(user -> 
+            log.info("Usuario {} ({}) accedió al sistema", user.username(), user.name())
         );
 
         // Saludo
-        authenticatedUser.get().ifPresent(user -> {
-            H2 greeting = new H2("¡Bienvenido, " + user.getName() + "!");
+        authenticatedUser.getCurrentUser().ifPresent(user -> {
+            H2 greeting = new H2("¡Bienvenido, " + user.name() + "!");
             greeting.getStyle().set("margin-top", "0");
             add(greeting);
         });
@@ -0,0 +1,6 @@
+-- V012: Columna de versión en settings para invalidar el cache en todos los nodos
+-- Cada guardado incrementa la versión; los nodos comparan solo este valor
+-- para decidir si deben recargar la configuración.
+
+ALTER TABLE settings
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,23 @@
+-- V013: Rollups diarios de analíticas para el dashboard
+-- Una fila por día × tipo de evento × vehículo × paso del wizard.
+-- Los valores NULL de vehicle_name / step_* se guardan como '' / 0 para que
+-- formen parte de la clave primaria.
+
+CREATE TABLE IF NOT EXISTS analytics_daily_rollup (
+    day             DATE            NOT NULL,
+    event_type      VARCHAR(50)     NOT NULL,
+    vehicle_name    VARCHAR(200)    NOT NULL DEFAULT '',
+    step_number     INT             NOT NULL DEFAULT 0,
+    step_name       VARCHAR(100)    NOT NULL DEFAULT '',
+    event_count     BIGINT          NOT NULL,
+
+    PRIMARY KEY (day, event_type, vehicle_name, step_number, step_name)
+);
+
+-- Días ya consolidados. Se consolidan en orden, así que todo día menor o igual
+-- al máximo registrado está completo en analytics_daily_rollup.
+CREATE TABLE IF NOT EXISTS analytics_rollup_day (
+    day             DATE            NOT NULL PRIMARY KEY,
+    event_count     BIGINT          NOT NULL,
+    rolled_up_at    DATETIME        NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,9 @@
+-- V014: Sketches HyperLogLog diarios de session_id para visitantes únicos
+-- Un sketch por día consolidado; el dashboard combina los sketches del rango
+-- en memoria en lugar de hacer COUNT(DISTINCT session_id) sobre los eventos.
+
+CREATE TABLE IF NOT EXISTS analytics_daily_visitors (
+    day             DATE            NOT NULL PRIMARY KEY,
+    hll_precision   TINYINT         NOT NULL,
+    sketch          BLOB            NOT NULL
+);
@@ -0,0 +1,24 @@
+-- V015: Particionado mensual de analytics_event por created_at
+-- La clave de partición debe formar parte de la clave primaria, por eso pasa a
+-- ser (id, created_at). Cada partición pYYYYMM guarda un mes; p_max recibe lo
+-- que quede por encima del último mes creado. AnalyticsPartitionManager crea
+-- los meses siguientes y elimina los que superan la retención (DROP PARTITION
+-- en lugar de DELETE fila por fila).
+
+ALTER TABLE analytics_event
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE analytics_event
+    PARTITION BY RANGE COLUMNS (created_at) (
+        PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+        PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+        PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+        PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+        PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+        PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+        PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+        PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+        PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+        PARTITION p_max   VALUES LESS THAN (MAXVALUE)
+    );
@@ -0,0 +1,5 @@
+-- V016: Índice compuesto para paginación por keyset del registro de accesos
+-- AccessLogView pagina con "WHERE (timestamp, id) < (cursor) ORDER BY timestamp DESC, id DESC";
+-- con este índice cada página es un range scan de N filas, sin OFFSET ni COUNT.
+
+CREATE INDEX IF NOT EXISTS idx_access_log_timestamp_id ON access_log (`timestamp`, id);
@@ -0,0 +1,18 @@
+-- V017: Outbox de sincronización con Google Calendar
+-- RentalService registra aquí los cambios de rentas en la misma transacción;
+-- CalendarSyncWorker los envía a Google en lotes (batch API) fuera de la transacción.
+-- Las filas se borran al sincronizarse; las que agotan reintentos quedan para revisión.
+
+CREATE TABLE IF NOT EXISTS calendar_sync_outbox (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    rental_id       BIGINT       NOT NULL,
+    operation       VARCHAR(10)  NOT NULL,
+    user_id         BIGINT       NULL,
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME     NOT NULL,
+    last_error      VARCHAR(500) NULL,
+    created_at      DATETIME     NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_calendar_sync_outbox_due (next_attempt_at, id),
+    INDEX idx_calendar_sync_outbox_rental (rental_id, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
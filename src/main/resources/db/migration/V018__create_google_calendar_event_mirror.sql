@@ -0,0 +1,25 @@
+-- V018: Copia local de los eventos de Google Calendar por token vinculado
+-- GoogleCalendarMirrorService la mantiene con events.list incremental (syncToken);
+-- CalendarView lee de aquí en vez de consultar a Google en cada carga.
+
+CREATE TABLE IF NOT EXISTS google_calendar_event_mirror (
+    token_id    BIGINT        NOT NULL,
+    event_id    VARCHAR(1024) NOT NULL,
+    title       VARCHAR(1024) NULL,
+    description TEXT          NULL,
+    start_date  DATE          NOT NULL,
+    end_date    DATE          NOT NULL,
+    all_day     BOOLEAN       NOT NULL DEFAULT FALSE,
+    color_id    VARCHAR(10)   NULL,
+    html_link   VARCHAR(1024) NULL,
+    PRIMARY KEY (token_id, event_id(255)),
+    INDEX idx_google_calendar_event_mirror_range (token_id, start_date, end_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS google_calendar_mirror_state (
+    token_id       BIGINT        NOT NULL,
+    calendar_id    VARCHAR(200)  NOT NULL,
+    sync_token     VARCHAR(1024) NULL,
+    last_synced_at DATETIME      NOT NULL,
+    PRIMARY KEY (token_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
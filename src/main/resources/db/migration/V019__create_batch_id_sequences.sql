@@ -0,0 +1,20 @@
+-- V019: Secuencias para los ids de rental_photo y contract_accessory
+-- Con AUTO_INCREMENT Hibernate necesita ejecutar cada INSERT por separado para leer el id
+-- generado, lo que impide el batching JDBC. Con secuencias (optimizador pooled-lo, bloques
+-- de 50) los ids se asignan en memoria y los INSERT se envían en lote.
+-- Cada secuencia arranca después del id más alto existente. La columna conserva
+-- AUTO_INCREMENT para inserciones que no pasen por Hibernate.
+
+SET @sql = CONCAT('CREATE SEQUENCE IF NOT EXISTS rental_photo_seq START WITH ',
+                  (SELECT COALESCE(MAX(id), 0) + 1 FROM rental_photo),
+                  ' INCREMENT BY 50');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @sql = CONCAT('CREATE SEQUENCE IF NOT EXISTS contract_accessory_seq START WITH ',
+                  (SELECT COALESCE(MAX(id), 0) + 1 FROM contract_accessory),
+                  ' INCREMENT BY 50');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,73 @@
+-- V020: Índices compuestos para las consultas frecuentes de rentas, pagos y registro de accesos
+-- Cada índice sigue el orden de las columnas de las consultas de RentalRepository,
+-- PaymentRepository y AccessLogRepository: primero las igualdades (incluido deleted_at IS NULL),
+-- luego el rango o el ORDER BY. Así el motor lee solo el rango necesario y no ordena en memoria.
+-- Las búsquedas LIKE '%texto%' de searchRentals no pueden usar índices B-tree; con estos índices
+-- al menos recorren las filas ya en orden de created_at y se detienen al llenar la página.
+
+-- ─── rental ──────────────────────────────────────────────────────────────────
+
+-- hasConflictingRentals / hasConflictingRentalsExcluding / findActiveRentalsByVehicleId /
+-- findActiveRowsByVehicleId / hasActiveRentals
+CREATE INDEX IF NOT EXISTS idx_rental_vehicle_status_dates
+    ON rental (vehicle_id, status, deleted_at, start_date, end_date);
+
+-- findAllActive / findAllActivePaged / searchRentals / countAllActive (ORDER BY created_at DESC)
+CREATE INDEX IF NOT EXISTS idx_rental_deleted_created
+    ON rental (deleted_at, created_at);
+
+-- findByStatus / findByStatusPaged / searchRentalsByStatus / countByStatus /
+-- findActiveRentals / findPendingRentals / findOverdueRentals
+CREATE INDEX IF NOT EXISTS idx_rental_status_deleted_created
+    ON rental (status, deleted_at, created_at);
+
+-- countByEndDate (end_date = :date AND status IN (...))
+CREATE INDEX IF NOT EXISTS idx_rental_end_date_status
+    ON rental (end_date, status, deleted_at);
+
+-- findCalendarRows / findByDateRange (rango de start_date)
+CREATE INDEX IF NOT EXISTS idx_rental_deleted_start_end
+    ON rental (deleted_at, start_date, end_date);
+
+-- findByCustomerId (ORDER BY created_at DESC)
+CREATE INDEX IF NOT EXISTS idx_rental_customer_deleted_created
+    ON rental (customer_id, deleted_at, created_at);
+
+-- ─── payment ─────────────────────────────────────────────────────────────────
+
+-- findAllActive / findByDateRange / findTopNByOrderByPaymentDateDesc
+CREATE INDEX IF NOT EXISTS idx_payment_deleted_date
+    ON payment (deleted_at, payment_date);
+
+-- findByStatus / findPendingPayments / countByStatus / calculateTotalIncome
+-- (amount al final: la suma de ingresos se resuelve solo con el índice)
+CREATE INDEX IF NOT EXISTS idx_payment_status_deleted_date_amount
+    ON payment (status, deleted_at, payment_date, amount);
+
+-- findByRentalId / calculateTotalPaidForRental (cubierto por el índice)
+CREATE INDEX IF NOT EXISTS idx_payment_rental_status_deleted_amount
+    ON payment (rental_id, status, deleted_at, amount);
+
+-- findByPaymentMethod
+CREATE INDEX IF NOT EXISTS idx_payment_method_deleted_date
+    ON payment (payment_method, deleted_at, payment_date);
+
+-- ─── access_log ──────────────────────────────────────────────────────────────
+
+-- countFailedLoginsSince / findLastSuccessfulLogins / findByUsernameOrderByTimestampDesc
+CREATE INDEX IF NOT EXISTS idx_access_log_username_event_ts
+    ON access_log (username, event_type, `timestamp`);
+
+-- findFailedLoginsSince / findActiveUsersSince / countByEventTypeInPeriod
+CREATE INDEX IF NOT EXISTS idx_access_log_event_ts
+    ON access_log (event_type, `timestamp`);
+
+-- countFailedLoginsFromIpSince / findByIpAddressOrderByTimestampDesc
+CREATE INDEX IF NOT EXISTS idx_access_log_ip_event_ts
+    ON access_log (ip_address, event_type, `timestamp`);
+
+-- Índices de una columna que quedan cubiertos como prefijo de un índice compuesto:
+-- solo encarecen los INSERT de una tabla con mucha escritura
+DROP INDEX IF EXISTS idx_access_log_username ON access_log;
+DROP INDEX IF EXISTS idx_access_log_event_type ON access_log;
+DROP INDEX IF EXISTS idx_access_log_timestamp ON access_log;
@@ -0,0 +1,14 @@
+-- V021: Índices FULLTEXT para la búsqueda de rentas, clientes y vehículos
+-- Reemplazan los LOWER(col) LIKE '%texto%' (que no pueden usar índices y recorren el JOIN
+-- completo en cada tecla) por MATCH ... AGAINST en modo booleano con prefijos (texto*).
+-- El parser de InnoDB separa por signos de puntuación: "ADM-20260410-00001" se indexa
+-- como ADM, 20260410 y 00001, y "P123-456" como P123 y 456.
+
+CREATE FULLTEXT INDEX IF NOT EXISTS ft_rental_contract_number
+    ON rental (contract_number);
+
+CREATE FULLTEXT INDEX IF NOT EXISTS ft_customer_search
+    ON customer (full_name, document_number, email, phone);
+
+CREATE FULLTEXT INDEX IF NOT EXISTS ft_vehicle_search
+    ON vehicle (license_plate, brand, model);
@@ -0,0 +1,16 @@
+-- V022: Columna de versión en rental, vehicle, contract y payment (bloqueo optimista)
+-- Cada UPDATE hecho por Hibernate incluye "WHERE version = ?" e incrementa el valor;
+-- si otra transacción guardó antes, el UPDATE no afecta filas y el cambio se rechaza
+-- en lugar de sobrescribir silenciosamente los datos del otro usuario.
+
+ALTER TABLE rental
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE vehicle
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE contract
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE payment
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
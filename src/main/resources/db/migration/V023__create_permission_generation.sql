@@ -0,0 +1,10 @@
+-- V023: Generación de permisos compartida entre nodos
+-- Cada cambio de roles, permisos o usuarios la incrementa en la misma transacción;
+-- los nodos consultan solo este valor y, si cambió, descartan sus permisos en memoria.
+
+CREATE TABLE IF NOT EXISTS permission_generation (
+    id TINYINT NOT NULL PRIMARY KEY,
+    generation BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT IGNORE INTO permission_generation (id, generation) VALUES (1, 0);
@@ -0,0 +1,7 @@
+-- V024: Ventana de fechas de la copia local de Google Calendar
+-- La sincronización completa solo descarga [hoy - días pasados, hoy + días futuros];
+-- el syncToken conserva esa ventana, así que al acercarse window_end se rehace la completa.
+-- Las filas existentes quedan en NULL y se resincronizan completas con la ventana nueva.
+
+ALTER TABLE google_calendar_mirror_state
+    ADD COLUMN window_end DATE NULL AFTER sync_token;
@@ -0,0 +1,13 @@
+-- V025: Secuencia para el consecutivo de los números de pago (PAY-YYYYMMDD-XXXXX)
+-- Antes se buscaba el primer consecutivo libre del día con un SELECT por intento, y dos
+-- pagos simultáneos (de rentas distintas) podían elegir el mismo y chocar con la clave única.
+-- NEXTVAL nunca repite valores entre transacciones ni nodos. El consecutivo deja de
+-- reiniciarse cada día y arranca después del más alto existente.
+
+SET @sql = CONCAT('CREATE SEQUENCE IF NOT EXISTS payment_number_seq START WITH ',
+                  (SELECT COALESCE(MAX(CAST(SUBSTRING_INDEX(payment_number, '-', -1) AS UNSIGNED)), 0) + 1
+                   FROM payment WHERE payment_number LIKE 'PAY-%'),
+                  ' INCREMENT BY 1');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,88 @@
+package com.rentacaresv.payment.application;
+
+import com.rentacaresv.customer.domain.Customer;
+import com.rentacaresv.customer.infrastructure.CustomerRepository;
+import com.rentacaresv.rental.domain.Rental;
+import com.rentacaresv.rental.infrastructure.RentalRepository;
+import com.rentacaresv.support.MariaDbIntegrationTest;
+import com.rentacaresv.support.TestEntities;
+import com.rentacaresv.vehicle.domain.Vehicle;
+import com.rentacaresv.vehicle.infrastructure.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pagos simultáneos sobre la misma renta: cada conflicto de versión se reintenta con el
+ * saldo actual, así que ningún pago se pierde ni queda sin aplicar.
+ */
+@MariaDbIntegrationTest
+@TestPropertySource(properties = "app.optimistic-lock.max-retries=20")
+class PaymentServiceConcurrencyTest {
+
+    private static final int PAYMENTS = 8;
+    private static final BigDecimal AMOUNT = new BigDecimal("25.00");
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Test
+    void parallelPaymentsOnOneRentalAreAllApplied() throws Exception {
+        Customer customer = customerRepository.save(TestEntities.customer());
+        Vehicle vehicle = vehicleRepository.save(TestEntities.vehicle());
+        BigDecimal total = AMOUNT.multiply(BigDecimal.valueOf(PAYMENTS));
+        Rental rental = rentalRepository.save(TestEntities.rental(customer, vehicle, LocalDate.now().plusDays(10), total));
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(PAYMENTS);
+        List<Future<PaymentDTO>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < PAYMENTS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return paymentService.registerPayment(RegisterPaymentCommand.builder()
+                            .rentalId(rental.getId())
+                            .amount(AMOUNT)
+                            .paymentMethod("CASH")
+                            .build());
+                }));
+            }
+            start.countDown();
+
+            // get() relanza cualquier fallo: un conflicto que agotó los reintentos hace fallar la prueba
+            List<String> paymentNumbers = new ArrayList<>();
+            for (Future<PaymentDTO> result : results) {
+                paymentNumbers.add(result.get(60, TimeUnit.SECONDS).getPaymentNumber());
+            }
+            assertThat(paymentNumbers).doesNotHaveDuplicates();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Rental reloaded = rentalRepository.findById(rental.getId()).orElseThrow();
+        assertThat(reloaded.getAmountPaid()).isEqualByComparingTo(total);
+        assertThat(reloaded.getVersion()).isEqualTo(rental.getVersion() + PAYMENTS);
+        assertThat(paymentService.findByRentalId(rental.getId())).hasSize(PAYMENTS);
+    }
+}
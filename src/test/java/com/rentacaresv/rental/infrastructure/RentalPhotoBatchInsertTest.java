@@ -0,0 +1,89 @@
+package com.rentacaresv.rental.infrastructure;
+
+import com.rentacaresv.customer.domain.Customer;
+import com.rentacaresv.customer.infrastructure.CustomerRepository;
+import com.rentacaresv.rental.domain.Rental;
+import com.rentacaresv.rental.domain.photo.RentalPhoto;
+import com.rentacaresv.rental.domain.photo.RentalPhotoType;
+import com.rentacaresv.support.MariaDbIntegrationTest;
+import com.rentacaresv.support.TestEntities;
+import com.rentacaresv.vehicle.domain.Vehicle;
+import com.rentacaresv.vehicle.infrastructure.VehicleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Batching JDBC de rental_photo (id por secuencia pooled-lo): un saveAll de más filas que
+ * hibernate.jdbc.batch_size se envía en lotes. Hibernate Statistics no cuenta lotes, pero sí
+ * sentencias preparadas: con batching hay a lo sumo una por lote más una lectura de la
+ * secuencia por bloque de ids; sin batching habría una por fila.
+ */
+@MariaDbIntegrationTest
+class RentalPhotoBatchInsertTest {
+
+    private static final int PHOTOS = 120;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @Autowired
+    private RentalPhotoRepository rentalPhotoRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void saveAllSendsInsertsInBatches() {
+        assertThat(PHOTOS).isGreaterThan(batchSize);
+
+        Customer customer = customerRepository.save(TestEntities.customer());
+        Vehicle vehicle = vehicleRepository.save(TestEntities.vehicle());
+        Rental rental = rentalRepository.save(
+                TestEntities.rental(customer, vehicle, LocalDate.now().plusDays(5), new BigDecimal("90.00")));
+
+        List<RentalPhoto> photos = IntStream.range(0, PHOTOS)
+                .mapToObj(i -> RentalPhoto.builder()
+                        .rental(rental)
+                        .photoUrl("https://example.test/photos/" + i + ".jpg")
+                        .photoType(RentalPhotoType.DELIVERY_EXTERIOR)
+                        .displayOrder(i)
+                        .build())
+                .toList();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> rentalPhotoRepository.saveAll(photos));
+
+        int batches = (PHOTOS + batchSize - 1) / batchSize;
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(PHOTOS);
+        assertThat(statistics.getPrepareStatementCount())
+                .as("sentencias preparadas para %d inserciones en lotes de %d", PHOTOS, batchSize)
+                .isLessThanOrEqualTo(2L * batches);
+    }
+}
@@ -0,0 +1,205 @@
+package com.rentacaresv.shared.infrastructure;
+
+import com.rentacaresv.customer.domain.Customer;
+import com.rentacaresv.customer.infrastructure.CustomerRepository;
+import com.rentacaresv.payment.domain.Payment;
+import com.rentacaresv.payment.domain.PaymentMethod;
+import com.rentacaresv.payment.domain.PaymentStatus;
+import com.rentacaresv.payment.infrastructure.PaymentRepository;
+import com.rentacaresv.rental.domain.Rental;
+import com.rentacaresv.rental.domain.RentalStatus;
+import com.rentacaresv.rental.infrastructure.RentalRepository;
+import com.rentacaresv.support.MariaDbIntegrationTest;
+import com.rentacaresv.support.TestEntities;
+import com.rentacaresv.vehicle.domain.Vehicle;
+import com.rentacaresv.vehicle.infrastructure.VehicleRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regresión de los índices de V020: el plan (EXPLAIN) de cada consulta frecuente de rentas,
+ * pagos y registro de accesos no debe recorrer la tabla completa (type = ALL).
+ *
+ * Las consultas son el SQL equivalente a las de RentalRepository, PaymentRepository y
+ * AccessLogRepository, sin los JOIN de las proyecciones. Se siembran filas con valores
+ * repartidos y se ejecuta ANALYZE TABLE para que el optimizador decida con estadísticas reales.
+ */
+@MariaDbIntegrationTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HotQueryIndexUsageTest {
+
+    private static final int ROWS = 400;
+    private static final LocalDate BASE_DATE = LocalDate.now().plusYears(5);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private Customer customer;
+    private Vehicle vehicle;
+    private Rental rental;
+
+    @BeforeAll
+    void seed() {
+        List<Customer> customers = customerRepository.saveAll(
+                Stream.generate(TestEntities::customer).limit(20).toList());
+        List<Vehicle> vehicles = vehicleRepository.saveAll(
+                Stream.generate(TestEntities::vehicle).limit(20).toList());
+
+        List<Rental> rentals = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Rental seeded = TestEntities.rental(customers.get(i % 20), vehicles.get(i % 20),
+                    BASE_DATE.plusDays(i), new BigDecimal("120.00"));
+            seeded.setStatus(rentalStatus(i));
+            seeded.setCreatedAt(LocalDateTime.now().minusDays(ROWS - i));
+            rentals.add(seeded);
+        }
+        rentals = rentalRepository.saveAll(rentals);
+
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            payments.add(Payment.builder()
+                    .paymentNumber("T-" + UUID.randomUUID().toString().substring(0, 20))
+                    .rental(rentals.get(i))
+                    .amount(new BigDecimal("40.00"))
+                    .paymentMethod(i % 20 == 2 ? PaymentMethod.BANK_TRANSFER
+                            : i % 2 == 0 ? PaymentMethod.CASH : PaymentMethod.CARD)
+                    .status(i % 20 == 0 ? PaymentStatus.PENDING
+                            : i % 20 == 1 ? PaymentStatus.REFUNDED : PaymentStatus.COMPLETED)
+                    .paymentDate(BASE_DATE.atStartOfDay().plusDays(i))
+                    .build());
+        }
+        paymentRepository.saveAll(payments);
+
+        List<Object[]> accessLogs = new ArrayList<>();
+        for (int i = 0; i < ROWS * 2; i++) {
+            accessLogs.add(new Object[]{
+                    "explain-user-" + (i % 50),
+                    i % 10 == 0 ? "LOGIN_FAILED" : i % 2 == 0 ? "LOGIN_SUCCESS" : "LOGOUT",
+                    Timestamp.valueOf(LocalDateTime.now().minusMinutes(i * 10L)),
+                    "10.99." + (i % 50) + ".1"});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO access_log (username, event_type, `timestamp`, ip_address, success) VALUES (?, ?, ?, ?, TRUE)",
+                accessLogs);
+
+        jdbcTemplate.execute("ANALYZE TABLE rental, payment, access_log");
+
+        customer = customers.get(3);
+        vehicle = vehicles.get(3);
+        rental = rentals.get(3);
+    }
+
+    Stream<Arguments> hotQueries() {
+        String from = BASE_DATE.toString();
+        String to = BASE_DATE.plusDays(20).toString();
+        String since = Timestamp.valueOf(LocalDateTime.now().minusHours(2)).toString();
+        return Stream.of(
+                // ─── rental ───
+                query("hasConflictingRentals", "r", """
+                        SELECT COUNT(*) FROM rental r WHERE r.vehicle_id = %d
+                        AND r.status IN ('PENDING', 'ACTIVE') AND r.deleted_at IS NULL
+                        AND r.start_date < '%s' AND r.end_date > '%s'""".formatted(vehicle.getId(), to, from)),
+                query("findActiveRowsByVehicleId", "r", """
+                        SELECT r.id FROM rental r WHERE r.vehicle_id = %d
+                        AND r.status IN ('PENDING', 'ACTIVE') AND r.deleted_at IS NULL
+                        ORDER BY r.start_date""".formatted(vehicle.getId())),
+                query("findAllActivePaged", "r", """
+                        SELECT r.id FROM rental r WHERE r.deleted_at IS NULL
+                        ORDER BY r.created_at DESC LIMIT 25"""),
+                query("findByStatusPaged", "r", """
+                        SELECT r.id FROM rental r WHERE r.status = 'ACTIVE' AND r.deleted_at IS NULL
+                        ORDER BY r.created_at DESC LIMIT 25"""),
+                query("countByEndDate", "r", """
+                        SELECT COUNT(*) FROM rental r WHERE r.end_date = '%s'
+                        AND r.status IN ('ACTIVE', 'PENDING') AND r.deleted_at IS NULL""".formatted(to)),
+                query("findCalendarRows", "r", """
+                        SELECT r.id FROM rental r WHERE r.deleted_at IS NULL
+                        AND r.start_date <= '%s' AND r.end_date >= '%s'""".formatted(to, from)),
+                query("findByCustomerId", "r", """
+                        SELECT r.id FROM rental r WHERE r.customer_id = %d AND r.deleted_at IS NULL
+                        ORDER BY r.created_at DESC""".formatted(customer.getId())),
+                // ─── payment ───
+                query("findTopNByOrderByPaymentDateDesc", "p", """
+                        SELECT p.id FROM payment p WHERE p.deleted_at IS NULL
+                        ORDER BY p.payment_date DESC LIMIT 25"""),
+                query("calculateTotalPaidForRental", "p", """
+                        SELECT COALESCE(SUM(p.amount), 0) FROM payment p WHERE p.rental_id = %d
+                        AND p.status = 'COMPLETED' AND p.deleted_at IS NULL""".formatted(rental.getId())),
+                query("calculateTotalIncome", "p", """
+                        SELECT COALESCE(SUM(p.amount), 0) FROM payment p
+                        WHERE p.payment_date BETWEEN '%s 00:00:00' AND '%s 23:59:59'
+                        AND p.status = 'COMPLETED' AND p.deleted_at IS NULL""".formatted(from, to)),
+                query("findPendingPayments", "p", """
+                        SELECT p.id FROM payment p WHERE p.status = 'PENDING' AND p.deleted_at IS NULL
+                        ORDER BY p.payment_date"""),
+                query("findByPaymentMethod", "p", """
+                        SELECT p.id FROM payment p WHERE p.payment_method = 'BANK_TRANSFER'
+                        AND p.deleted_at IS NULL ORDER BY p.payment_date DESC"""),
+                // ─── access_log ───
+                query("countFailedLoginsSince", "a", """
+                        SELECT COUNT(*) FROM access_log a WHERE a.username = 'explain-user-0'
+                        AND a.event_type = 'LOGIN_FAILED' AND a.`timestamp` > '%s'""".formatted(since)),
+                query("findFailedLoginsSince", "a", """
+                        SELECT a.username, a.ip_address, a.`timestamp` FROM access_log a
+                        WHERE a.event_type = 'LOGIN_FAILED' AND a.`timestamp` > '%s'""".formatted(since)),
+                query("countFailedLoginsFromIpSince", "a", """
+                        SELECT COUNT(*) FROM access_log a WHERE a.ip_address = '10.99.0.1'
+                        AND a.event_type = 'LOGIN_FAILED' AND a.`timestamp` > '%s'""".formatted(since))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryDoesNotScanTheWholeTable(String sql, String alias) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql);
+
+        assertThat(plan)
+                .as("EXPLAIN %s%n%s", sql, plan)
+                .filteredOn(row -> alias.equals(row.get("table")))
+                .isNotEmpty()
+                .allSatisfy(row -> assertThat(row.get("type")).isNotEqualTo("ALL"));
+    }
+
+    private static Arguments query(String name, String alias, String sql) {
+        return Arguments.of(Named.of(name, sql), alias);
+    }
+
+    private static RentalStatus rentalStatus(int i) {
+        return switch (i % 10) {
+            case 0 -> RentalStatus.ACTIVE;
+            case 1 -> RentalStatus.PENDING;
+            case 2 -> RentalStatus.CANCELLED;
+            default -> RentalStatus.COMPLETED;
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.rentacaresv.shared.infrastructure;
+
+import com.rentacaresv.customer.domain.Customer;
+import com.rentacaresv.customer.infrastructure.CustomerRepository;
+import com.rentacaresv.payment.application.PaymentService;
+import com.rentacaresv.payment.domain.Payment;
+import com.rentacaresv.payment.domain.PaymentMethod;
+import com.rentacaresv.payment.infrastructure.PaymentRepository;
+import com.rentacaresv.rental.application.RentalService;
+import com.rentacaresv.rental.domain.Rental;
+import com.rentacaresv.rental.domain.RentalStatus;
+import com.rentacaresv.rental.infrastructure.RentalRepository;
+import com.rentacaresv.support.MariaDbIntegrationTest;
+import com.rentacaresv.support.TestEntities;
+import com.rentacaresv.vehicle.domain.Vehicle;
+import com.rentacaresv.vehicle.infrastructure.VehicleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Los listados de rentas y pagos usan proyecciones (RentalListRow, PaymentListRow) con JOIN:
+ * una sola sentencia sin importar cuántas filas devuelvan, sin cargar entidades ni sus
+ * relaciones perezosas (N+1).
+ */
+@MariaDbIntegrationTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListRowStatementCountTest {
+
+    private static final int ROWS = 30;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Customer customer;
+    private Rental rental;
+
+    @BeforeAll
+    void seed() {
+        List<Rental> rentals = new ArrayList<>();
+        List<Payment> payments = new ArrayList<>();
+        customer = customerRepository.save(TestEntities.customer());
+        for (int i = 0; i < ROWS; i++) {
+            // Un vehículo distinto por renta: cargarlos por separado se vería en el conteo
+            Vehicle vehicle = vehicleRepository.save(TestEntities.vehicle());
+            Rental seeded = TestEntities.rental(customer, vehicle, LocalDate.now().plusDays(i), new BigDecimal("90.00"));
+            seeded.setStatus(RentalStatus.ACTIVE);
+            rentals.add(seeded);
+        }
+        rentals = rentalRepository.saveAll(rentals);
+        for (Rental seeded : rentals) {
+            payments.add(Payment.builder()
+                    .paymentNumber("T-" + UUID.randomUUID().toString().substring(0, 20))
+                    .rental(seeded)
+                    .amount(new BigDecimal("30.00"))
+                    .paymentMethod(PaymentMethod.CASH)
+                    .build());
+        }
+        paymentRepository.saveAll(payments);
+        rental = rentals.get(0);
+    }
+
+    @Test
+    void rentalListsRunOneStatement() {
+        assertSingleStatement(rentalService::findAll, ROWS);
+        assertSingleStatement(() -> rentalService.findByStatus(RentalStatus.ACTIVE), ROWS);
+        assertSingleStatement(() -> rentalService.findByCustomerId(customer.getId()), ROWS);
+    }
+
+    @Test
+    void paymentListsRunOneStatement() {
+        assertSingleStatement(paymentService::findAll, ROWS);
+        assertSingleStatement(() -> paymentService.findByRentalId(rental.getId()), 1);
+    }
+
+    private void assertSingleStatement(Supplier<List<?>> listQuery, int minimumRows) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<?> rows = listQuery.get();
+
+        assertThat(rows).hasSizeGreaterThanOrEqualTo(minimumRows);
+        assertThat(statistics.getPrepareStatementCount()).as("sentencias preparadas").isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).as("entidades cargadas").isZero();
+    }
+}
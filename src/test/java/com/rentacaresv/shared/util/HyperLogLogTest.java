@@ -0,0 +1,103 @@
+package com.rentacaresv.shared.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HyperLogLogTest {
+
+    private static final int PRECISION = 12;
+
+    /** Error estándar teórico en precisión 12: 1.04 / sqrt(4096) ≈ 1.6 % */
+    private static final double STANDARD_ERROR = 1.04 / Math.sqrt(1 << PRECISION);
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 1_000, 10_000, 50_000, 250_000, 1_000_000})
+    void estimateIsWithinThreeStandardErrors(int cardinality) {
+        HyperLogLog sketch = sketchOf(PRECISION, 0, cardinality);
+
+        double relativeError = Math.abs(sketch.estimate() - cardinality) / (double) cardinality;
+        assertThat(relativeError).isLessThanOrEqualTo(3 * STANDARD_ERROR);
+    }
+
+    @Test
+    void duplicatesDoNotChangeTheEstimate() {
+        HyperLogLog once = sketchOf(PRECISION, 0, 5_000);
+        HyperLogLog twice = sketchOf(PRECISION, 0, 5_000);
+        for (int i = 0; i < 5_000; i++) {
+            twice.add("customer-" + i);
+        }
+
+        assertThat(twice.toBytes()).isEqualTo(once.toBytes());
+    }
+
+    @Test
+    void mergeEqualsSketchOfTheUnion() {
+        HyperLogLog first = sketchOf(PRECISION, 0, 20_000);
+        HyperLogLog second = sketchOf(PRECISION, 10_000, 30_000);
+
+        HyperLogLog merged = first.merge(second);
+
+        assertThat(merged.toBytes()).isEqualTo(sketchOf(PRECISION, 0, 30_000).toBytes());
+    }
+
+    @Test
+    void mergeWithLowerPrecisionReducesToTheLowerPrecision() {
+        HyperLogLog precise = sketchOf(14, 0, 20_000);
+        HyperLogLog coarse = sketchOf(10, 10_000, 30_000);
+
+        HyperLogLog merged = precise.merge(coarse);
+
+        assertThat(merged.getPrecision()).isEqualTo(10);
+        assertThat(merged.toBytes()).isEqualTo(sketchOf(10, 0, 30_000).toBytes());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 8, 11, 12})
+    void reduceToEqualsSketchBuiltAtTheLowerPrecision(int newPrecision) {
+        HyperLogLog reduced = sketchOf(16, 0, 100_000).reduceTo(newPrecision);
+
+        assertThat(reduced.getPrecision()).isEqualTo(newPrecision);
+        assertThat(reduced.toBytes()).isEqualTo(sketchOf(newPrecision, 0, 100_000).toBytes());
+    }
+
+    @Test
+    void reduceToCannotIncreasePrecision() {
+        HyperLogLog sketch = new HyperLogLog(10);
+
+        assertThatThrownBy(() -> sketch.reduceTo(12)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bytesRoundTrip() {
+        HyperLogLog sketch = sketchOf(PRECISION, 0, 10_000);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertThat(restored.getPrecision()).isEqualTo(PRECISION);
+        assertThat(restored.toBytes()).isEqualTo(sketch.toBytes());
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void fromBytesRejectsInvalidSketches() {
+        byte[] truncated = new byte[100];
+        truncated[0] = PRECISION;
+        byte[] badPrecision = new byte[(1 << 3) + 1];
+        badPrecision[0] = 3;
+
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(truncated)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(badPrecision)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static HyperLogLog sketchOf(int precision, int fromInclusive, int toExclusive) {
+        HyperLogLog sketch = new HyperLogLog(precision);
+        for (int i = fromInclusive; i < toExclusive; i++) {
+            sketch.add("customer-" + i);
+        }
+        return sketch;
+    }
+}
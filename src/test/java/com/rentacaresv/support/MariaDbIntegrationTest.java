@@ -0,0 +1,36 @@
+package com.rentacaresv.support;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Prueba de integración contra una MariaDB real (contexto Spring completo, Flyway incluido).
+ *
+ * Solo corre con {@code mvn test -Dit.mariadb=true} y DB_HOST, DB_PORT, DB_RENTA_NAME, DB_USER y
+ * DB_PASSWORD apuntando a una base desechable: las pruebas insertan datos y no los borran.
+ *
+ * Los jobs programados se alejan a una hora para que no ejecuten sentencias mientras la
+ * prueba mide estadísticas de Hibernate.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@EnabledIfSystemProperty(named = "it.mariadb", matches = "true")
+@SpringBootTest(properties = {
+        "app.calendar.mirror.enabled=false",
+        "app.calendar.mirror.initial-delay-ms=3600000",
+        "app.calendar.sync.initial-delay-ms=3600000",
+        "app.contracts.expiry.initial-delay-ms=3600000",
+        "app.search.quick-index.enabled=false",
+        "app.search.quick-index.initial-delay-ms=3600000",
+        "app.security.permissions.refresh-interval-ms=3600000",
+        "app.settings.refresh-interval-ms=3600000"
+})
+public @interface MariaDbIntegrationTest {
+}
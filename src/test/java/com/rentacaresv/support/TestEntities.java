@@ -0,0 +1,66 @@
+package com.rentacaresv.support;
+
+import com.rentacaresv.customer.domain.Customer;
+import com.rentacaresv.customer.domain.DocumentType;
+import com.rentacaresv.rental.domain.Rental;
+import com.rentacaresv.vehicle.domain.FuelType;
+import com.rentacaresv.vehicle.domain.TransmissionType;
+import com.rentacaresv.vehicle.domain.Vehicle;
+import com.rentacaresv.vehicle.domain.VehicleType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Entidades mínimas válidas para las pruebas de integración (sin guardar).
+ * Los campos únicos llevan un sufijo aleatorio para poder repetir las pruebas en la misma base.
+ */
+public final class TestEntities {
+
+    private TestEntities() {
+    }
+
+    public static Customer customer() {
+        return Customer.builder()
+                .fullName("Cliente Prueba " + unique())
+                .documentType(DocumentType.DUI)
+                .documentNumber("T-" + unique())
+                .build();
+    }
+
+    public static Vehicle vehicle() {
+        return Vehicle.builder()
+                .licensePlate("T" + unique())
+                .brand("Toyota")
+                .model("Corolla")
+                .year(2024)
+                .transmissionType(TransmissionType.MANUAL)
+                .fuelType(FuelType.GASOLINE)
+                .vehicleType(VehicleType.SEDAN)
+                .passengerCapacity(5)
+                .priceNormal(new BigDecimal("40.00"))
+                .priceVip(new BigDecimal("35.00"))
+                .priceMoreThan15Days(new BigDecimal("30.00"))
+                .priceMonthly(new BigDecimal("800.00"))
+                .build();
+    }
+
+    public static Rental rental(Customer customer, Vehicle vehicle, LocalDate startDate, BigDecimal totalAmount) {
+        return Rental.builder()
+                .contractNumber("T-" + unique())
+                .customer(customer)
+                .vehicle(vehicle)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(3))
+                .dailyRate(totalAmount.divide(BigDecimal.valueOf(3), 2, RoundingMode.HALF_UP))
+                .totalDays(3)
+                .totalAmount(totalAmount)
+                .build();
+    }
+
+    private static String unique() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+    }
+}